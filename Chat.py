@@ -178,7 +178,7 @@ if "candidate_profile" not in st.session_state:
     }
 
 
-def build_conversation_context(messages, max_turns=6):
+def build_conversation_context(messages, max_turns=30):
     lines = []
     for msg in messages[-max_turns:]:
         role = "User" if msg["role"] == "user" else "Assistant"
@@ -0,0 +1,66 @@
+package com.magicbus.careercatalyst.databricks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Parsing Vector Search query responses shaped like the real API (manifest, data_array with score column). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseDocumentsBenchmark {
+
+    /** 3 is what an advice request asks for; 30 is the hybrid retriever's candidate pool. */
+    @Param({"3", "30", "300"})
+    public int rows;
+
+    private DatabricksVectorSearchClient client;
+    private String payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        client = new DatabricksVectorSearchClient("", "", "", "text", 3, 1000, 30,
+                3000, 10000, 2500, false, 200, 5, 3000, 30);
+        List<List<Object>> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(List.of("Student #" + (i + 1) + " (Student Name " + i + ") | Skills: Data Entry, Sales, Customer Service, "
+                    + "Communication, Microsoft Office, SQL (Basics) | Interests: Music, Technology, Gaming | Education: Graduate",
+                    0.0042 + i * 0.0001));
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("column_count", 2);
+        manifest.put("columns", List.of(Map.of("name", "text"), Map.of("name", "score")));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row_count", rows);
+        result.put("data_array", data);
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("manifest", manifest);
+        root.put("result", result);
+        root.put("next_page_token", "");
+        payload = new ObjectMapper().writeValueAsString(root);
+    }
+
+    @Benchmark
+    public List<Document> parseDocuments() {
+        return client.parseDocuments(payload);
+    }
+}
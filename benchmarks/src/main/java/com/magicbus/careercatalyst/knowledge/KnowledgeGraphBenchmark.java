@@ -0,0 +1,106 @@
+package com.magicbus.careercatalyst.knowledge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Knowledge-graph rule loading (parse + graph build, what the old loadKnowledgeGraphRules did on every
+ * request) and the per-request rule selection, over the bundled rules and larger generated rule files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KnowledgeGraphBenchmark {
+
+    /** 0 means the bundled knowledge_graph.json. */
+    @Param({"0", "1000", "50000"})
+    public int rules;
+
+    private List<Map<String, String>> ruleRows;
+    private Path ruleFile;
+    private KnowledgeGraphService service;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        if (rules == 0) {
+            try (InputStream in = new ClassPathResource("knowledge_graph.json").getInputStream()) {
+                ruleRows = mapper.readValue(in, List.class);
+            }
+        } else {
+            ruleRows = generate(rules);
+        }
+        ruleFile = Files.createTempFile("knowledge_graph", ".json");
+        mapper.writeValue(ruleFile.toFile(), ruleRows);
+        service = new KnowledgeGraphService(ruleFile.toString(), 12);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(ruleFile);
+    }
+
+    @Benchmark
+    public KnowledgeGraph buildGraph() {
+        return KnowledgeGraph.fromRules(ruleRows);
+    }
+
+    @Benchmark
+    public KnowledgeGraphService loadFromFile() {
+        return new KnowledgeGraphService(ruleFile.toString(), 12);
+    }
+
+    @Benchmark
+    public KnowledgeGraphService.Selection select() {
+        return service.select("Gaming, Music, Technology", "Excel, SQL (Basics), Communication");
+    }
+
+    @Benchmark
+    public KnowledgeGraphService.Selection selectNoMatch() {
+        return service.select("Astronomy", "Carpentry");
+    }
+
+    private static List<Map<String, String>> generate(int count) {
+        String[] interests = {"Gaming", "Music", "Movies", "Creative Arts", "Social Media", "Sports", "Technology", "Cooking"};
+        String[] traits = {"Strategic Thinking", "Pattern Recognition", "Story Structuring", "Visual Design",
+                "Audience Insight", "Teamwork", "Curiosity", "Attention to Detail"};
+        String[] skills = {"Testing Mindset", "Data Analysis", "Content Analysis", "UI Design", "SQL", "Excel", "Python",
+                "Customer Service", "Communication", "Power BI"};
+        String[] roles = {"Software Tester", "Data Analyst", "Digital Marketer", "UI/UX Designer", "Support Engineer",
+                "Business Analyst", "Cloud Support Associate", "Junior Developer"};
+        List<Map<String, String>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Suffixes grow the vocabulary with the rule count, like a real curated graph would.
+            rows.add(Map.of(
+                    "interest", interests[i % interests.length] + (i < 64 ? "" : " " + (i % 997)),
+                    "trait", traits[(i / 3) % traits.length] + " " + (i % 211),
+                    "skill", skills[(i / 7) % skills.length] + (i % 5 == 0 ? "" : " " + (i % 409)),
+                    "role", roles[(i / 11) % roles.length] + (i % 3 == 0 ? "" : " " + (i % 53))));
+        }
+        return rows;
+    }
+}
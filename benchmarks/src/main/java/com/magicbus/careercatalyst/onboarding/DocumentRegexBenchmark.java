@@ -0,0 +1,75 @@
+package com.magicbus.careercatalyst.onboarding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regex fallbacks applied to the OCR text of Document Intelligence results when the prebuilt model
+ * returns no structured fields. Content sizes match a two-page ID scan and a salary certificate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentRegexBenchmark {
+
+    private AzureDocumentIntelligenceClient client;
+    private String idContent;
+    private String incomeContent;
+    private String incomeLastPattern;
+    private String noMatchContent;
+
+    @Setup
+    public void setUp() {
+        client = new AzureDocumentIntelligenceClient("", "");
+        String filler = ocrFiller(40);
+        idContent = "GOVERNMENT OF INDIA\nUnique Identification Authority of India\n" + filler
+                + "Beverly Wilson\nDOB: 14/08/2003\nFEMALE\n1234 5678 9012\n";
+        incomeContent = "INCOME CERTIFICATE\nOffice of the Tahsildar\n" + filler
+                + "This is to certify that the annual income of the family is Rs. 1,80,000.00 from all sources.\n";
+        // Only the fourth pattern matches, so all four are compiled and scanned.
+        incomeLastPattern = "FORM 16\n" + filler + "Income before taxes: 2,45,500\n";
+        noMatchContent = "Bank statement\n" + filler;
+    }
+
+    @Benchmark
+    public String extractDob() {
+        return client.extractDobFromContent(idContent);
+    }
+
+    @Benchmark
+    public Object extractIncomeFirstPattern() {
+        return client.extractIncomeFromContent(incomeContent);
+    }
+
+    @Benchmark
+    public Object extractIncomeLastPattern() {
+        return client.extractIncomeFromContent(incomeLastPattern);
+    }
+
+    @Benchmark
+    public Object extractIncomeNoMatch() {
+        return client.extractIncomeFromContent(noMatchContent);
+    }
+
+    private static String ocrFiller(int lines) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append("Line ").append(i).append(": Address S/O Ramesh, House No ").append(100 + i)
+                    .append(", Ward 7, Pune, Maharashtra - 4110").append(i % 10).append(" Ph 98").append(i).append("0012345\n");
+        }
+        return text.toString();
+    }
+}
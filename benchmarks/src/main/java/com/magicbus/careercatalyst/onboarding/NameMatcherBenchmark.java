@@ -0,0 +1,44 @@
+package com.magicbus.careercatalyst.onboarding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameMatcherBenchmark {
+
+    // Names as they come back from OCR: mixed case, punctuation and extra spacing.
+    public String profileName = "Beverly  Wilson";
+    public String aadhaarName = "BEVERLY WILSON";
+    public String panName = "Beverly Wilson.";
+    public String incomeName = "beverly-wilson";
+    public String otherName = "Beverley Willson";
+
+    @Benchmark
+    public boolean allDocumentsMatch() {
+        return NameMatcher.allMatch(profileName, aadhaarName, panName, incomeName);
+    }
+
+    @Benchmark
+    public boolean aadhaarOnly() {
+        return NameMatcher.allMatch(profileName, aadhaarName, null, "");
+    }
+
+    @Benchmark
+    public boolean mismatch() {
+        return NameMatcher.allMatch(profileName, otherName, panName, incomeName);
+    }
+}
@@ -0,0 +1,54 @@
+package com.magicbus.careercatalyst.onboarding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Loading students.csv into the onboarding name lookup, at cohort sizes up to a national roll-out. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StudentProfileLoadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        String[] first = {"Beverly", "Justin", "Priya", "Rohan", "Sneha", "Imran", "Aarti", "Vikram"};
+        String[] last = {"Wilson", "Tate", "Sharma", "Mehta", "Patil", "Shaikh", "Kulkarni", "Singh"};
+        StringBuilder text = new StringBuilder(rows * 110);
+        text.append("student_id,name,skills,interests,education_level\n");
+        for (int i = 1; i <= rows; i++) {
+            text.append(i).append(',')
+                    .append(first[i % first.length]).append(' ').append(last[(i / 8) % last.length]).append(',')
+                    .append("\"Data Entry, Sales, Customer Service, Communication\",")
+                    .append("\"Music, Technology\",")
+                    .append(i % 3 == 0 ? "Graduate" : "12th Pass").append('\n');
+        }
+        csv = text.toString();
+    }
+
+    @Benchmark
+    public Map<String, String> readProfiles() throws IOException {
+        return StudentProfileLookup.readProfiles(new StringReader(csv));
+    }
+}
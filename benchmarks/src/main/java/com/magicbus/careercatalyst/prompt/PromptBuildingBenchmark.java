@@ -0,0 +1,110 @@
+package com.magicbus.careercatalyst.prompt;
+
+import com.magicbus.careercatalyst.conversation.ConversationCompactor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt assembly as done by CareerAdvisorService for every uncached request: conversation compaction
+ * followed by rendering the request template behind the fixed system message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBuildingBenchmark {
+
+    private AdvisorPromptLayout layout;
+    private ConversationCompactor compactor;
+    private Map<String, Object> templateVars;
+    private String conversation;
+
+    @Setup
+    public void setUp() {
+        layout = new AdvisorPromptLayout();
+        compactor = new ConversationCompactor(true, 1500, 4, 400, 5000);
+        conversation = conversation(30);
+
+        templateVars = new HashMap<>();
+        templateVars.put("education", "12th Pass");
+        templateVars.put("skills", "Microsoft Office, SQL (Basics), Communication, Excel");
+        templateVars.put("interests", "Gaming, Technology, Music");
+        templateVars.put("language", "Hindi (Simple, friendly, and encouraging). Respond only in Hindi. Do not mix English.");
+        templateVars.put("user_message", "Can you make a full roadmap for the data analyst path?");
+        templateVars.put("student_name", "Priya");
+        templateVars.put("ai_interest", "High");
+        templateVars.put("device_access", "Smartphone + shared laptop");
+        templateVars.put("time_per_week", "10 hours/week");
+        templateVars.put("math_comfort", "4");
+        templateVars.put("problem_solving", "3");
+        templateVars.put("english_comfort", "2");
+        templateVars.put("rag_context", String.join("\n---\n",
+                "Student #12 (Rohan Mehta) | Skills: Excel, SQL (Basics), Communication | Interests: Gaming, Cricket | Education: Graduate",
+                "Student #87 (Sneha Patil) | Skills: Python (Basics), Data Entry, Teamwork | Interests: Music, Technology | Education: 12th Pass",
+                "Student #301 (Imran Shaikh) | Skills: Power BI, Excel, Customer Service | Interests: Technology | Education: Diploma"));
+        StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            rules.append("Interest: Gaming -> Trait: Strategic Thinking -> Skill: Data Analysis ")
+                    .append(i).append(" -> Role: Data Analyst\n");
+        }
+        templateVars.put("kg_rules", rules.toString());
+        templateVars.put("curriculum_modules", String.join("\n",
+                "Data Analyst: Excel Basics; SQL Fundamentals; Power BI Dashboards; Statistics for Analysts",
+                "Software Tester: Manual Testing; Test Case Design; Selenium Basics; Bug Tracking",
+                "General (any path): Digital Literacy; Workplace Communication; Interview Readiness"));
+        templateVars.put("conversation_context", compactor.compact(conversation));
+    }
+
+    @Benchmark
+    public Prompt discoveryPrompt() {
+        return layout.create(false, templateVars);
+    }
+
+    @Benchmark
+    public Prompt roadmapPrompt() {
+        return layout.create(true, templateVars);
+    }
+
+    /** Steady state in a long chat: earlier turns are already digested and memoized. */
+    @Benchmark
+    public String compactConversationWarm() {
+        return compactor.compact(conversation);
+    }
+
+    /** First request of a long pasted transcript: every older turn is digested. */
+    @Benchmark
+    public String compactConversationCold() {
+        return new ConversationCompactor(true, 1500, 4, 400, 5000).compact(conversation);
+    }
+
+    private static String conversation(int turns) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < turns; i++) {
+            if (i % 2 == 0) {
+                text.append("User: I finished module ").append(i)
+                        .append(" and want to know what to do next. I can study in the evenings after work.\n");
+            } else {
+                text.append("Assistant: Great progress on module ").append(i).append(". The student should now focus on ")
+                        .append("**SQL joins** and **Excel pivot tables**, then build one small dashboard project.\n")
+                        .append("| Step | Resource | Time |\n| 1 | Khan Academy SQL | 3 hrs |\n| 2 | CodeWithHarry Excel | 2 hrs |\n")
+                        .append("Share this with the student this week and check in on Friday.\n");
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code --name value} command-line options. */
+final class Args {
+
+    private final Map<String, String> values;
+
+    private Args(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Args parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            int eq = name.indexOf('=');
+            if (eq > 0) {
+                values.put(name.substring(0, eq), name.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(name, args[++i]);
+            } else {
+                values.put(name, "true");
+            }
+        }
+        return new Args(values);
+    }
+
+    String value(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    double doubleValue(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    LatencyModel latency(String name, String defaultSpec) {
+        return LatencyModel.parse(value(name, defaultSpec));
+    }
+}
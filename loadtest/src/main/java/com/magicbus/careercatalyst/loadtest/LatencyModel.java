@@ -0,0 +1,40 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal response time fitted to a median and a p99, plus the share of calls that fail.
+ * Written on the command line as {@code median-ms:p99-ms:error-rate}, e.g. {@code 900:4000:0.01}.
+ */
+record LatencyModel(double medianMs, double p99Ms, double errorRate) {
+
+    private static final double Z_99 = 2.3263;
+
+    static LatencyModel parse(String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("Expected median-ms:p99-ms[:error-rate], got " + spec);
+        }
+        double median = Double.parseDouble(parts[0]);
+        double p99 = Math.max(median, Double.parseDouble(parts[1]));
+        double errorRate = parts.length == 3 ? Double.parseDouble(parts[2]) : 0.0;
+        return new LatencyModel(median, p99, errorRate);
+    }
+
+    long sampleMillis() {
+        if (medianMs <= 0) {
+            return 0;
+        }
+        double sigma = Math.log(p99Ms / medianMs) / Z_99;
+        return Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    boolean fails() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("median=%.0fms p99=%.0fms errors=%.1f%%", medianMs, p99Ms, errorRate * 100);
+    }
+}
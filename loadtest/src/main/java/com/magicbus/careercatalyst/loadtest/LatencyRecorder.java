@@ -0,0 +1,77 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Outcomes of one driven endpoint. Latencies are kept whole so the percentiles are exact. */
+final class LatencyRecorder {
+
+    private final String name;
+    private long[] latenciesMicros = new long[4096];
+    private int count;
+    private long sent;
+    private long dropped;
+    private long failures;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    synchronized void sent() {
+        sent++;
+    }
+
+    synchronized void dropped() {
+        dropped++;
+    }
+
+    /** {@code status} is -1 when the exchange failed without a response (timeout, refused connection). */
+    synchronized void completed(int status, long latencyNanos) {
+        if (status < 0) {
+            failures++;
+            return;
+        }
+        statuses.merge(status, 1L, Long::sum);
+        if (status >= 200 && status < 300) {
+            if (count == latenciesMicros.length) {
+                latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+            }
+            latenciesMicros[count++] = latencyNanos / 1_000;
+        }
+    }
+
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        long non2xx = statuses.entrySet().stream()
+                .filter(e -> e.getKey() < 200 || e.getKey() >= 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("sent", sent);
+        summary.put("ok", count);
+        summary.put("non2xx", non2xx);
+        summary.put("failures", failures);
+        summary.put("dropped", dropped);
+        summary.put("throughputPerSecond", seconds > 0 ? count / seconds : 0.0);
+        summary.put("p50Ms", percentileMillis(sorted, 0.50));
+        summary.put("p90Ms", percentileMillis(sorted, 0.90));
+        summary.put("p99Ms", percentileMillis(sorted, 0.99));
+        summary.put("p999Ms", percentileMillis(sorted, 0.999));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000.0);
+        summary.put("statuses", new LinkedHashMap<>(statuses));
+        return summary;
+    }
+
+    private static double percentileMillis(long[] sorted, double q) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000.0;
+    }
+}
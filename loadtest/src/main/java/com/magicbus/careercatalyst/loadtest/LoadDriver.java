@@ -0,0 +1,339 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load against a running application: requests go out on a fixed schedule at the target rate whether
+ * or not earlier ones have returned, and each latency is measured from its scheduled send time, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load.
+ *
+ * <p>With {@code --ramp-step} it runs a capacity test instead: the rate rises by that step until p99 exceeds
+ * {@code --slo-p99-ms} or the error rate exceeds {@code --max-error-rate}, and it reports the highest rate and
+ * number of in-flight requests the server sustained. Run it once per threading mode to compare them.
+ */
+public final class LoadDriver {
+
+    private enum Target {
+        ADVICE("advice", "/api/advisor/advice"),
+        ADVICE_STREAM("advice-stream", "/api/advisor/advice/stream"),
+        VERIFY("verify", "/api/onboarding/verify");
+
+        final String key;
+        final String path;
+
+        Target(String key, String path) {
+            this.key = key;
+            this.path = path;
+        }
+    }
+
+    private static final String[][] PROFILES = {
+            {"Data Entry, Sales, Customer Service", "Music, Technology", "Graduate"},
+            {"Excel, Typing, Communication", "Finance, Gaming", "12th Pass"},
+            {"Retail, Cash Handling, Hindi", "Fashion, Social Media", "10th Pass"},
+            {"Python (Basics), HTML", "Coding, Robotics", "Diploma"},
+            {"Tally, Book-keeping", "Accounts, Cricket", "B.Com"},
+            {"Driving, Field Sales", "Travel, Cars", "12th Pass"},
+    };
+    private static final String[] LANGUAGES = {"English", "Hindi", "Marathi"};
+
+    private record Run(List<Map<String, Object>> endpoints, Map<String, Object> overall, int peakInFlight) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String target;
+    private final Duration timeout;
+    private final String candidateName;
+    private final byte[] document = "%PDF-1.4\n% load-test document\n".getBytes(StandardCharsets.UTF_8);
+
+    private LoadDriver(String target, Duration timeout, String candidateName) {
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.timeout = timeout;
+        this.candidateName = candidateName;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = Args.parse(argv);
+        double rps = args.doubleValue("rps", 5);
+        int warmupSeconds = args.intValue("warmup", 10);
+        int durationSeconds = args.intValue("duration", 60);
+        int maxInFlight = args.intValue("max-in-flight", 2000);
+        Map<Target, Double> mix = parseMix(args.value("mix", "advice=0.8,verify=0.2"));
+        LoadDriver driver = new LoadDriver(args.value("target", "http://localhost:8080"),
+                Duration.ofSeconds(args.intValue("timeout", 120)),
+                args.value("candidate-name", "Beverly Wilson"));
+
+        Random random = new Random(args.intValue("seed", 42));
+        double rampStep = args.doubleValue("ramp-step", 0);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", driver.target);
+        report.put("mix", keyed(mix));
+        if (rampStep > 0) {
+            report.putAll(driver.ramp(rps, rampStep, args.doubleValue("max-rps", 1000), durationSeconds, maxInFlight,
+                    args.doubleValue("slo-p99-ms", 10_000), args.doubleValue("max-error-rate", 0.01), mix, random));
+        } else {
+            System.out.printf("Driving %s at %.1f req/s for %ds (+%ds warm-up), mix %s%n",
+                    driver.target, rps, durationSeconds, warmupSeconds, keyed(mix));
+            Run run = driver.run(rps, warmupSeconds, durationSeconds, maxInFlight, mix, random);
+            printTable(run.endpoints());
+            System.out.printf("peak in-flight: %d%n", run.peakInFlight());
+            report.put("rps", rps);
+            report.put("durationSeconds", durationSeconds);
+            report.put("peakInFlight", run.peakInFlight());
+            report.put("results", run.endpoints());
+        }
+
+        String out = args.value("out", "");
+        if (!out.isBlank()) {
+            Path path = Path.of(out);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            driver.objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            System.out.println("Wrote " + path.toAbsolutePath());
+        }
+    }
+
+    /** Steps the rate up from {@code startRps}, warming up only at the first step, until a step breaks the limits. */
+    private Map<String, Object> ramp(double startRps, double step, double maxRps, int stepSeconds, int maxInFlight,
+                                     double sloP99Millis, double maxErrorRate, Map<Target, Double> mix, Random random)
+            throws InterruptedException {
+        System.out.printf("Capacity ramp against %s: from %.1f req/s in steps of %.1f, %ds each, until p99 > %.0f ms "
+                + "or errors > %.1f%%, mix %s%n", target, startRps, step, stepSeconds, sloP99Millis, maxErrorRate * 100,
+                keyed(mix));
+        System.out.printf("%n%8s %8s %8s %8s %8s %8s %12s%n", "rps", "ok/s", "p50", "p99", "max", "errors%", "peak-in-flt");
+        List<Map<String, Object>> steps = new ArrayList<>();
+        Map<String, Object> sustained = null;
+        int warmup = 10;
+        for (double rps = startRps; rps <= maxRps; rps += step) {
+            Run run = run(rps, warmup, stepSeconds, maxInFlight, mix, random);
+            warmup = 0;
+            Map<String, Object> overall = run.overall();
+            long sent = (long) overall.get("sent") + (long) overall.get("dropped");
+            long bad = sent - ((Number) overall.get("ok")).longValue();
+            double errorRate = sent == 0 ? 0.0 : (double) bad / sent;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("rps", rps);
+            result.put("throughputPerSecond", overall.get("throughputPerSecond"));
+            result.put("p50Ms", overall.get("p50Ms"));
+            result.put("p99Ms", overall.get("p99Ms"));
+            result.put("maxMs", overall.get("maxMs"));
+            result.put("errorRate", errorRate);
+            result.put("peakInFlight", run.peakInFlight());
+            steps.add(result);
+            System.out.printf("%8.1f %8.2f %8.0f %8.0f %8.0f %8.2f %12d%n", rps, overall.get("throughputPerSecond"),
+                    overall.get("p50Ms"), overall.get("p99Ms"), overall.get("maxMs"), errorRate * 100, run.peakInFlight());
+            if ((double) overall.get("p99Ms") > sloP99Millis || errorRate > maxErrorRate) {
+                break;
+            }
+            sustained = result;
+        }
+        if (sustained == null) {
+            System.out.println("\nThe first step already broke the limits; lower --rps.");
+        } else {
+            System.out.printf("%nSustained %.1f req/s with up to %d requests in flight (p99 %.0f ms)%n",
+                    sustained.get("rps"), sustained.get("peakInFlight"), sustained.get("p99Ms"));
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("stepSeconds", stepSeconds);
+        report.put("sloP99Ms", sloP99Millis);
+        report.put("maxErrorRate", maxErrorRate);
+        report.put("steps", steps);
+        report.put("sustained", sustained);
+        return report;
+    }
+
+    private Run run(double rps, int warmupSeconds, int durationSeconds, int maxInFlight,
+                    Map<Target, Double> mix, Random random) throws InterruptedException {
+        LatencyRecorder overall = new LatencyRecorder("all");
+        Map<Target, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(t -> recorders.put(t, new LatencyRecorder(t.key)));
+        List<Target> targets = new ArrayList<>(mix.keySet());
+        double[] cumulative = new double[targets.size()];
+        double total = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            total += mix.get(targets.get(i));
+            cumulative[i] = total;
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        long period = Math.max(1, Math.round(1_000_000_000L / rps));
+        long start = System.nanoTime() + 100_000_000L;
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + durationSeconds * 1_000_000_000L;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * period;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            double pick = random.nextDouble() * total;
+            int index = 0;
+            while (index < cumulative.length - 1 && pick >= cumulative[index]) {
+                index++;
+            }
+            Target t = targets.get(index);
+            boolean measured = intended >= measureFrom;
+            LatencyRecorder recorder = recorders.get(t);
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    recorder.dropped();
+                    overall.dropped();
+                }
+                continue;
+            }
+            if (measured) {
+                recorder.sent();
+                overall.sent();
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            } else {
+                inFlight.incrementAndGet();
+            }
+            client.sendAsync(request(t, i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            int status = error == null ? response.statusCode() : -1;
+                            long latency = System.nanoTime() - intended;
+                            recorder.completed(status, latency);
+                            overall.completed(status, latency);
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        recorders.values().forEach(r -> results.add(r.summary(durationSeconds)));
+        return new Run(results, overall.summary(durationSeconds), peakInFlight.get());
+    }
+
+    private HttpRequest request(Target t, long sequence) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + t.path)).timeout(timeout);
+        if (t == Target.VERIFY) {
+            String boundary = "----loadtest" + Long.toHexString(sequence);
+            return builder.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary)))
+                    .build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(adviceBody(sequence)))
+                .build();
+    }
+
+    /** Rotates profiles and varies the message so the advice cache does not absorb the load. */
+    private byte[] adviceBody(long sequence) {
+        String[] profile = PROFILES[(int) (sequence % PROFILES.length)];
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("studentName", "Student " + sequence);
+        body.put("currentSkills", profile[0]);
+        body.put("interests", profile[1]);
+        body.put("educationLevel", profile[2]);
+        body.put("preferredLanguage", LANGUAGES[(int) (sequence % LANGUAGES.length)]);
+        body.put("userMessage", "Which career path suits me best? (request " + sequence + ")");
+        body.put("roadmapRequested", sequence % 4 == 0);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] multipart(String boundary) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        field(out, boundary, "candidateName", candidateName);
+        field(out, boundary, "candidateAgeRange", "18-25");
+        field(out, boundary, "candidateEducation", "12th Pass");
+        field(out, boundary, "candidateLocation", "Pune");
+        file(out, boundary, "aadhaar", "aadhaar.pdf");
+        file(out, boundary, "income", "income.pdf");
+        out.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static void field(ByteArrayOutputStream out, String boundary, String name, String value) {
+        out.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void file(ByteArrayOutputStream out, String boundary, String name, String filename) {
+        out.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                + filename + "\"\r\nContent-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(document);
+        out.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Target, Double> parseMix(String spec) {
+        Map<Target, Double> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            Target match = null;
+            for (Target t : Target.values()) {
+                if (t.key.equals(kv[0].trim())) {
+                    match = t;
+                }
+            }
+            if (match == null || kv.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + part + "'; use advice, advice-stream or verify");
+            }
+            double weight = Double.parseDouble(kv[1].trim());
+            if (weight > 0) {
+                mix.put(match, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no positive weights: " + spec);
+        }
+        return mix;
+    }
+
+    private static Map<String, Double> keyed(Map<Target, Double> mix) {
+        Map<String, Double> keyed = new LinkedHashMap<>();
+        mix.forEach((t, weight) -> keyed.put(t.key, weight));
+        return keyed;
+    }
+
+    private static void printTable(List<Map<String, Object>> results) {
+        System.out.printf("%n%-14s %7s %7s %7s %7s %7s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "sent", "ok", "non2xx", "failed", "dropped", "ok/s", "p50", "p90", "p99", "p99.9", "max");
+        for (Map<String, Object> r : results) {
+            System.out.printf("%-14s %7d %7d %7d %7d %7d %8.2f %8.0f %8.0f %8.0f %8.0f %8.0f%n",
+                    r.get("endpoint"), r.get("sent"), r.get("ok"), r.get("non2xx"), r.get("failures"), r.get("dropped"),
+                    r.get("throughputPerSecond"), r.get("p50Ms"), r.get("p90Ms"), r.get("p99Ms"), r.get("p999Ms"),
+                    r.get("maxMs"));
+        }
+        System.out.println("(latencies in ms from the scheduled send time; percentiles over 2xx responses)");
+        for (Map<String, Object> r : results) {
+            System.out.printf("%s statuses: %s%n", r.get("endpoint"), r.get("statuses"));
+        }
+    }
+}
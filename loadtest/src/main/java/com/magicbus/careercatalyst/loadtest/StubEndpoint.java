@@ -0,0 +1,101 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** One stubbed dependency: draws a latency, fails at the configured rate, otherwise hands over to its responder. */
+final class StubEndpoint implements HttpHandler {
+
+    interface Responder {
+        /** Writes the response; the responder decides how {@code latencyMillis} is spent (up front or across a stream). */
+        void respond(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException;
+    }
+
+    private final String name;
+    private final LatencyModel latency;
+    private final int errorStatus;
+    private final String errorBody;
+    private final Responder responder;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    StubEndpoint(String name, LatencyModel latency, int errorStatus, String errorBody, Responder responder) {
+        this.name = name;
+        this.latency = latency;
+        this.errorStatus = errorStatus;
+        this.errorBody = errorBody;
+        this.responder = responder;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            calls.incrementAndGet();
+            long latencyMillis = latency.sampleMillis();
+            if (latency.fails()) {
+                failures.incrementAndGet();
+                pause(latencyMillis);
+                if (errorStatus == 429) {
+                    exchange.getResponseHeaders().set("retry-after-ms", "1000");
+                    exchange.getResponseHeaders().set("retry-after", "1");
+                }
+                send(exchange, errorStatus, "application/json", errorBody);
+                return;
+            }
+            responder.respond(exchange, body, latencyMillis);
+        } catch (IOException e) {
+            // Client went away (timeout or cancelled hedge); nothing to report.
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    LatencyModel latency() {
+        return latency;
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.magicbus.careercatalyst.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-ins for every external dependency, served over HTTPS on one port:
+ * Azure OpenAI chat (plain and streamed) and embeddings, Databricks Vector Search, Document Intelligence
+ * analyze + poll, Blob storage (path-style, like Azurite) and the Power Automate webhook.
+ *
+ * <p>HTTPS is required because the Azure SDKs refuse to send key credentials over plain HTTP. A self-signed
+ * certificate for 127.0.0.1/localhost is generated on first start; point the application's trust store at
+ * the exported {@code stub-truststore.p12}.
+ */
+public final class StubServers {
+
+    static final String STORE_PASSWORD = "changeit";
+    static final String BLOB_ACCOUNT = "devstoreaccount1";
+
+    /** Share of a streamed completion's latency spent before the first token. */
+    private static final double TIME_TO_FIRST_TOKEN_SHARE = 0.3;
+    private static final int WORDS_PER_CHUNK = 4;
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private static final String DEFAULT_COMPLETION = """
+            ## Your Career Snapshot
+            You already bring customer service, sales and basic computer skills, and an interest in technology.
+            That is a strong base for entry-level roles in IT support and data operations.
+
+            ## Recommended Paths
+            1. **IT Support Associate** - troubleshoot hardware and software for small offices; starting salary 2.4-3.6 LPA.
+            2. **Data Entry Operator to Junior Data Analyst** - build on Excel and SQL basics; 2.0-3.0 LPA rising with skills.
+            3. **Customer Success Executive** - technical support for SaaS products; 2.5-3.5 LPA.
+
+            ## Your 3-Month Roadmap
+            - **Month 1:** Computer fundamentals, Excel formulas and pivot tables, typing speed above 35 wpm.
+            - **Month 2:** SQL basics, ticketing tools, mock support calls in English and your home language.
+            - **Month 3:** A small portfolio project, resume review and three mock interviews with your mentor.
+
+            ## Next Step
+            Book a session with your Magic Bus mentor this week and pick one path to start with.
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String completion;
+    private final int embeddingDimensions;
+    private final int docIntelPolls;
+    private final String docIntelName;
+    private final double lowConfidenceRate;
+    private final Map<String, PendingAnalysis> analyses = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final List<StubEndpoint> endpoints = new ArrayList<>();
+
+    private record PendingAnalysis(String modelId, AtomicInteger pollsLeft) {}
+
+    private StubServers(Args args) throws IOException {
+        String completionFile = args.value("openai-completion-file", "");
+        this.completion = completionFile.isBlank() ? DEFAULT_COMPLETION : Files.readString(Path.of(completionFile));
+        this.embeddingDimensions = args.intValue("embedding-dimensions", 1536);
+        this.docIntelPolls = args.intValue("docintel-polls", 1);
+        this.docIntelName = args.value("docintel-name", "Beverly Wilson");
+        this.lowConfidenceRate = args.doubleValue("docintel-low-confidence-rate", 0.05);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Args args = Args.parse(argv);
+        int port = args.intValue("port", 9443);
+        Path dir = Path.of(args.value("dir", "loadtest/target"));
+        new StubServers(args).start(args, port, dir);
+    }
+
+    private void start(Args args, int port, Path dir) throws Exception {
+        StubEndpoint chat = register(new StubEndpoint("openai.chat", args.latency("openai-chat", "900:6000:0.01"), 429,
+                "{\"error\":{\"code\":\"429\",\"message\":\"Requests to the ChatCompletions_Create Operation have exceeded the rate limit.\"}}",
+                this::chatCompletion));
+        StubEndpoint embeddings = register(new StubEndpoint("openai.embeddings", args.latency("openai-embeddings", "60:300:0"), 429,
+                "{\"error\":{\"code\":\"429\",\"message\":\"Rate limit exceeded.\"}}",
+                this::embeddings));
+        StubEndpoint vectorSearch = register(new StubEndpoint("databricks.query", args.latency("databricks", "150:1200:0.005"), 503,
+                "{\"error_code\":\"TEMPORARILY_UNAVAILABLE\",\"message\":\"The service is temporarily unavailable.\"}",
+                this::vectorSearch));
+        StubEndpoint analyze = register(new StubEndpoint("docintel.analyze", args.latency("docintel", "400:1500:0.005"), 500,
+                "{\"error\":{\"code\":\"InternalServerError\",\"message\":\"An unexpected error occurred.\"}}",
+                this::analyze));
+        StubEndpoint poll = register(new StubEndpoint("docintel.poll", args.latency("docintel-poll", "20:80:0"), 500,
+                "{\"error\":{\"code\":\"InternalServerError\",\"message\":\"An unexpected error occurred.\"}}",
+                this::pollAnalysis));
+        StubEndpoint blob = register(new StubEndpoint("blob", args.latency("blob", "30:150:0"), 503,
+                "", this::blob));
+        StubEndpoint webhook = register(new StubEndpoint("powerautomate", args.latency("webhook", "80:400:0"), 502,
+                "", (exchange, body, latencyMillis) -> {
+                    StubEndpoint.pause(latencyMillis);
+                    StubEndpoint.send(exchange, 202, null, "");
+                }));
+
+        HttpsServer server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext(dir)));
+        // Each call sleeps for its drawn latency, so handlers need a thread apiece.
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/openai/", exchange ->
+                (exchange.getRequestURI().getPath().endsWith("/embeddings") ? embeddings : chat).handle(exchange));
+        server.createContext("/api/2.0/vector-search/", vectorSearch);
+        HttpHandler docIntel = exchange ->
+                ("GET".equals(exchange.getRequestMethod()) ? poll : analyze).handle(exchange);
+        server.createContext("/documentintelligence/", docIntel);
+        server.createContext("/formrecognizer/", docIntel);
+        server.createContext("/" + BLOB_ACCOUNT, blob);
+        server.createContext("/powerautomate/", webhook);
+        server.createContext("/stub/stats", this::stats);
+        server.start();
+
+        System.out.printf("Stub servers listening on https://127.0.0.1:%d%n", port);
+        for (StubEndpoint endpoint : endpoints) {
+            System.out.printf("  %-18s %s%n", endpoint.name(), endpoint.latency());
+        }
+        System.out.printf("Trust store for the application: %s (password %s)%n",
+                dir.resolve("stub-truststore.p12").toAbsolutePath(), STORE_PASSWORD);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.println(endpointStats());
+        }));
+    }
+
+    private StubEndpoint register(StubEndpoint endpoint) {
+        endpoints.add(endpoint);
+        return endpoint;
+    }
+
+    private void chatCompletion(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        JsonNode request = objectMapper.readTree(body);
+        String model = deploymentOf(exchange);
+        int promptTokens = Math.max(1, body.length / 4);
+        int completionTokens = Math.max(1, completion.length() / 4);
+        String id = "chatcmpl-stub-" + ids.incrementAndGet();
+        long created = Instant.now().getEpochSecond();
+
+        if (!request.path("stream").asBoolean(false)) {
+            StubEndpoint.pause(latencyMillis);
+            Map<String, Object> message = Map.of("role", "assistant", "content", completion);
+            Map<String, Object> choice = new LinkedHashMap<>();
+            choice.put("index", 0);
+            choice.put("finish_reason", "stop");
+            choice.put("message", message);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("id", id);
+            response.put("object", "chat.completion");
+            response.put("created", created);
+            response.put("model", model);
+            response.put("choices", List.of(choice));
+            response.put("usage", usage(promptTokens, completionTokens));
+            StubEndpoint.send(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+            return;
+        }
+
+        List<String> chunks = chunk(completion);
+        long firstToken = Math.round(latencyMillis * TIME_TO_FIRST_TOKEN_SHARE);
+        long perChunk = chunks.isEmpty() ? 0 : (latencyMillis - firstToken) / chunks.size();
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        StubEndpoint.pause(firstToken);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                if (i > 0) {
+                    StubEndpoint.pause(perChunk);
+                }
+                Map<String, Object> delta = i == 0
+                        ? Map.of("role", "assistant", "content", chunks.get(i))
+                        : Map.of("content", chunks.get(i));
+                writeEvent(out, streamChunk(id, created, model, delta, null));
+            }
+            writeEvent(out, streamChunk(id, created, model, Map.of(), "stop"));
+            Map<String, Object> usageChunk = new LinkedHashMap<>();
+            usageChunk.put("id", id);
+            usageChunk.put("object", "chat.completion.chunk");
+            usageChunk.put("created", created);
+            usageChunk.put("model", model);
+            usageChunk.put("choices", List.of());
+            usageChunk.put("usage", usage(promptTokens, completionTokens));
+            writeEvent(out, objectMapper.writeValueAsString(usageChunk));
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private String streamChunk(String id, long created, String model, Map<String, Object> delta, String finishReason)
+            throws IOException {
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("id", id);
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("created", created);
+        chunk.put("model", model);
+        chunk.put("choices", List.of(choice));
+        return objectMapper.writeValueAsString(chunk);
+    }
+
+    private static void writeEvent(OutputStream out, String json) throws IOException {
+        out.write(("data: " + json + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static List<String> chunk(String text) {
+        String[] words = text.split("(?<= )");
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            current.append(words[i]);
+            if ((i + 1) % WORDS_PER_CHUNK == 0) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    private static Map<String, Object> usage(int promptTokens, int completionTokens) {
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        usage.put("prompt_tokens_details", Map.of("cached_tokens", 0));
+        return usage;
+    }
+
+    private void embeddings(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        JsonNode input = objectMapper.readTree(body).path("input");
+        List<String> texts = new ArrayList<>();
+        if (input.isArray()) {
+            input.forEach(node -> texts.add(node.asText("")));
+        } else {
+            texts.add(input.asText(""));
+        }
+        List<Map<String, Object>> data = new ArrayList<>(texts.size());
+        int tokens = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("object", "embedding");
+            item.put("index", i);
+            item.put("embedding", vector(texts.get(i)));
+            data.add(item);
+            tokens += Math.max(1, texts.get(i).length() / 4);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("object", "list");
+        response.put("model", deploymentOf(exchange));
+        response.put("data", data);
+        response.put("usage", Map.of("prompt_tokens", tokens, "total_tokens", tokens));
+        StubEndpoint.pause(latencyMillis);
+        StubEndpoint.send(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+    }
+
+    /** Same text, same unit vector, so the semantic cache and embedding store behave as they would for real. */
+    private float[] vector(String text) {
+        Random random = new Random(text.hashCode());
+        float[] vector = new float[embeddingDimensions];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private void vectorSearch(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        JsonNode request = objectMapper.readTree(body);
+        int numResults = request.path("num_results").asInt(3);
+        String column = request.path("columns").path(0).asText("text");
+        String[] names = {"Beverly Wilson", "Justin Tate", "Priya Sharma", "Rohan Mehta", "Sneha Patil", "Imran Shaikh"};
+        List<List<Object>> rows = new ArrayList<>(numResults);
+        for (int i = 0; i < numResults; i++) {
+            rows.add(List.of("Student #" + (i + 1) + " (" + names[i % names.length] + ") | Skills: Data Entry, Sales, "
+                    + "Customer Service, Communication | Interests: Music, Technology | Education: "
+                    + (i % 2 == 0 ? "Graduate" : "12th Pass") + " | Placed as: IT Support Associate", 0.9 - i * 0.01));
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("column_count", 2);
+        manifest.put("columns", List.of(Map.of("name", column), Map.of("name", "score")));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row_count", rows.size());
+        result.put("data_array", rows);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("manifest", manifest);
+        response.put("result", result);
+        response.put("next_page_token", "");
+        StubEndpoint.pause(latencyMillis);
+        StubEndpoint.send(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+    }
+
+    private void analyze(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int models = path.indexOf("/documentModels/");
+        int colon = path.lastIndexOf(":analyze");
+        if (models < 0 || colon < models) {
+            StubEndpoint.send(exchange, 404, "application/json", "{\"error\":{\"code\":\"NotFound\"}}");
+            return;
+        }
+        String basePath = path.substring(0, models + "/documentModels/".length());
+        String modelId = path.substring(basePath.length(), colon);
+        String resultId = UUID.randomUUID().toString();
+        analyses.put(resultId, new PendingAnalysis(modelId, new AtomicInteger(docIntelPolls)));
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        exchange.getResponseHeaders().set("operation-location",
+                "https://" + host + basePath + modelId + "/analyzeResults/" + resultId + "?api-version=2023-07-31");
+        StubEndpoint.pause(latencyMillis);
+        StubEndpoint.send(exchange, 202, null, "");
+    }
+
+    private void pollAnalysis(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String resultId = path.substring(path.lastIndexOf('/') + 1);
+        PendingAnalysis pending = analyses.get(resultId);
+        StubEndpoint.pause(latencyMillis);
+        if (pending == null) {
+            StubEndpoint.send(exchange, 404, "application/json", "{\"error\":{\"code\":\"NotFound\"}}");
+            return;
+        }
+        if (pending.pollsLeft().getAndDecrement() > 0) {
+            StubEndpoint.send(exchange, 200, "application/json", "{\"status\":\"running\"}");
+            return;
+        }
+        analyses.remove(resultId);
+        boolean income = !pending.modelId().equals("prebuilt-idDocument");
+        double confidence = ThreadLocalRandom.current().nextDouble() < lowConfidenceRate ? 0.62 : 0.97;
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("FullName", field(docIntelName, confidence));
+        String content;
+        if (income) {
+            fields.put("TotalIncome", field("180000", confidence));
+            content = "INCOME CERTIFICATE\nThis is to certify that the annual income of " + docIntelName
+                    + " is Rs. 1,80,000.00 from all sources.\n";
+        } else {
+            Map<String, Object> dob = field("14/08/2003", confidence);
+            dob.put("valueDate", "2003-08-14");
+            fields.put("DateOfBirth", dob);
+            fields.put("DocumentNumber", field("1234 5678 9012", confidence));
+            content = "GOVERNMENT OF INDIA\n" + docIntelName + "\nDOB: 14/08/2003\n1234 5678 9012\n";
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("docType", income ? "document" : "idDocument.nationalIdentityCard");
+        document.put("confidence", confidence);
+        document.put("fields", fields);
+        Map<String, Object> analyzeResult = new LinkedHashMap<>();
+        analyzeResult.put("apiVersion", "2023-07-31");
+        analyzeResult.put("modelId", pending.modelId());
+        analyzeResult.put("content", content);
+        analyzeResult.put("documents", List.of(document));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "succeeded");
+        response.put("analyzeResult", analyzeResult);
+        StubEndpoint.send(exchange, 200, "application/json", objectMapper.writeValueAsString(response));
+    }
+
+    private static Map<String, Object> field(String content, double confidence) {
+        Map<String, Object> field = new LinkedHashMap<>();
+        field.put("type", "string");
+        field.put("content", content);
+        field.put("confidence", confidence);
+        return field;
+    }
+
+    /** Accepts any container or blob write; reads report that the container exists. */
+    private void blob(HttpExchange exchange, byte[] body, long latencyMillis) throws IOException {
+        StubEndpoint.pause(latencyMillis);
+        var headers = exchange.getResponseHeaders();
+        headers.set("ETag", "\"0x8DC" + Long.toHexString(ids.incrementAndGet()).toUpperCase() + "\"");
+        headers.set("Last-Modified", RFC_1123.format(Instant.now()));
+        headers.set("x-ms-request-id", UUID.randomUUID().toString());
+        headers.set("x-ms-version", "2024-08-04");
+        String method = exchange.getRequestMethod();
+        if ("PUT".equals(method)) {
+            headers.set("x-ms-request-server-encrypted", "true");
+            StubEndpoint.send(exchange, 201, null, "");
+        } else {
+            StubEndpoint.send(exchange, 200, null, "");
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            StubEndpoint.send(exchange, 200, "application/json", endpointStats());
+        }
+    }
+
+    private String endpointStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (StubEndpoint endpoint : endpoints) {
+            stats.put(endpoint.name(), endpoint.stats());
+        }
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(stats);
+        } catch (IOException e) {
+            return stats.toString();
+        }
+    }
+
+    private static String deploymentOf(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        int start = path.indexOf("/deployments/");
+        if (start < 0) {
+            return "stub";
+        }
+        int end = path.indexOf('/', start + "/deployments/".length());
+        return path.substring(start + "/deployments/".length(), end < 0 ? path.length() : end);
+    }
+
+    /** Loads (or generates with keytool) a self-signed key pair and exports a matching trust store next to it. */
+    private static SSLContext sslContext(Path dir) throws Exception {
+        Files.createDirectories(dir);
+        Path keyStore = dir.resolve("stub-keystore.p12");
+        Path trustStore = dir.resolve("stub-truststore.p12");
+        Path certificate = dir.resolve("stub.cer");
+        if (!Files.exists(keyStore)) {
+            keytool("-genkeypair", "-alias", "stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "365",
+                    "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                    "-storetype", "PKCS12", "-keystore", keyStore.toString(), "-storepass", STORE_PASSWORD);
+            Files.deleteIfExists(trustStore);
+        }
+        if (!Files.exists(trustStore)) {
+            keytool("-exportcert", "-alias", "stub", "-keystore", keyStore.toString(), "-storepass", STORE_PASSWORD,
+                    "-file", certificate.toString());
+            keytool("-importcert", "-noprompt", "-alias", "stub", "-file", certificate.toString(),
+                    "-storetype", "PKCS12", "-keystore", trustStore.toString(), "-storepass", STORE_PASSWORD);
+        }
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            store.load(in, STORE_PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(store, STORE_PASSWORD.toCharArray());
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+        return context;
+    }
+
+    private static void keytool(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool " + args[0] + " failed: " + output);
+        }
+    }
+}
@@ -325,7 +325,7 @@ def render_knowledge_graph(interests, key_suffix="main"):
     agraph(list(nodes.values()), edges, config)
 
 
-def build_conversation_context(messages, max_turns=6):
+def build_conversation_context(messages, max_turns=30):
     lines = []
     for msg in messages[-max_turns:]:
         role = "User" if msg["role"] == "user" else "Assistant"
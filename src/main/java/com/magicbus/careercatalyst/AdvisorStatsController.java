@@ -0,0 +1,104 @@
+package com.magicbus.careercatalyst;
+
+import com.magicbus.careercatalyst.batch.CohortAdviceService;
+import com.magicbus.careercatalyst.cache.AdviceResponseCache;
+import com.magicbus.careercatalyst.cache.RoadmapSpeculationCache;
+import com.magicbus.careercatalyst.conversation.ConversationCompactor;
+import com.magicbus.careercatalyst.embedding.CachedEmbeddingService;
+import com.magicbus.careercatalyst.functions.CurriculumFunction.CurriculumService;
+import com.magicbus.careercatalyst.functions.CurriculumFunction.CurriculumTool;
+import com.magicbus.careercatalyst.jobs.AdviceJobService;
+import com.magicbus.careercatalyst.knowledge.KnowledgeGraphService;
+import com.magicbus.careercatalyst.prompt.PromptBudgeter;
+import com.magicbus.careercatalyst.prompt.PromptTokenStats;
+import com.magicbus.careercatalyst.ratelimit.AzureOpenAiRateLimiter;
+import com.magicbus.careercatalyst.retrieval.HybridRetriever;
+import com.magicbus.careercatalyst.retrieval.StudentVectorSearch;
+import com.magicbus.careercatalyst.routing.ModelRouter;
+import com.magicbus.careercatalyst.session.AdvisorSessionStore;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/advisor")
+public class AdvisorStatsController {
+
+    private final AdviceResponseCache responseCache;
+    private final StudentVectorSearch vectorSearch;
+    private final HybridRetriever hybridRetriever;
+    private final CachedEmbeddingService embeddingService;
+    private final PromptTokenStats promptTokenStats;
+    private final PromptBudgeter promptBudgeter;
+    private final KnowledgeGraphService knowledgeGraph;
+    private final ConversationCompactor conversationCompactor;
+    private final AdvisorSessionStore sessionStore;
+    private final CohortAdviceService cohortAdviceService;
+    private final AdviceJobService jobService;
+    private final CurriculumTool curriculumTool;
+    private final CurriculumService curriculumService;
+    private final AzureOpenAiRateLimiter rateLimiter;
+    private final RoadmapSpeculationCache roadmapSpeculation;
+    private final ModelRouter modelRouter;
+
+    public AdvisorStatsController(AdviceResponseCache responseCache,
+                                  StudentVectorSearch vectorSearch,
+                                  HybridRetriever hybridRetriever,
+                                  CachedEmbeddingService embeddingService,
+                                  PromptTokenStats promptTokenStats,
+                                  PromptBudgeter promptBudgeter,
+                                  KnowledgeGraphService knowledgeGraph,
+                                  ConversationCompactor conversationCompactor,
+                                  AdvisorSessionStore sessionStore,
+                                  CohortAdviceService cohortAdviceService,
+                                  AdviceJobService jobService,
+                                  CurriculumTool curriculumTool,
+                                  CurriculumService curriculumService,
+                                  AzureOpenAiRateLimiter rateLimiter,
+                                  RoadmapSpeculationCache roadmapSpeculation,
+                                  ModelRouter modelRouter) {
+        this.responseCache = responseCache;
+        this.vectorSearch = vectorSearch;
+        this.hybridRetriever = hybridRetriever;
+        this.embeddingService = embeddingService;
+        this.promptTokenStats = promptTokenStats;
+        this.promptBudgeter = promptBudgeter;
+        this.knowledgeGraph = knowledgeGraph;
+        this.conversationCompactor = conversationCompactor;
+        this.sessionStore = sessionStore;
+        this.cohortAdviceService = cohortAdviceService;
+        this.jobService = jobService;
+        this.curriculumTool = curriculumTool;
+        this.curriculumService = curriculumService;
+        this.rateLimiter = rateLimiter;
+        this.roadmapSpeculation = roadmapSpeculation;
+        this.modelRouter = modelRouter;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("responseCache", responseCache.stats());
+        stats.put("roadmapSpeculation", roadmapSpeculation.stats());
+        stats.put("retrieval", vectorSearch.stats());
+        stats.put("hybridRetrieval", hybridRetriever.stats());
+        stats.put("embeddings", embeddingService.stats());
+        stats.put("promptTokens", promptTokenStats.stats());
+        stats.put("promptBudget", promptBudgeter.stats());
+        stats.put("knowledgeGraph", knowledgeGraph.stats());
+        stats.put("conversation", conversationCompactor.stats());
+        stats.put("sessions", sessionStore.stats());
+        stats.put("batch", cohortAdviceService.stats());
+        stats.put("jobs", jobService.stats());
+        Map<String, Object> curriculum = new LinkedHashMap<>(curriculumService.stats());
+        // Curriculum modules are prefetched into the prompt; tool calls mean the model asked for an unexpected path.
+        curriculum.put("toolCalls", curriculumTool.invocations());
+        stats.put("curriculum", curriculum);
+        stats.put("rateLimit", rateLimiter.stats());
+        stats.put("modelRouting", modelRouter.stats());
+        return stats;
+    }
+}
@@ -1,25 +1,46 @@
-
 package com.magicbus.careercatalyst;
 
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/advisor")
 public class CareerAdvisorController {
 
     private final CareerAdvisorService careerAdvisorService;
+    private final boolean asyncPipeline;
 
     @Autowired
-    public CareerAdvisorController(CareerAdvisorService careerAdvisorService) {
+    public CareerAdvisorController(CareerAdvisorService careerAdvisorService,
+                                   @Value("${advisor.pipeline.mode:blocking}") String pipelineMode) {
         this.careerAdvisorService = careerAdvisorService;
+        this.asyncPipeline = "async".equalsIgnoreCase(pipelineMode);
     }
 
+    /**
+     * In async pipeline mode this returns a {@link CompletableFuture} and the request thread is released
+     * while retrieval and the model call are in flight. Blocking mode returns the plain {@code String}, so those
+     * requests never go through async dispatch.
+     */
     @PostMapping("/advice")
-    public String getAdvice(@RequestBody StudentProfileRequest request) {
+    public Object getAdvice(@RequestBody StudentProfileRequest request) {
+        if (asyncPipeline) {
+            return careerAdvisorService.getCareerAdviceAsync(request);
+        }
         return careerAdvisorService.getCareerAdvice(
             request.getCurrentSkills(),
             request.getInterests(),
@@ -37,4 +58,92 @@ public class CareerAdvisorController {
             request.getEnglishComfort()
         );
     }
+
+    /**
+     * Server-Sent Events variant of {@link #getAdvice}. Emits a "start" event immediately,
+     * one "token" event per model chunk, and a final "done" event with timing and token counts.
+     * Failures are reported as an "error" event so the client can close the stream cleanly.
+     */
+    @PostMapping(value = "/advice/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAdvice(@RequestBody StudentProfileRequest request) {
+        StreamStats stats = new StreamStats(System.nanoTime());
+
+        // Retrieval and prompt assembly block, so they run off the request thread after "start" is flushed.
+        Flux<ServerSentEvent<Object>> tokens = Flux.defer(() -> careerAdvisorService.streamCareerAdvice(
+                    request.getCurrentSkills(),
+                    request.getInterests(),
+                    request.getEducationLevel(),
+                    request.getPreferredLanguage(),
+                    request.getUserMessage(),
+                    request.getConversationContext(),
+                    request.getStudentName(),
+                    Boolean.TRUE.equals(request.getRoadmapRequested()),
+                    request.getAiDataInterest(),
+                    request.getDeviceAccess(),
+                    request.getTimePerWeekHours(),
+                    request.getMathComfort(),
+                    request.getProblemSolvingConfidence(),
+                    request.getEnglishComfort()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(stats::record)
+                .map(StreamStats::text)
+                .filter(text -> !text.isEmpty())
+                .map(text -> ServerSentEvent.<Object>builder(text).event("token").build());
+
+        return Flux.concat(
+                        Flux.just(ServerSentEvent.<Object>builder(Map.of("status", "started")).event("start").build()),
+                        tokens,
+                        Flux.defer(() -> Flux.just(ServerSentEvent.<Object>builder(stats.summary()).event("done").build())))
+                .onErrorResume(e -> Flux.just(ServerSentEvent.<Object>builder(
+                        Map.of("message", e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage()))
+                        .event("error").build()));
+    }
+
+    private static final class StreamStats {
+        private final long startNanos;
+        private long firstTokenNanos;
+        private int chunks;
+        private Integer promptTokens;
+        private Integer completionTokens;
+        private Integer totalTokens;
+
+        StreamStats(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        synchronized void record(ChatResponse response) {
+            if (!text(response).isEmpty()) {
+                if (chunks == 0) {
+                    firstTokenNanos = System.nanoTime();
+                }
+                chunks++;
+            }
+            Usage usage = response.getMetadata() == null ? null : response.getMetadata().getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                promptTokens = usage.getPromptTokens();
+                completionTokens = usage.getCompletionTokens();
+                totalTokens = usage.getTotalTokens();
+            }
+        }
+
+        synchronized Map<String, Object> summary() {
+            long now = System.nanoTime();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("elapsedMs", (now - startNanos) / 1_000_000);
+            summary.put("timeToFirstTokenMs", chunks == 0 ? null : (firstTokenNanos - startNanos) / 1_000_000);
+            summary.put("chunks", chunks);
+            summary.put("promptTokens", promptTokens);
+            summary.put("completionTokens", completionTokens);
+            summary.put("totalTokens", totalTokens);
+            return summary;
+        }
+
+        static String text(ChatResponse response) {
+            if (response.getResult() == null || response.getResult().getOutput() == null) {
+                return "";
+            }
+            String text = response.getResult().getOutput().getText();
+            return text == null ? "" : text;
+        }
+    }
 }
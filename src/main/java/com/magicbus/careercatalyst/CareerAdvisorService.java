@@ -1,63 +1,108 @@
 package com.magicbus.careercatalyst;
 
+import com.magicbus.careercatalyst.cache.AdviceResponseCache;
+import com.magicbus.careercatalyst.cache.RoadmapSpeculationCache;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.conversation.ConversationCompactor;
+import com.magicbus.careercatalyst.functions.CurriculumFunction.CurriculumService;
 import com.magicbus.careercatalyst.functions.CurriculumFunction.CurriculumTool;
-import com.magicbus.careercatalyst.databricks.DatabricksVectorSearchClient;
+import com.magicbus.careercatalyst.knowledge.KnowledgeGraphService;
+import com.magicbus.careercatalyst.metrics.AdvisorMetrics;
+import com.magicbus.careercatalyst.prompt.AdvisorPromptLayout;
+import com.magicbus.careercatalyst.prompt.PromptBudgeter;
+import com.magicbus.careercatalyst.prompt.PromptTokenStats;
+import com.magicbus.careercatalyst.ratelimit.RateLimitAdvisor;
+import com.magicbus.careercatalyst.ratelimit.RequestPriority;
+import com.magicbus.careercatalyst.retrieval.HybridRetriever;
+import com.magicbus.careercatalyst.routing.ModelRoute;
+import com.magicbus.careercatalyst.routing.ModelLatencyAdvisor;
+import com.magicbus.careercatalyst.routing.ModelRoutingAdvisor;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class CareerAdvisorService {
 
+    // Discovery turns never show modules, so they skip the lookup.
+    private static final CompletableFuture<String> NO_CURRICULUM = CompletableFuture.completedFuture(null);
+
     private final ChatClient chatClient;
-    private final DatabricksVectorSearchClient vectorSearchClient;
+    private final HybridRetriever retriever;
     // We inject the Tool metadata so the AI knows it can use it
     private final CurriculumTool curriculumTool;
-    private final String knowledgeGraphRules;
+    private final KnowledgeGraphService knowledgeGraph;
+    private final AdvisorPromptLayout promptLayout;
+    private final AdviceResponseCache responseCache;
+    private final PromptTokenStats promptTokenStats;
+    private final PromptBudgeter promptBudgeter;
+    private final ConversationCompactor conversationCompactor;
+    private final CurriculumService curriculumService;
+    private final ExecutorService prefetchExecutor;
+    private final int prefetchRoles;
+    private final AdvisorMetrics metrics;
+    private final boolean sectionedRoadmap;
+    private final RoadmapSpeculationCache speculation;
 
     public CareerAdvisorService(ChatClient.Builder chatClientBuilder,
-                                DatabricksVectorSearchClient vectorSearchClient,
-                                CurriculumTool curriculumTool) {
-        this.vectorSearchClient = vectorSearchClient;
+                                HybridRetriever retriever,
+                                CurriculumTool curriculumTool,
+                                CurriculumService curriculumService,
+                                AdviceResponseCache responseCache,
+                                PromptTokenStats promptTokenStats,
+                                PromptBudgeter promptBudgeter,
+                                KnowledgeGraphService knowledgeGraph,
+                                ConversationCompactor conversationCompactor,
+                                RateLimitAdvisor rateLimitAdvisor,
+                                ModelRoutingAdvisor modelRoutingAdvisor,
+                                ModelLatencyAdvisor modelLatencyAdvisor,
+                                AdvisorMetrics metrics,
+                                RoadmapSpeculationCache speculation,
+                                @Value("${advisor.prefetch.threads:8}") int prefetchThreads,
+                                @Value("${advisor.curriculum.prefetch-roles:3}") int prefetchRoles,
+                                @Value("${advisor.roadmap.mode:single}") String roadmapMode) {
+        this.retriever = retriever;
+        this.curriculumService = curriculumService;
+        this.prefetchExecutor = TaskExecutors.newTaskExecutor("advisor-prefetch", prefetchThreads);
+        this.prefetchRoles = prefetchRoles;
+        this.responseCache = responseCache;
+        this.promptTokenStats = promptTokenStats;
+        this.promptBudgeter = promptBudgeter;
         this.curriculumTool = curriculumTool;
-        this.knowledgeGraphRules = loadKnowledgeGraphRules();
-        // Build the client with default tools enabled
+        this.knowledgeGraph = knowledgeGraph;
+        this.conversationCompactor = conversationCompactor;
+        this.metrics = metrics;
+        this.sectionedRoadmap = "sectioned".equalsIgnoreCase(roadmapMode);
+        this.speculation = speculation;
+        // Templates are compiled once at startup.
+        this.promptLayout = new AdvisorPromptLayout();
+        // Build the client with default tools enabled; every model call is routed to a deployment tier and
+        // then goes through that deployment's quota limiter
         this.chatClient = chatClientBuilder
                 .defaultTools(curriculumTool)
+                .defaultAdvisors(modelRoutingAdvisor, rateLimitAdvisor, modelLatencyAdvisor)
                 .build();
     }
 
-    private String loadKnowledgeGraphRules() {
-        try {
-            ClassPathResource resource = new ClassPathResource("knowledge_graph.json");
-            String json = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-            ObjectMapper mapper = new ObjectMapper();
-            List<Map<String, String>> rules = mapper.readValue(json, List.class);
-            List<String> lines = new ArrayList<>();
-            for (Map<String, String> rule : rules) {
-                String interest = rule.getOrDefault("interest", "Unknown");
-                String trait = rule.getOrDefault("trait", "Unknown");
-                String skill = rule.getOrDefault("skill", "Unknown");
-                String role = rule.getOrDefault("role", "Unknown");
-                lines.add("Interest: " + interest + " -> Trait: " + trait + " -> Skill: " + skill + " -> Role: " + role);
-            }
-            return String.join("\n", lines);
-        } catch (Exception e) {
-            return "Knowledge graph rules not available.";
-        }
-    }
-
     /**
      * Generates a rich, personalized career roadmap using RAG, Tool Calling, and Visual Prompting.
      * * @param currentSkills User's existing skills
@@ -91,16 +136,437 @@ public class CareerAdvisorService {
                                   Integer problemSolvingConfidence,
                                   Integer englishComfort) {
 
-        // --- STEP 1: RAG RETRIEVAL (The Memory) ---
-        // We search the vector database for 3 students with similar profiles.
-        List<Document> similarProfiles = vectorSearchClient
-                .similaritySearch(currentSkills + " " + interests, 3);
+        Map<String, Object> promptVars = buildPromptVars(educationLevel, currentSkills, interests, preferredLanguage,
+                userMessage, conversationContext, studentName, aiDataInterest, deviceAccess,
+                timePerWeekHours, mathComfort, problemSolvingConfidence, englishComfort);
+        return advise(promptVars, roadmapRequested, () -> retrieveContext(currentSkills, interests, roadmapRequested),
+                RequestPriority.INTERACTIVE);
+    }
+
+    public String getCareerAdvice(StudentProfileRequest request) {
+        return getCareerAdvice(request, RequestPriority.INTERACTIVE);
+    }
+
+    /** Cohort batches and background jobs pass {@link RequestPriority#BATCH} so chat replies go first. */
+    public String getCareerAdvice(StudentProfileRequest request, RequestPriority priority) {
+        boolean roadmapRequested = Boolean.TRUE.equals(request.getRoadmapRequested());
+        return advise(buildPromptVars(request), roadmapRequested,
+                () -> retrieveContext(request.getCurrentSkills(), request.getInterests(), roadmapRequested), priority);
+    }
+
+    /**
+     * Same as the field-by-field variant, but lets the caller supply retrieval results it has already
+     * computed for this profile (e.g. a server-side session). The supplier is only called on a cache miss.
+     */
+    public String getCareerAdvice(StudentProfileRequest request, Supplier<PromptContext> context) {
+        return advise(buildPromptVars(request), Boolean.TRUE.equals(request.getRoadmapRequested()), context,
+                RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Retrieval results and knowledge-graph rules for a profile, without curriculum modules; depends only on
+     * skills and interests, so callers may keep it for later turns. A roadmap built from it looks the modules up
+     * when the prompt is assembled.
+     */
+    public PromptContext retrieveContext(String currentSkills, String interests) {
+        return retrieveContext(currentSkills, interests, false);
+    }
+
+    /**
+     * Retrieval results, knowledge-graph rules and, for roadmaps, prefetched curriculum modules. KG selection and
+     * the curriculum lookup for its top roles run on the prefetch executor while retrieval blocks the calling thread.
+     */
+    public PromptContext retrieveContext(String currentSkills, String interests, boolean roadmapRequested) {
+        // --- STEP 1: KNOWLEDGE GRAPH (only the rules reachable from this student's interests and skills) ---
+        CompletableFuture<KnowledgeGraphService.Selection> kgSelection = selectKnowledgeGraph(currentSkills, interests);
+        // --- STEP 2: CURRICULUM (roadmaps only: modules for the likely roles, so the model rarely needs the tool) ---
+        CompletableFuture<String> curriculum = roadmapRequested ? prefetchCurriculum(kgSelection) : NO_CURRICULUM;
+
+        // --- STEP 3: RAG RETRIEVAL (The Memory) ---
+        // We search for 3 students with similar profiles: BM25 over students.csv fused with vector search.
+        List<Document> similarProfiles = metrics.timeStage("retrieval",
+                () -> retriever.retrieve(HybridRetriever.query(currentSkills, interests), 3));
+
+        KnowledgeGraphService.Selection selection = knowledgeGraphSelection(kgSelection).join();
+        return new PromptContext(ragContext(similarProfiles), selection.rules(), selection.roles(), curriculum.join());
+    }
 
-        String ragContext = similarProfiles.stream()
+    /** {@link #retrieveContext(String, String, boolean)} without blocking the caller; completes when all parts are in. */
+    public CompletableFuture<PromptContext> retrieveContextAsync(String currentSkills, String interests, boolean roadmapRequested) {
+        CompletableFuture<KnowledgeGraphService.Selection> kgSelection = selectKnowledgeGraph(currentSkills, interests);
+        CompletableFuture<String> curriculum = roadmapRequested ? prefetchCurriculum(kgSelection) : NO_CURRICULUM;
+
+        Timer.Sample retrieval = metrics.start();
+        CompletableFuture<String> ragContext = retriever.retrieveAsync(HybridRetriever.query(currentSkills, interests), 3)
+                .thenApply(similarProfiles -> {
+                    metrics.endStage(retrieval, "retrieval");
+                    return ragContext(similarProfiles);
+                });
+
+        CompletableFuture<KnowledgeGraphService.Selection> selection = knowledgeGraphSelection(kgSelection);
+        return CompletableFuture.allOf(ragContext, selection, curriculum)
+                .thenApply(done -> new PromptContext(ragContext.join(), selection.join().rules(),
+                        selection.join().roles(), curriculum.join()));
+    }
+
+    private CompletableFuture<KnowledgeGraphService.Selection> selectKnowledgeGraph(String currentSkills, String interests) {
+        return CompletableFuture.supplyAsync(() -> metrics.timeStage("knowledge_graph",
+                () -> knowledgeGraph.select(interests, currentSkills)), prefetchExecutor);
+    }
+
+    private CompletableFuture<String> prefetchCurriculum(CompletableFuture<KnowledgeGraphService.Selection> kgSelection) {
+        return kgSelection
+                .thenApply(selection -> metrics.timeStage("curriculum_prefetch", () -> curriculumModules(selection.roles())))
+                .exceptionally(e -> "No modules prefetched.");
+    }
+
+    private static CompletableFuture<KnowledgeGraphService.Selection> knowledgeGraphSelection(
+            CompletableFuture<KnowledgeGraphService.Selection> kgSelection) {
+        return kgSelection
+                .exceptionally(e -> new KnowledgeGraphService.Selection("Knowledge graph rules not available.", List.of()));
+    }
+
+    // Contexts built for a discovery turn (and kept by sessions or reused for a speculative roadmap) have no
+    // modules yet; the lookup is in memory, so a roadmap fills them in here.
+    private String curriculumModules(PromptContext context) {
+        if (context.curriculumModules() != null) {
+            return context.curriculumModules();
+        }
+        return metrics.timeStage("curriculum_prefetch", () -> curriculumModules(context.kgRoles()));
+    }
+
+    private String ragContext(List<Document> similarProfiles) {
+        if (similarProfiles.isEmpty()) {
+            metrics.ragFallback("empty_context");
+        }
+        return similarProfiles.stream()
                 .map(Document::getText)
                 .collect(Collectors.joining("\n---\n"));
+    }
+
+    private String curriculumModules(List<String> roles) {
+        List<String> lines = new ArrayList<>();
+        for (String role : roles.subList(0, Math.min(prefetchRoles, roles.size()))) {
+            curriculumService.findModules(role)
+                    .ifPresent(modules -> lines.add(role + ": " + String.join("; ", modules)));
+        }
+        lines.add("General (any path): " + String.join("; ", curriculumService.generalModules()));
+        return String.join("\n", lines);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private String advise(Map<String, Object> promptVars,
+                          boolean roadmapRequested,
+                          Supplier<PromptContext> context,
+                          RequestPriority priority) {
+        String mode = mode(roadmapRequested);
+        Timer.Sample request = metrics.start();
+        // Repeated clicks and look-alike cohort profiles are answered from the cache before any retrieval.
+        AdviceResponseCache.Lookup cached = metrics.timeStage("cache", () -> responseCache.lookup(mode, promptVars));
+        if (cached.isHit()) {
+            metrics.endRequest(request, mode, "cache_hit");
+            return cached.answer();
+        }
+        if (roadmapRequested) {
+            String speculative = speculation.claim(promptVars);
+            if (speculative != null) {
+                responseCache.store(cached, promptVars, speculative);
+                metrics.endRequest(request, mode, "speculative_hit");
+                return speculative;
+            }
+        }
+
+        String answer;
+        PromptContext promptContext;
+        try {
+            promptContext = metrics.timeStage("context", context);
+            if (roadmapRequested && sectionedRoadmap) {
+                answer = join(generateSectionedRoadmap(promptVars, promptContext, priority));
+            } else {
+                Prompt prompt = metrics.timeStage("prompt", () -> buildPrompt(promptVars, promptContext, roadmapRequested));
+
+                // We call the model. The model will automatically detect if it needs to call
+                // the 'curriculumFunction' tool to fill in the "Training Modules" section.
+                ChatResponse response = metrics.timeStage("model", () -> chatClient.prompt(prompt)
+                        .advisors(a -> a.param(RateLimitAdvisor.PRIORITY, priority)
+                                .param(ModelRoutingAdvisor.ROUTE, route("model", mode)))
+                        .call()
+                        .chatResponse());
+                promptTokenStats.record(response);
+                metrics.recordTokens(mode, (String) promptVars.get("language"), response);
+                answer = text(response);
+            }
+        } catch (RuntimeException e) {
+            metrics.endRequest(request, mode, "error");
+            throw e;
+        }
+        responseCache.store(cached, promptVars, answer);
+        metrics.endRequest(request, mode, "generated");
+        // Cohort batches and jobs rarely come back for the roadmap, so only interactive turns speculate.
+        if (!roadmapRequested && priority == RequestPriority.INTERACTIVE) {
+            speculateRoadmap(promptVars, promptContext, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Non-blocking variant of {@link #getCareerAdvice(StudentProfileRequest)} for
+     * {@code advisor.pipeline.mode=async}: retrieval, the knowledge graph and the model call are chained as
+     * futures, so no thread waits on Databricks or Azure OpenAI. The model is read as a stream and the chunks are
+     * joined, since the blocking {@code call()} would hold a thread for the whole generation. The semantic-cache
+     * embedding is awaited the same way, within its budget.
+     */
+    public CompletableFuture<String> getCareerAdviceAsync(StudentProfileRequest request) {
+        Map<String, Object> promptVars = buildPromptVars(request);
+        boolean roadmapRequested = Boolean.TRUE.equals(request.getRoadmapRequested());
+        String mode = mode(roadmapRequested);
+        Timer.Sample sample = metrics.start();
+        Timer.Sample cache = metrics.start();
+        return responseCache.lookupAsync(mode, promptVars).thenCompose(cached -> {
+            metrics.endStage(cache, "cache");
+            if (cached.isHit()) {
+                metrics.endRequest(sample, mode, "cache_hit");
+                return CompletableFuture.completedFuture(cached.answer());
+            }
+            String speculative = roadmapRequested ? speculation.claim(promptVars) : null;
+            if (speculative != null) {
+                responseCache.store(cached, promptVars, speculative);
+                metrics.endRequest(sample, mode, "speculative_hit");
+                return CompletableFuture.completedFuture(speculative);
+            }
+            return generateAdviceAsync(request, promptVars, cached, sample);
+        });
+    }
+
+    private CompletableFuture<String> generateAdviceAsync(StudentProfileRequest request,
+                                                          Map<String, Object> promptVars,
+                                                          AdviceResponseCache.Lookup cached,
+                                                          Timer.Sample sample) {
+        boolean roadmapRequested = Boolean.TRUE.equals(request.getRoadmapRequested());
+        String mode = mode(roadmapRequested);
+        Timer.Sample context = metrics.start();
+        return retrieveContextAsync(request.getCurrentSkills(), request.getInterests(), roadmapRequested)
+                .thenCompose(promptContext -> {
+                    metrics.endStage(context, "context");
+                    if (roadmapRequested && sectionedRoadmap) {
+                        return generateSectionedRoadmap(promptVars, promptContext, RequestPriority.INTERACTIVE);
+                    }
+                    Prompt prompt = metrics.timeStage("prompt", () -> buildPrompt(promptVars, promptContext, roadmapRequested));
+                    return callModelAsync(prompt, "model", mode, promptVars, RequestPriority.INTERACTIVE)
+                            .thenApply(answer -> {
+                                if (!roadmapRequested) {
+                                    speculateRoadmap(promptVars, promptContext, answer);
+                                }
+                                return answer;
+                            });
+                })
+                .whenComplete((answer, error) -> {
+                    if (error != null) {
+                        metrics.endRequest(sample, mode, "error");
+                        return;
+                    }
+                    responseCache.store(cached, promptVars, answer);
+                    metrics.endRequest(sample, mode, "generated");
+                });
+    }
+
+    /**
+     * {@code advisor.roadmap.mode=sectioned}: a short planning call fixes the two recommended paths, then every
+     * roadmap section is generated by its own call, all in flight at once, and the bodies are stitched under the
+     * usual headings. Wall-clock time follows the slowest section rather than the sum of all of them.
+     */
+    private CompletableFuture<String> generateSectionedRoadmap(Map<String, Object> promptVars,
+                                                               PromptContext promptContext,
+                                                               RequestPriority priority) {
+        Map<String, Object> templateVars = templateVars(promptVars, promptContext, true);
+        CompletableFuture<String> plan = callModelAsync(promptLayout.createRoadmapPlan(templateVars),
+                "roadmap_plan", "roadmap", promptVars, priority);
+        List<CompletableFuture<String>> sections = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> roadmap = plan.thenCompose(reply -> {
+            templateVars.put("recommended_paths", AdvisorPromptLayout.recommendedPaths(reply));
+            for (int i = 0; i < promptLayout.roadmapSectionCount(); i++) {
+                sections.add(callModelAsync(promptLayout.createRoadmapSection(i, templateVars),
+                        "roadmap_section", "roadmap", promptVars, priority));
+            }
+            return CompletableFuture.allOf(sections.toArray(CompletableFuture[]::new))
+                    .thenApply(done -> promptLayout.stitchRoadmap(
+                            sections.stream().map(CompletableFuture::join).toList()));
+        });
+        // A dropped speculation cancels the roadmap; stop the calls still in flight with it.
+        roadmap.whenComplete((answer, error) -> {
+            if (roadmap.isCancelled()) {
+                plan.cancel(true);
+                sections.forEach(section -> section.cancel(true));
+            }
+        });
+        return roadmap;
+    }
 
-        // --- STEP 2: LANGUAGE LOGIC (The Empathy) ---
+    /**
+     * Starts the roadmap for this profile in the batch lane, from the retrieval context the discovery turn
+     * already has, with the discovery exchange appended to the conversation.
+     */
+    private void speculateRoadmap(Map<String, Object> discoveryVars, PromptContext promptContext, String discoveryAnswer) {
+        if (!speculation.isEnabled()) {
+            return;
+        }
+        speculation.speculate(discoveryVars, () -> {
+            Map<String, Object> roadmapVars = new java.util.HashMap<>(discoveryVars);
+            String previous = (String) discoveryVars.get("conversation_context");
+            String turn = "User: " + discoveryVars.get("user_message") + "\nAssistant: " + discoveryAnswer;
+            String conversation = previous == null || previous.isBlank() || previous.trim().equals("No prior messages.")
+                    ? turn
+                    : previous + "\n" + turn;
+            roadmapVars.put("conversation_context", conversationCompactor.compact(conversation));
+            roadmapVars.put("user_message", RoadmapSpeculationCache.FIRST_ROADMAP_MESSAGE);
+            if (sectionedRoadmap) {
+                return generateSectionedRoadmap(roadmapVars, promptContext, RequestPriority.BATCH);
+            }
+            return callModelAsync(buildPrompt(roadmapVars, promptContext, true), "speculation", "roadmap",
+                    roadmapVars, RequestPriority.BATCH);
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<String> callModelAsync(Prompt prompt,
+                                                     String stage,
+                                                     String mode,
+                                                     Map<String, Object> promptVars,
+                                                     RequestPriority priority) {
+        StringBuilder answer = new StringBuilder();
+        Timer.Sample model = metrics.start();
+        return chatClient.prompt(prompt)
+                .advisors(a -> a.param(RateLimitAdvisor.PRIORITY, priority)
+                        .param(ModelRoutingAdvisor.ROUTE, route(stage, mode)))
+                .stream()
+                .chatResponse()
+                .doOnNext(response -> {
+                    answer.append(text(response));
+                    promptTokenStats.record(response);
+                    metrics.recordTokens(mode, (String) promptVars.get("language"), response);
+                })
+                .doOnComplete(() -> metrics.endStage(model, stage))
+                .then(Mono.fromSupplier(answer::toString))
+                .toFuture();
+    }
+
+    /**
+     * Streaming variant of {@link #getCareerAdvice}. Emits model chunks as they are generated;
+     * the 'curriculumFunction' tool is still resolved by the ChatClient in the middle of the stream.
+     * The last chunk carries token usage when the deployment reports it.
+     */
+    public Flux<ChatResponse> streamCareerAdvice(String currentSkills,
+                                                 String interests,
+                                                 String educationLevel,
+                                                 String preferredLanguage,
+                                                 String userMessage,
+                                                 String conversationContext,
+                                                 String studentName,
+                                                 boolean roadmapRequested,
+                                                 String aiDataInterest,
+                                                 String deviceAccess,
+                                                 Integer timePerWeekHours,
+                                                 Integer mathComfort,
+                                                 Integer problemSolvingConfidence,
+                                                 Integer englishComfort) {
+
+        Map<String, Object> promptVars = buildPromptVars(educationLevel, currentSkills, interests, preferredLanguage,
+                userMessage, conversationContext, studentName, aiDataInterest, deviceAccess,
+                timePerWeekHours, mathComfort, problemSolvingConfidence, englishComfort);
+
+        String mode = mode(roadmapRequested);
+        Timer.Sample request = metrics.start();
+        AdviceResponseCache.Lookup cached = metrics.timeStage("cache", () -> responseCache.lookup(mode, promptVars));
+        if (cached.isHit()) {
+            metrics.endRequest(request, mode, "cache_hit");
+            return Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage(cached.answer())))));
+        }
+        String speculative = roadmapRequested ? speculation.claim(promptVars) : null;
+        if (speculative != null) {
+            responseCache.store(cached, promptVars, speculative);
+            metrics.endRequest(request, mode, "speculative_hit");
+            return Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage(speculative)))));
+        }
+
+        PromptContext promptContext = metrics.timeStage("context", () -> retrieveContext(currentSkills, interests, roadmapRequested));
+        Prompt prompt = metrics.timeStage("prompt", () -> buildPrompt(promptVars, promptContext, roadmapRequested));
+
+        StringBuilder answer = new StringBuilder();
+        Timer.Sample model = metrics.start();
+        return chatClient.prompt(prompt)
+                .advisors(a -> a.param(ModelRoutingAdvisor.ROUTE, route("model", mode)))
+                .stream()
+                .chatResponse()
+                .doOnNext(response -> {
+                    answer.append(text(response));
+                    promptTokenStats.record(response);
+                    metrics.recordTokens(mode, (String) promptVars.get("language"), response);
+                })
+                .doOnError(e -> metrics.endRequest(request, mode, "error"))
+                .doOnCancel(() -> metrics.endRequest(request, mode, "cancelled"))
+                .doOnComplete(() -> {
+                    metrics.endStage(model, "model");
+                    responseCache.store(cached, promptVars, answer.toString());
+                    metrics.endRequest(request, mode, "generated");
+                    if (!roadmapRequested) {
+                        speculateRoadmap(promptVars, promptContext, answer.toString());
+                    }
+                });
+    }
+
+    private static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text == null ? "" : text;
+    }
+
+    private static ModelRoute route(String stage, String mode) {
+        return switch (stage) {
+            case "roadmap_plan" -> ModelRoute.ROADMAP_PLAN;
+            case "roadmap_section" -> ModelRoute.ROADMAP_SECTION;
+            default -> "roadmap".equals(mode) ? ModelRoute.ROADMAP : ModelRoute.DISCOVERY;
+        };
+    }
+
+    private static String mode(boolean roadmapRequested) {
+        return roadmapRequested ? "roadmap" : "discovery";
+    }
+
+    /**
+     * Normalizes the request fields into template variables. RAG context and KG rules are added
+     * later by {@link #buildPrompt} so the cache can be consulted before retrieval runs.
+     */
+    private Map<String, Object> buildPromptVars(String educationLevel,
+                                                String currentSkills,
+                                                String interests,
+                                                String preferredLanguage,
+                                                String userMessage,
+                                                String conversationContext,
+                                                String studentName,
+                                                String aiDataInterest,
+                                                String deviceAccess,
+                                                Integer timePerWeekHours,
+                                                Integer mathComfort,
+                                                Integer problemSolvingConfidence,
+                                                Integer englishComfort) {
+
+        // --- LANGUAGE LOGIC (The Empathy) ---
         String languageInstruction = "English (Professional but simple). Respond only in English.";
         if ("Hindi".equalsIgnoreCase(preferredLanguage)) {
             languageInstruction = "Hindi (Simple, friendly, and encouraging). Respond only in Hindi. Do not mix English.";
@@ -108,140 +574,11 @@ public class CareerAdvisorService {
             languageInstruction = "Marathi (Simple, friendly, and encouraging). Respond only in Marathi. Do not mix English.";
         }
 
-        String candidateStyle = """
-                You are a Magic Bus mentor copilot. Address the mentor directly and never address the student.
-                Be concise, practical, and supportive. Use short bullet points when helpful.
-                Your job: interpret the student context for the mentor, recommend the next mentor actions,
-                and provide a mentor-ready roadmap that can be shared with the student.
-                Include clear, actionable guidance the mentor can use in the next 1–2 interactions.
-                Avoid motivational filler; keep it focused and usable.
-                Always refer to the student in third person (e.g., "the student", "they/them", or the student's name).
-                """;
-
-        String discoveryPrompt = """
-                %s
-                USER PROFILE:
-                - Name: {student_name}
-                - Education: {education}
-                - Skills: {skills}
-                - Interests: {interests}
-                - AI/Data Interest: {ai_interest}
-                - Device Access: {device_access}
-                - Time per Week: {time_per_week}
-                - Math Comfort (1-5): {math_comfort}
-                - Problem Solving Confidence (1-5): {problem_solving}
-                - English Comfort (1-5): {english_comfort}
-                - Language Mode: {language}
-
-                --- SUCCESS STORIES (Context from Database) ---
-                {rag_context}
-                -----------------------------------------------
-
-                --- CAREER KNOWLEDGE GRAPH (Relational Rules) ---
-                {kg_rules}
-                -----------------------------------------------
-
-                --- RECENT CONVERSATION ---
-                {conversation_context}
-                ---------------------------
-
-                LATEST USER MESSAGE:
-                {user_message}
-
-                YOUR MISSION:
-                1) Summarize the candidate context for the mentor in 2-3 lines.
-                2) Provide 4-6 focused questions the mentor should ask next (goals, location, time, device/internet, learning style).
-                3) Offer 2-3 Magic Bus program directions/focus areas with a one-line rationale for each.
-                4) Provide a mentor-ready 4-step roadmap outline (bulleted) the mentor can share.
-                End with one short line addressed to the mentor in the selected language.
-                """.formatted(candidateStyle);
-
-        String roadmapPrompt = """
-                %s
-                USER PROFILE:
-                - Name: {student_name}
-                - Education: {education}
-                - Skills: {skills}
-                - Interests: {interests}
-                - AI/Data Interest: {ai_interest}
-                - Device Access: {device_access}
-                - Time per Week: {time_per_week}
-                - Math Comfort (1-5): {math_comfort}
-                - Problem Solving Confidence (1-5): {problem_solving}
-                - English Comfort (1-5): {english_comfort}
-                - Language Mode: {language}
-
-                --- SUCCESS STORIES (Context from Database) ---
-                {rag_context}
-                -----------------------------------------------
-
-                --- CAREER KNOWLEDGE GRAPH (Relational Rules) ---
-                {kg_rules}
-                -----------------------------------------------
-
-                --- RECENT CONVERSATION ---
-                {conversation_context}
-                ---------------------------
-
-                LATEST USER MESSAGE:
-                {user_message}
-
-                YOUR MISSION:
-                Create a mentor-facing, high-impact, visual career roadmap. Address the mentor directly and never address the student.
-                Always refer to the student in third person.
-                Follow this structure strictly and keep it readable:
-
-                ### 1. Recommended Paths 🎯
-                Suggest 2 distinct IT career paths, prioritizing AI/ML or AI-adjacent roles if the candidate is interested.
-                * Explain WHY in a mentor-facing tone (use {language} for the example line, but address the mentor).
-                * Add a short, mentor-ready summary line the mentor can share with the student this week.
-                * Use the 'curriculumFunction' tool to fetch and list the specific training modules for these paths.
-
-                ### 2. Success-Twin (Relatability Anchor) 🤝
-                Pick one real student name from the SUCCESS STORIES and tell a 2-3 line mini-story.
-                Use the real name from the data (do not anonymize).
-
-                ### 3. Skill Bridge (Micro-Skill Mapping) 🧠
-                Identify 1-2 "hidden skills" based on the user's interests or hobbies and connect them to a career path.
-                Use a simple bridge sentence like: "Because you enjoy X, you already have Y, which helps in Z."
-
-                ### 4. Social Proof (Citations) 🔍
-                You MUST mention specific students from the SUCCESS STORIES above.
-                (e.g., "Just like **Student #12 (Rohan)** who also liked Gaming...")
-                This builds trust.
-
-                ### 5. Visual Career Map 🗺️
-                Generate a **Mermaid.js** flowchart syntax to visualize the journey.
-                **IMPORTANT:** Wrap the code in a block like:
-                ```mermaid
-                flowchart TB
-                    A[Current - {education}] --> B[Step 1 - Skill Up]
-                    B --> C[Step 2 - First Project]
-                    C --> D[Step 3 - Build Portfolio]
-                    D --> E[Step 4 - Apply for Jobs]
-                    E --> F[Goal - Tech Professional]
-                    style A fill:#e6f0f3,stroke:#1f7a5f,stroke-width:1px
-                    style F fill:#ffe2b3,stroke:#c26a00,stroke-width:2px
-                ```
-
-                ### 6. Immediate Action Plan 🎒
-                Create a Markdown Table with 3 columns:
-                | Step | Free Resource (YouTube/Website) | Time |
-
-                (Suggest real resources like 'CodeWithHarry', 'FreeCodeCamp', 'Khan Academy').
-
-                ### 7. Extra Resources 🔗
-                Provide 2-3 links the mentor can share with the student (include full URLs).
-
-                End with a short, mentor-addressed line in {language}.
-                """.formatted(candidateStyle);
-
-        String promptBody = roadmapRequested ? roadmapPrompt : discoveryPrompt;
-        PromptTemplate promptTemplate = new PromptTemplate(promptBody);
-
-        // --- STEP 4: EXECUTION ---
-        String safeConversationContext = conversationContext == null ? "No prior messages." : conversationContext;
-        String safeUserMessage = userMessage == null ? "No new message. Generate the first roadmap." : userMessage;
+        // Older turns are folded into a rolling summary so the prompt stays flat over long sessions.
+        String safeConversationContext = conversationContext == null
+                ? "No prior messages."
+                : conversationCompactor.compact(conversationContext);
+        String safeUserMessage = userMessage == null ? RoadmapSpeculationCache.FIRST_ROADMAP_MESSAGE : userMessage;
         String safeStudentName = studentName == null || studentName.isBlank() ? "Student" : studentName;
         String safeAiInterest = aiDataInterest == null || aiDataInterest.isBlank() ? "Not shared" : aiDataInterest;
         String safeDeviceAccess = deviceAccess == null || deviceAccess.isBlank() ? "Not shared" : deviceAccess;
@@ -255,7 +592,6 @@ public class CareerAdvisorService {
         promptVars.put("skills", currentSkills);
         promptVars.put("interests", interests);
         promptVars.put("language", languageInstruction);
-        promptVars.put("rag_context", ragContext);
         promptVars.put("conversation_context", safeConversationContext);
         promptVars.put("user_message", safeUserMessage);
         promptVars.put("student_name", safeStudentName);
@@ -265,12 +601,33 @@ public class CareerAdvisorService {
         promptVars.put("math_comfort", safeMathComfort);
         promptVars.put("problem_solving", safeProblemSolving);
         promptVars.put("english_comfort", safeEnglishComfort);
+        return promptVars;
+    }
+
+    private Map<String, Object> buildPromptVars(StudentProfileRequest request) {
+        return buildPromptVars(request.getEducationLevel(), request.getCurrentSkills(), request.getInterests(),
+                request.getPreferredLanguage(), request.getUserMessage(), request.getConversationContext(),
+                request.getStudentName(), request.getAiDataInterest(), request.getDeviceAccess(),
+                request.getTimePerWeekHours(), request.getMathComfort(), request.getProblemSolvingConfidence(),
+                request.getEnglishComfort());
+    }
 
-        promptVars.put("kg_rules", knowledgeGraphRules);
-        Prompt prompt = promptTemplate.create(promptVars);
+    private Prompt buildPrompt(Map<String, Object> promptVars, PromptContext context, boolean roadmapRequested) {
+        return promptLayout.create(roadmapRequested, templateVars(promptVars, context, roadmapRequested));
+    }
 
-        // We call the model. The model will automatically detect if it needs to call
-        // the 'curriculumFunction' tool to fill in the "Training Modules" section.
-        return chatClient.prompt(prompt).call().content();
+    private Map<String, Object> templateVars(Map<String, Object> promptVars,
+                                             PromptContext context,
+                                             boolean roadmapRequested) {
+        Map<String, Object> templateVars = new java.util.HashMap<>(promptVars);
+        templateVars.put("rag_context", context.ragContext());
+        templateVars.put("kg_rules", context.kgRules());
+        // Discovery replies never list modules, so they skip the block.
+        templateVars.put("curriculum_modules", roadmapRequested ? curriculumModules(context) : "Not needed for this reply.");
+        promptBudgeter.apply(templateVars, roadmapRequested);
+        return templateVars;
     }
+
+    /** {@code curriculumModules} is null when the context was built for a discovery turn. */
+    public record PromptContext(String ragContext, String kgRules, List<String> kgRoles, String curriculumModules) {}
 }
@@ -1,14 +1,20 @@
-
 package com.magicbus.careercatalyst;
 
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
 
 @SpringBootApplication
 public class CareerCatalystApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(CareerCatalystApplication.class, args);
+        SpringApplication application = new SpringApplication(CareerCatalystApplication.class);
+        // Beans build their pools in constructors, so the virtual-thread switch has to be known before the first one.
+        application.addListeners((ApplicationListener<ApplicationEnvironmentPreparedEvent>) event ->
+                TaskExecutors.configure(event.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,60 @@
+package com.magicbus.careercatalyst.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.StudentProfileRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/advisor")
+public class CohortAdviceController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final CohortAdviceService cohortAdviceService;
+    private final ObjectMapper mapper;
+
+    public CohortAdviceController(CohortAdviceService cohortAdviceService, ObjectMapper mapper) {
+        this.cohortAdviceService = cohortAdviceService;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Advice for a list of students, streamed as newline-delimited JSON in completion order.
+     * Each line carries the entry's {@code index} in the request so clients can match results back.
+     */
+    @PostMapping(value = "/advice/batch", produces = NDJSON)
+    public StreamingResponseBody batchAdvice(@RequestBody List<StudentProfileRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one student is required");
+        }
+        if (requests.size() > cohortAdviceService.maxStudents()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + cohortAdviceService.maxStudents() + " students per batch");
+        }
+        return out -> {
+            try {
+                cohortAdviceService.run(requests, result -> {
+                    try {
+                        out.write(mapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.magicbus.careercatalyst.batch;
+
+import com.magicbus.careercatalyst.CareerAdvisorService;
+import com.magicbus.careercatalyst.StudentProfileRequest;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.ratelimit.RequestPriority;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs advice for a whole cohort concurrently and hands results back in completion order.
+ * <p>
+ * Every student gets its own (virtual, where available) thread, but at most
+ * {@code advisor.batch.max-concurrency} model calls run at once across all batches, so a large cohort
+ * cannot exceed the Azure OpenAI deployment quota. Cache hits still queue for a permit; they return
+ * immediately once they have one.
+ */
+@Service
+public class CohortAdviceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CohortAdviceService.class);
+
+    private final CareerAdvisorService careerAdvisorService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final int maxStudents;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong students = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public CohortAdviceService(CareerAdvisorService careerAdvisorService,
+                               @Value("${advisor.batch.max-concurrency:8}") int maxConcurrency,
+                               @Value("${advisor.batch.max-students:200}") int maxStudents) {
+        this.careerAdvisorService = careerAdvisorService;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxStudents = maxStudents;
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        // Platform fallback is sized to the permit count; more threads would only wait on the semaphore.
+        this.executor = TaskExecutors.newTaskExecutor("cohort-advice", this.maxConcurrency);
+    }
+
+    public int maxStudents() {
+        return maxStudents;
+    }
+
+    /**
+     * Runs every request and passes each result to {@code sink} as soon as it finishes, on the calling thread.
+     * If the sink throws (e.g. the client went away), the remaining work is cancelled and the exception rethrown.
+     * If the calling thread is interrupted, the remaining work is cancelled and every entry without a result gets
+     * an error result, so the stream still holds one line per student.
+     */
+    public void run(List<StudentProfileRequest> requests, Consumer<CohortResult> sink) {
+        batches.incrementAndGet();
+        BlockingQueue<CohortResult> completed = new LinkedBlockingQueue<>();
+        List<Future<?>> futures = new ArrayList<>(requests.size());
+        boolean[] delivered = new boolean[requests.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            StudentProfileRequest request = requests.get(i);
+            futures.add(executor.submit(() -> completed.add(advise(index, request))));
+        }
+        try {
+            for (int received = 0; received < requests.size(); received++) {
+                CohortResult result = completed.take();
+                sink.accept(result);
+                delivered[result.index()] = true;
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            // Results that finished before the interrupt are still sent as they are.
+            for (CohortResult result = completed.poll(); result != null; result = completed.poll()) {
+                if (!delivered[result.index()]) {
+                    sink.accept(result);
+                    delivered[result.index()] = true;
+                }
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                if (!delivered[i]) {
+                    failures.incrementAndGet();
+                    sink.accept(CohortResult.failed(i, requests.get(i), "Cancelled: the batch was interrupted", start));
+                }
+            }
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", TaskExecutors.virtualThreadsAvailable());
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("inFlight", maxConcurrency - permits.availablePermits());
+        stats.put("queued", permits.getQueueLength());
+        stats.put("batches", batches.get());
+        stats.put("students", students.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CohortResult advise(int index, StudentProfileRequest request) {
+        long start = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CohortResult.failed(index, request, "Cancelled", start);
+        }
+        try {
+            String advice = careerAdvisorService.getCareerAdvice(request, RequestPriority.BATCH);
+            students.incrementAndGet();
+            return new CohortResult(index, request.getStudentName(), "ok", advice, null, elapsedMillis(start));
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            logger.warn("Cohort advice failed for entry {}: {}", index, e.getMessage());
+            return CohortResult.failed(index, request, e.getMessage(), start);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** One NDJSON line; {@code index} is the position in the submitted list. */
+    public record CohortResult(int index, String studentName, String status, String advice, String error, long elapsedMs) {
+
+        static CohortResult failed(int index, StudentProfileRequest request, String error, long startNanos) {
+            return new CohortResult(index, request.getStudentName(), "error", null, error, elapsedMillis(startNanos));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.magicbus.careercatalyst.cache;
+
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.embedding.CachedEmbeddingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier cache in front of the advisor model call.
+ * <p>
+ * Tier 1 is keyed by a SHA-256 of the normalized prompt variables plus the mode (discovery/roadmap).
+ * Tier 2 embeds the student profile and reuses an answer whose profile lies within
+ * {@code advisor.cache.semantic.max-distance} (cosine distance) of the new one. It only serves
+ * opening turns with the same mode, language and user message, and swaps the student name back in.
+ * The embedding runs on a small pool and gets {@code advisor.cache.semantic.embed-budget-ms}; past that the
+ * request skips tier 2 instead of paying the embedding endpoint's latency, and the late vector is still
+ * used to store the answer.
+ */
+@Component
+public class AdviceResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdviceResponseCache.class);
+    private static final String NAME_PLACEHOLDER = "{{student_name}}";
+    private static final String NO_PRIOR_MESSAGES = "No prior messages.";
+    // Shorter names are too likely to be part of other words ("Sam" in "Samsung") to template safely.
+    private static final int MIN_TEMPLATED_NAME_LENGTH = 3;
+    private static final int EMBED_THREADS = 4;
+    private static final int EMBED_QUEUE_CAPACITY = 64;
+
+    // Profile fields that describe the student; the name is swapped out and conversation state is excluded.
+    static final List<String> SEMANTIC_FIELDS = List.of(
+            "education", "skills", "interests", "ai_interest", "device_access",
+            "time_per_week", "math_comfort", "problem_solving", "english_comfort");
+
+    private final boolean enabled;
+    private final boolean semanticEnabled;
+    private final double maxDistance;
+    private final long embedBudgetMillis;
+    private final BoundedTtlCache<String, String> exactTier;
+    private final BoundedTtlCache<String, SemanticEntry> semanticTier;
+    private final CachedEmbeddingService embeddingService;
+    private final ThreadPoolExecutor embedExecutor;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong semanticHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong embeddingFailures = new AtomicLong();
+    private final AtomicLong embeddingBudgetExceeded = new AtomicLong();
+    private final AtomicLong embeddingSaturated = new AtomicLong();
+
+    public AdviceResponseCache(
+            @Value("${advisor.cache.enabled:true}") boolean enabled,
+            @Value("${advisor.cache.max-entries:500}") int maxEntries,
+            @Value("${advisor.cache.ttl-minutes:360}") long ttlMinutes,
+            @Value("${advisor.cache.semantic.enabled:true}") boolean semanticEnabled,
+            @Value("${advisor.cache.semantic.max-entries:250}") int semanticMaxEntries,
+            @Value("${advisor.cache.semantic.max-distance:0.03}") double maxDistance,
+            @Value("${advisor.cache.semantic.embed-budget-ms:300}") long embedBudgetMillis,
+            CachedEmbeddingService embeddingService) {
+        this.enabled = enabled;
+        this.semanticEnabled = semanticEnabled;
+        this.maxDistance = maxDistance;
+        this.embedBudgetMillis = embedBudgetMillis;
+        this.exactTier = new BoundedTtlCache<>(maxEntries, ttlMinutes * 60_000L);
+        this.semanticTier = new BoundedTtlCache<>(semanticMaxEntries, ttlMinutes * 60_000L);
+        this.embeddingService = embeddingService;
+        this.embedExecutor = new ThreadPoolExecutor(EMBED_THREADS, EMBED_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EMBED_QUEUE_CAPACITY), TaskExecutors.threadFactory("semantic-cache-embed"));
+    }
+
+    /**
+     * Looks up a cached answer for the given prompt variables. Returns null on a miss.
+     * The returned {@link Lookup} carries the computed key and embedding so {@link #store} does not redo them.
+     * Waits at most {@code embed-budget-ms} for the embedding.
+     */
+    public Lookup lookup(String mode, Map<String, Object> promptVars) {
+        if (!enabled) {
+            return new Lookup(null, null, null, null, null);
+        }
+        String exactKey = exactKey(mode, promptVars);
+        String exact = exactTier.get(exactKey);
+        if (exact != null) {
+            exactHits.incrementAndGet();
+            return new Lookup(exact, exactKey, null, null, null);
+        }
+
+        String partition = semanticPartition(mode, promptVars);
+        CompletableFuture<float[]> embedding = partition == null ? null : embedAsync(profileText(promptVars));
+        float[] vector = null;
+        if (embedding != null) {
+            try {
+                vector = embedding.get(embedBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Left running on purpose: store() picks the vector up when it arrives.
+                embeddingMissed(e);
+            }
+        }
+        return semanticLookup(exactKey, partition, vector, embedding, promptVars);
+    }
+
+    /** {@link #lookup} without a blocked thread: the semantic tier is searched when the embedding completes. */
+    public CompletableFuture<Lookup> lookupAsync(String mode, Map<String, Object> promptVars) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(new Lookup(null, null, null, null, null));
+        }
+        String exactKey = exactKey(mode, promptVars);
+        String exact = exactTier.get(exactKey);
+        if (exact != null) {
+            exactHits.incrementAndGet();
+            return CompletableFuture.completedFuture(new Lookup(exact, exactKey, null, null, null));
+        }
+
+        String partition = semanticPartition(mode, promptVars);
+        CompletableFuture<float[]> embedding = partition == null ? null : embedAsync(profileText(promptVars));
+        if (embedding == null) {
+            return CompletableFuture.completedFuture(semanticLookup(exactKey, null, null, null, promptVars));
+        }
+        return embedding.copy()
+                .orTimeout(embedBudgetMillis, TimeUnit.MILLISECONDS)
+                .handle((vector, error) -> {
+                    if (error != null) {
+                        embeddingMissed(error);
+                    }
+                    return semanticLookup(exactKey, partition, error == null ? vector : null, embedding, promptVars);
+                });
+    }
+
+    private Lookup semanticLookup(String exactKey, String partition, float[] vector,
+                                  CompletableFuture<float[]> embedding, Map<String, Object> promptVars) {
+        if (vector != null) {
+            SemanticEntry best = null;
+            double bestDistance = Double.MAX_VALUE;
+            for (Map.Entry<String, SemanticEntry> candidate : semanticTier.snapshot()) {
+                SemanticEntry entry = candidate.getValue();
+                if (!entry.partition().equals(partition)) {
+                    continue;
+                }
+                double distance = cosineDistance(vector, entry.vector());
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = entry;
+                }
+            }
+            if (best != null && bestDistance <= maxDistance) {
+                semanticHits.incrementAndGet();
+                // Touch the entry so LRU order reflects semantic reuse too.
+                semanticTier.get(best.key());
+                String answer = best.answerTemplate().replace(NAME_PLACEHOLDER, studentName(promptVars));
+                return new Lookup(answer, exactKey, partition, vector, null);
+            }
+        }
+        misses.incrementAndGet();
+        return new Lookup(null, exactKey, partition, vector, vector == null ? embedding : null);
+    }
+
+    public void store(Lookup lookup, Map<String, Object> promptVars, String answer) {
+        if (!enabled || lookup.exactKey() == null || answer == null || answer.isBlank()) {
+            return;
+        }
+        exactTier.put(lookup.exactKey(), answer);
+        if (lookup.partition() == null) {
+            return;
+        }
+        if (lookup.vector() != null) {
+            storeSemantic(lookup.exactKey(), lookup.partition(), lookup.vector(), promptVars, answer);
+        } else if (lookup.pendingVector() != null) {
+            // The embedding missed the lookup budget; file the answer under it once it lands.
+            lookup.pendingVector().thenAccept(vector -> {
+                if (vector != null) {
+                    storeSemantic(lookup.exactKey(), lookup.partition(), vector, promptVars, answer);
+                }
+            });
+        }
+    }
+
+    private void storeSemantic(String exactKey, String partition, float[] vector,
+                               Map<String, Object> promptVars, String answer) {
+        String name = studentName(promptVars).trim();
+        String template;
+        if ("Student".equals(name)) {
+            template = answer;
+        } else if (name.length() < MIN_TEMPLATED_NAME_LENGTH) {
+            return;
+        } else {
+            template = templateName(answer, name);
+        }
+        semanticTier.put(exactKey, new SemanticEntry(exactKey, partition, vector, template));
+    }
+
+    // Whole words only. Letters, combining marks and digits of any script count as word characters.
+    static String templateName(String answer, String name) {
+        Pattern word = Pattern.compile("(?<![\\p{L}\\p{M}\\p{N}])" + Pattern.quote(name) + "(?![\\p{L}\\p{M}\\p{N}])");
+        return word.matcher(answer).replaceAll(Matcher.quoteReplacement(NAME_PLACEHOLDER));
+    }
+
+    public Map<String, Object> stats() {
+        long hits = exactHits.get() + semanticHits.get();
+        long total = hits + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("exactHits", exactHits.get());
+        stats.put("semanticHits", semanticHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hits / total);
+        stats.put("exactEntries", exactTier.size());
+        stats.put("exactEvictions", exactTier.evictions());
+        stats.put("semanticEntries", semanticTier.size());
+        stats.put("semanticEvictions", semanticTier.evictions());
+        stats.put("embeddingFailures", embeddingFailures.get());
+        stats.put("embeddingBudgetExceeded", embeddingBudgetExceeded.get());
+        stats.put("embeddingSaturated", embeddingSaturated.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        embedExecutor.shutdownNow();
+    }
+
+    private String exactKey(String mode, Map<String, Object> promptVars) {
+        StringBuilder canonical = new StringBuilder(mode);
+        new TreeMap<>(promptVars).forEach((key, value) ->
+                canonical.append('\u001f').append(key).append('=').append(normalize(value)));
+        return sha256(canonical.toString());
+    }
+
+    // Semantic reuse is only safe when nothing but the profile differs: an opening turn with the same question.
+    private String semanticPartition(String mode, Map<String, Object> promptVars) {
+        if (!semanticEnabled) {
+            return null;
+        }
+        String conversation = normalize(promptVars.get("conversation_context"));
+        if (!conversation.isEmpty() && !conversation.equals(normalize(NO_PRIOR_MESSAGES))) {
+            return null;
+        }
+        return mode + '\u001f' + normalize(promptVars.get("language")) + '\u001f' + normalize(promptVars.get("user_message"));
+    }
+
+    private String profileText(Map<String, Object> promptVars) {
+        StringBuilder text = new StringBuilder();
+        for (String field : SEMANTIC_FIELDS) {
+            text.append(field).append(": ").append(normalize(promptVars.get(field))).append('\n');
+        }
+        return text.toString();
+    }
+
+    // Null when there is no embedding model, or every embedding thread is busy and the queue is full.
+    private CompletableFuture<float[]> embedAsync(String text) {
+        if (!embeddingService.isAvailable()) {
+            return null;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> embeddingService.embed(text), embedExecutor);
+        } catch (RejectedExecutionException e) {
+            embeddingSaturated.incrementAndGet();
+            logger.debug("Semantic cache skipped: all {} embedding threads busy and the queue is full.", EMBED_THREADS);
+            return null;
+        }
+    }
+
+    private void embeddingMissed(Throwable error) {
+        Throwable cause = (error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            embeddingBudgetExceeded.incrementAndGet();
+            logger.debug("Semantic cache embedding exceeded {} ms budget; skipping the semantic tier.", embedBudgetMillis);
+        } else {
+            embeddingFailures.incrementAndGet();
+            logger.warn("Semantic cache embedding failed: {}", cause.getMessage());
+        }
+    }
+
+    private static String studentName(Map<String, Object> promptVars) {
+        Object name = promptVars.get("student_name");
+        return name == null ? "Student" : name.toString();
+    }
+
+    static String normalize(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toString().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    static double cosineDistance(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return Double.MAX_VALUE;
+        }
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return Double.MAX_VALUE;
+        }
+        return 1.0 - dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a cache lookup; {@code answer} is null on a miss. {@code pendingVector} is the embedding still in
+     * flight when it missed the budget.
+     */
+    public record Lookup(String answer, String exactKey, String partition, float[] vector,
+                         CompletableFuture<float[]> pendingVector) {
+        public boolean isHit() {
+            return answer != null;
+        }
+    }
+
+    private record SemanticEntry(String key, String partition, float[] vector, String answerTemplate) {}
+}
@@ -0,0 +1,145 @@
+package com.magicbus.careercatalyst.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Small thread-safe LRU map with a per-entry time-to-live.
+ * Entries expire lazily on access; the least recently used entry is dropped once maxEntries is exceeded.
+ * With {@code refreshOnAccess} the TTL counts from the last read instead of the write, i.e. an idle timeout.
+ * An optional listener is told about every entry that leaves the cache by eviction or expiry. Explicit
+ * {@link #remove} calls are not reported: the caller gets the value back and owns it from then on.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final boolean refreshOnAccess;
+    private final BiConsumer<K, V> evictionListener;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long evictions;
+    private long expirations;
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, null);
+    }
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis, BiConsumer<K, V> evictionListener) {
+        this(maxEntries, ttlMillis, false, evictionListener);
+    }
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis, boolean refreshOnAccess, BiConsumer<K, V> evictionListener) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttlMillis <= 0 ? Long.MAX_VALUE : ttlMillis * 1_000_000L;
+        this.refreshOnAccess = refreshOnAccess;
+        this.evictionListener = evictionListener;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key) {
+        K expiredKey = null;
+        V expiredValue = null;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            long now = System.nanoTime();
+            if (!isExpired(entry, now)) {
+                if (refreshOnAccess) {
+                    entries.put(key, new Entry<>(entry.value, now));
+                }
+                return entry.value;
+            }
+            entries.remove(key);
+            expirations++;
+            expiredKey = key;
+            expiredValue = entry.value;
+        }
+        notifyRemoved(expiredKey, expiredValue);
+        return null;
+    }
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        List<Map.Entry<K, V>> removed = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            entries.put(key, new Entry<>(value, now));
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                Map.Entry<K, Entry<V>> eldest = it.next();
+                it.remove();
+                evictions++;
+                removed.add(Map.entry(eldest.getKey(), eldest.getValue().value));
+            }
+        }
+        removed.forEach(e -> notifyRemoved(e.getKey(), e.getValue()));
+    }
+
+    /** Removes and returns the entry (expired or not) without telling the eviction listener. */
+    public V remove(K key) {
+        synchronized (this) {
+            Entry<V> entry = entries.remove(key);
+            return entry == null ? null : entry.value;
+        }
+    }
+
+    /**
+     * Drops expired entries and returns a snapshot of the live ones, most recently used last.
+     * Does not change the access order.
+     */
+    public List<Map.Entry<K, V>> snapshot() {
+        List<Map.Entry<K, V>> live = new ArrayList<>();
+        List<Map.Entry<K, V>> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> e = it.next();
+                if (isExpired(e.getValue(), now)) {
+                    it.remove();
+                    expirations++;
+                    expired.add(Map.entry(e.getKey(), e.getValue().value));
+                } else {
+                    live.add(Map.entry(e.getKey(), e.getValue().value));
+                }
+            }
+        }
+        expired.forEach(e -> notifyRemoved(e.getKey(), e.getValue()));
+        return live;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long expirations() {
+        return expirations;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos != Long.MAX_VALUE && now - entry.createdNanos > ttlNanos;
+    }
+
+    private void notifyRemoved(K key, V value) {
+        if (evictionListener != null) {
+            evictionListener.accept(key, value);
+        }
+    }
+
+    private record Entry<V>(V value, long createdNanos) {}
+}
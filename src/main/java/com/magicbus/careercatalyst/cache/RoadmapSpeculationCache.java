@@ -0,0 +1,207 @@
+package com.magicbus.careercatalyst.cache;
+
+import com.magicbus.careercatalyst.ratelimit.AzureOpenAiRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Roadmaps generated in the background right after a discovery reply, since the mentor usually asks for the
+ * roadmap next.
+ * <p>
+ * Entries are keyed by student (the name, or the profile itself for unnamed students), so a new discovery turn
+ * with a changed profile cancels the old speculation. A roadmap request takes the entry when the profile fields
+ * and language match and its message only asks for the roadmap ({@link #ROADMAP_ONLY_MESSAGES}); the
+ * conversation is not compared. Only finished roadmaps are handed out: one still generating runs in the batch
+ * lane, so it is cancelled and the interactive request generates its own. Nothing is started, and pending
+ * speculations are cancelled, while less than {@code advisor.speculation.min-headroom} of the quota is free.
+ */
+@Component
+public class RoadmapSpeculationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoadmapSpeculationCache.class);
+    private static final String DEFAULT_NAME = "student";
+
+    /** The message a speculative roadmap is generated for, also the backend default when none is sent. */
+    public static final String FIRST_ROADMAP_MESSAGE = "No new message. Generate the first roadmap.";
+    // Messages that add nothing beyond "make the roadmap": the default and the UI's "Generate Mentor Roadmap" button.
+    static final Set<String> ROADMAP_ONLY_MESSAGES = Set.of(
+            AdviceResponseCache.normalize(FIRST_ROADMAP_MESSAGE),
+            AdviceResponseCache.normalize("Generate a full mentor-ready roadmap for this learner."));
+
+    private final boolean enabled;
+    private final double minHeadroom;
+    private final AzureOpenAiRateLimiter rateLimiter;
+    private final BoundedTtlCache<String, Speculation> speculations;
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong notReady = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong unused = new AtomicLong();
+    private final AtomicLong cancelledForQuota = new AtomicLong();
+    private final AtomicLong skippedForQuota = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public RoadmapSpeculationCache(
+            @Value("${advisor.speculation.enabled:false}") boolean enabled,
+            @Value("${advisor.speculation.max-entries:200}") int maxEntries,
+            @Value("${advisor.speculation.ttl-minutes:10}") long ttlMinutes,
+            @Value("${advisor.speculation.min-headroom:0.5}") double minHeadroom,
+            AzureOpenAiRateLimiter rateLimiter) {
+        this.enabled = enabled;
+        this.minHeadroom = minHeadroom;
+        this.rateLimiter = rateLimiter;
+        this.speculations = new BoundedTtlCache<>(maxEntries, ttlMinutes * 60_000L, this::discarded);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts {@code generation} for the profile in {@code promptVars} unless the same profile is already covered.
+     * The supplier must not block; it is only called when a speculation actually starts.
+     */
+    public void speculate(Map<String, Object> promptVars, Supplier<CompletableFuture<String>> generation) {
+        if (!enabled) {
+            return;
+        }
+        if (rateLimiter.headroom() < minHeadroom) {
+            skippedForQuota.incrementAndGet();
+            cancelPending();
+            return;
+        }
+        String subject = subjectKey(promptVars);
+        String profile = profileKey(promptVars);
+        Speculation existing = speculations.get(subject);
+        if (existing != null) {
+            if (existing.profileKey().equals(profile)) {
+                return;
+            }
+            speculations.remove(subject);
+            superseded.incrementAndGet();
+            existing.answer().cancel(true);
+        }
+
+        CompletableFuture<String> answer;
+        try {
+            answer = generation.get();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            logger.warn("Speculative roadmap could not start: {}", e.getMessage());
+            return;
+        }
+        started.incrementAndGet();
+        Speculation speculation = new Speculation(profile, answer);
+        speculations.put(subject, speculation);
+        answer.whenComplete((text, error) -> {
+            if (error == null || answer.isCancelled()) {
+                return;
+            }
+            failures.incrementAndGet();
+            logger.warn("Speculative roadmap failed: {}", error.getMessage());
+            if (speculations.get(subject) == speculation) {
+                speculations.remove(subject);
+            }
+        });
+    }
+
+    /**
+     * Takes the finished speculative roadmap for this profile and message, or returns null.
+     * A speculation is handed out once; the response cache keeps the answer after that.
+     */
+    public String claim(Map<String, Object> promptVars) {
+        if (!enabled) {
+            return null;
+        }
+        String message = AdviceResponseCache.normalize(promptVars.get("user_message"));
+        if (!message.isEmpty() && !ROADMAP_ONLY_MESSAGES.contains(message)) {
+            return null;
+        }
+        String subject = subjectKey(promptVars);
+        // get() first so an expired entry is dropped (and counted) rather than served.
+        Speculation speculation = speculations.get(subject);
+        if (speculation == null) {
+            return null;
+        }
+        speculations.remove(subject);
+        if (!speculation.profileKey().equals(profileKey(promptVars))) {
+            superseded.incrementAndGet();
+            speculation.answer().cancel(true);
+            return null;
+        }
+        if (!speculation.answer().isDone()) {
+            // Waiting would keep an interactive request behind the batch lane; free the quota instead.
+            notReady.incrementAndGet();
+            speculation.answer().cancel(true);
+            return null;
+        }
+        if (speculation.answer().isCompletedExceptionally()) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return speculation.answer().join();
+    }
+
+    public Map<String, Object> stats() {
+        long startedCount = started.get();
+        long served = hits.get();
+        long wasted = superseded.get() + unused.get() + notReady.get() + cancelledForQuota.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("started", startedCount);
+        stats.put("hits", hits.get());
+        stats.put("notReady", notReady.get());
+        stats.put("superseded", superseded.get());
+        stats.put("unused", unused.get());
+        stats.put("cancelledForQuota", cancelledForQuota.get());
+        stats.put("skippedForQuota", skippedForQuota.get());
+        stats.put("failures", failures.get());
+        stats.put("hitRate", startedCount == 0 ? 0.0 : (double) served / startedCount);
+        stats.put("wasteRate", startedCount == 0 ? 0.0 : (double) wasted / startedCount);
+        stats.put("entries", speculations.size());
+        return stats;
+    }
+
+    private void cancelPending() {
+        for (Map.Entry<String, Speculation> entry : speculations.snapshot()) {
+            Speculation speculation = entry.getValue();
+            if (!speculation.answer().isDone() && speculations.remove(entry.getKey()) == speculation) {
+                cancelledForQuota.incrementAndGet();
+                speculation.answer().cancel(true);
+            }
+        }
+    }
+
+    // Evicted or expired before anyone asked for it.
+    private void discarded(String subject, Speculation speculation) {
+        unused.incrementAndGet();
+        speculation.answer().cancel(true);
+    }
+
+    private static String subjectKey(Map<String, Object> promptVars) {
+        String name = AdviceResponseCache.normalize(promptVars.get("student_name"));
+        return name.isEmpty() || name.equals(DEFAULT_NAME) ? "profile:" + profileKey(promptVars) : "name:" + name;
+    }
+
+    private static String profileKey(Map<String, Object> promptVars) {
+        StringBuilder canonical = new StringBuilder();
+        for (String field : AdviceResponseCache.SEMANTIC_FIELDS) {
+            canonical.append(field).append('=').append(AdviceResponseCache.normalize(promptVars.get(field))).append('\u001f');
+        }
+        canonical.append("language=").append(AdviceResponseCache.normalize(promptVars.get("language")));
+        canonical.append('\u001f').append("student_name=").append(AdviceResponseCache.normalize(promptVars.get("student_name")));
+        return AdviceResponseCache.sha256(canonical.toString());
+    }
+
+    private record Speculation(String profileKey, CompletableFuture<String> answer) {}
+}
@@ -0,0 +1,92 @@
+package com.magicbus.careercatalyst.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consecutive-failure circuit breaker for a remote dependency.
+ * <p>
+ * Closed, it lets every call through and opens after {@code failureThreshold} failures in a row, where a call
+ * slower than {@code slowCallMillis} counts as a failure even if it succeeded. Open, it rejects calls for
+ * {@code openMillis}, after which a single trial call is let through (half-open): success closes the breaker,
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long opened;
+    private long rejected;
+
+    public CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.slowCallNanos = slowCallMillis <= 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /** Whether a call may go out now. Every permitted call must be followed by {@link #onSuccess} or {@link #onFailure}. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        if (latencyNanos > slowCallNanos) {
+            recordFailure();
+            return;
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        recordFailure();
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("opened", opened);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    private void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            opened++;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.magicbus.careercatalyst.concurrent;
+
+import java.util.Arrays;
+
+/**
+ * Percentiles over the last {@code window} successful call latencies. Recorded into a ring buffer;
+ * {@link #percentileMillis} sorts a copy, which is cheap for the few hundred samples kept here.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int window) {
+        this.samples = new long[Math.max(1, window)];
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /** The {@code quantile} (0..1) of the recorded latencies in milliseconds, or -1 with no samples. */
+    public long percentileMillis(double quantile) {
+        long[] copy;
+        synchronized (this) {
+            if (count == 0) {
+                return -1;
+            }
+            copy = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.min(copy.length - 1, Math.max(0, Math.ceil(quantile * copy.length) - 1));
+        return copy[index] / 1_000_000;
+    }
+}
@@ -0,0 +1,122 @@
+package com.magicbus.careercatalyst.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking fan-out work (model calls, HTTP lookups).
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on a Java 21+ runtime this returns a virtual-thread-per-task
+ * executor, so waiting on Azure costs no platform thread; the caller bounds concurrency itself (e.g. with a
+ * semaphore). The project still compiles for Java 17, so the factory is looked up reflectively; with the
+ * switch off, or on older runtimes, callers get a fixed pool of daemon platform threads instead.
+ * {@link #configure} is called from {@code CareerCatalystApplication} before any bean creates a pool.
+ * <p>
+ * Virtual threads unmount while they block, except inside a {@code synchronized} block or method, which pins the
+ * carrier thread on Java 21. Code that may block on I/O while holding a lock uses a {@code ReentrantLock}.
+ */
+public final class TaskExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutors.class);
+    private static final Method VIRTUAL_THREAD_FACTORY = lookup(Executors.class, "newVirtualThreadPerTaskExecutor");
+    private static final Method VIRTUAL_THREAD_BUILDER = lookup(Thread.class, "ofVirtual");
+    private static final Method BUILDER_NAME = lookup(builderType(), "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = lookup(builderType(), "factory");
+
+    private static volatile boolean virtualThreadsEnabled;
+
+    private TaskExecutors() {
+    }
+
+    /** Applies {@code spring.threads.virtual.enabled}; pools created before this call use platform threads. */
+    public static void configure(boolean enabled) {
+        virtualThreadsEnabled = enabled;
+        if (enabled && VIRTUAL_THREAD_FACTORY == null) {
+            logger.warn("spring.threads.virtual.enabled is set but this runtime has no virtual threads; using platform threads");
+        }
+    }
+
+    /** True when virtual threads are both switched on and supported by the runtime. */
+    public static boolean virtualThreadsAvailable() {
+        return virtualThreadsEnabled && VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * Virtual threads when available, otherwise {@code platformThreads} daemon threads named {@code namePrefix-N}.
+     * With virtual threads {@code platformThreads} does not bound concurrency: every submitted task runs at once.
+     */
+    public static ExecutorService newTaskExecutor(String namePrefix, int platformThreads) {
+        if (virtualThreadsAvailable()) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads unavailable for {}: {}", namePrefix, e.getMessage());
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * Factory for fixed-size pools whose size is a concurrency limit rather than a thread budget: virtual threads
+     * named {@code namePrefix-N} when available, otherwise daemon platform threads.
+     */
+    public static ThreadFactory threadFactory(String namePrefix) {
+        if (virtualThreadsEnabled && VIRTUAL_THREAD_BUILDER != null) {
+            try {
+                Object builder = VIRTUAL_THREAD_BUILDER.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, namePrefix + "-", 1L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads unavailable for {}: {}", namePrefix, e.getMessage());
+            }
+        }
+        return daemonThreadFactory(namePrefix);
+    }
+
+    /**
+     * {@link HttpClient} builder that runs response handling on virtual threads when available, instead of the
+     * JDK's default cached pool of platform threads.
+     */
+    public static HttpClient.Builder httpClientBuilder(String namePrefix) {
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        if (virtualThreadsAvailable()) {
+            builder.executor(newTaskExecutor(namePrefix, 1));
+        }
+        return builder;
+    }
+
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Class<?> builderType() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method lookup(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.magicbus.careercatalyst.conversation;
+
+import com.magicbus.careercatalyst.cache.BoundedTtlCache;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the conversation block of the prompt under {@code advisor.conversation.max-tokens}.
+ * <p>
+ * The most recent turns are passed through verbatim; older turns are folded into a rolling summary made of
+ * one short extractive digest per turn. Digests are deterministic and memoized by turn content, so each turn
+ * is summarized once and later requests only digest the turns that have just aged out of the recent window.
+ * When the summary itself outgrows its budget the oldest digests are dropped, except the opening user turn,
+ * which usually states the student's goal.
+ */
+@Component
+public class ConversationCompactor {
+
+    static final String NO_PRIOR_MESSAGES = "No prior messages.";
+
+    private static final Pattern TURN_START = Pattern.compile("^(User|Assistant|Mentor|Student)\\s*:\\s?(.*)$");
+    private static final Pattern BOLD = Pattern.compile("\\*\\*([^*]{3,60})\\*\\*");
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?।])\\s");
+    private static final int DIGEST_WORDS = 30;
+    private static final int DIGEST_KEY_POINTS = 3;
+
+    private final boolean enabled;
+    private final int maxTokens;
+    private final int recentTurns;
+    private final int summaryMaxTokens;
+    private final TokenCountEstimator tokenEstimator = new JTokkitTokenCountEstimator();
+    private final BoundedTtlCache<String, String> digests;
+
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong turnsDigested = new AtomicLong();
+    private final AtomicLong digestReuses = new AtomicLong();
+    private final AtomicLong tokensIn = new AtomicLong();
+    private final AtomicLong tokensOut = new AtomicLong();
+
+    public ConversationCompactor(
+            @Value("${advisor.conversation.compaction.enabled:true}") boolean enabled,
+            @Value("${advisor.conversation.max-tokens:1500}") int maxTokens,
+            @Value("${advisor.conversation.recent-turns:4}") int recentTurns,
+            @Value("${advisor.conversation.summary-max-tokens:400}") int summaryMaxTokens,
+            @Value("${advisor.conversation.digest-cache-entries:5000}") int digestCacheEntries) {
+        this.enabled = enabled;
+        this.maxTokens = maxTokens;
+        this.recentTurns = Math.max(1, recentTurns);
+        this.summaryMaxTokens = Math.min(summaryMaxTokens, maxTokens / 2);
+        this.digests = new BoundedTtlCache<>(digestCacheEntries, 0);
+    }
+
+    /** Returns the conversation block to put in the prompt; short conversations come back unchanged. */
+    public String compact(String conversationContext) {
+        if (!enabled || conversationContext == null || conversationContext.isBlank()
+                || conversationContext.trim().equals(NO_PRIOR_MESSAGES)) {
+            return conversationContext;
+        }
+        List<Turn> turns = parse(conversationContext);
+        int originalTokens = tokenEstimator.estimate(conversationContext);
+        if (turns.size() <= recentTurns && originalTokens <= maxTokens) {
+            return conversationContext;
+        }
+        compactions.incrementAndGet();
+
+        // Recent turns verbatim, newest first, within what the summary leaves over.
+        int recentBudget = maxTokens - summaryMaxTokens;
+        List<String> recent = new ArrayList<>();
+        int recentTokens = 0;
+        int firstRecent = turns.size();
+        for (int i = turns.size() - 1; i >= 0 && recent.size() < recentTurns; i--) {
+            String rendered = turns.get(i).render();
+            int tokens = tokenEstimator.estimate(rendered);
+            if (recentTokens + tokens > recentBudget) {
+                if (recent.isEmpty()) {
+                    // The latest turn alone is too long: keep its beginning rather than nothing.
+                    rendered = truncate(rendered, recentBudget);
+                    recent.add(0, rendered);
+                    recentTokens += tokenEstimator.estimate(rendered);
+                    firstRecent = i;
+                }
+                break;
+            }
+            recent.add(0, rendered);
+            recentTokens += tokens;
+            firstRecent = i;
+        }
+
+        List<String> summary = summarize(turns.subList(0, firstRecent), maxTokens - recentTokens);
+        StringBuilder compacted = new StringBuilder();
+        if (!summary.isEmpty()) {
+            compacted.append("Summary of earlier conversation (").append(firstRecent).append(" turns):\n");
+            summary.forEach(line -> compacted.append("- ").append(line).append('\n'));
+            compacted.append("\nRecent messages:\n");
+        }
+        compacted.append(String.join("\n", recent));
+        String result = compacted.toString();
+        tokensIn.addAndGet(originalTokens);
+        tokensOut.addAndGet(tokenEstimator.estimate(result));
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxTokens", maxTokens);
+        stats.put("compactions", compactions.get());
+        stats.put("turnsDigested", turnsDigested.get());
+        stats.put("digestReuses", digestReuses.get());
+        stats.put("tokensIn", tokensIn.get());
+        stats.put("tokensOut", tokensOut.get());
+        stats.put("digestCacheEntries", digests.size());
+        return stats;
+    }
+
+    private List<String> summarize(List<Turn> older, int budget) {
+        if (older.isEmpty()) {
+            return List.of();
+        }
+        int limit = Math.min(summaryMaxTokens, budget);
+        List<String> lines = new ArrayList<>(older.size());
+        for (Turn turn : older) {
+            lines.add(digest(turn));
+        }
+        // Drop the oldest digests until the summary fits, keeping the opening user turn as an anchor.
+        int anchor = older.get(0).role().equals("User") ? 1 : 0;
+        int dropped = 0;
+        while (lines.size() > anchor && tokenEstimator.estimate(String.join("\n", lines)) > limit) {
+            lines.remove(anchor);
+            dropped++;
+        }
+        if (dropped > 0) {
+            lines.add(anchor, "(" + dropped + " earlier turns omitted)");
+        }
+        return lines;
+    }
+
+    private String digest(Turn turn) {
+        String key = sha256(turn.render());
+        String cached = digests.get(key);
+        if (cached != null) {
+            digestReuses.incrementAndGet();
+            return cached;
+        }
+        String digest = turn.role() + ": " + extract(turn.content());
+        digests.put(key, digest);
+        turnsDigested.incrementAndGet();
+        return digest;
+    }
+
+    /** First sentence (capped) plus up to three bolded key points, ignoring code blocks and tables. */
+    static String extract(String content) {
+        StringBuilder prose = new StringBuilder();
+        boolean inCode = false;
+        for (String line : content.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("```")) {
+                inCode = !inCode;
+                continue;
+            }
+            if (inCode || trimmed.isEmpty() || trimmed.startsWith("|") || trimmed.startsWith("#")) {
+                continue;
+            }
+            prose.append(trimmed.replaceFirst("^[-*•]\\s+", "")).append(' ');
+        }
+        String text = prose.toString().trim();
+        String first = SENTENCE_END.split(text, 2)[0].replace("**", "");
+        String[] words = first.split("\\s+");
+        if (words.length > DIGEST_WORDS) {
+            first = String.join(" ", Arrays.copyOf(words, DIGEST_WORDS)) + " …";
+        }
+
+        Set<String> keyPoints = new LinkedHashSet<>();
+        Matcher bold = BOLD.matcher(content);
+        while (bold.find() && keyPoints.size() < DIGEST_KEY_POINTS) {
+            keyPoints.add(bold.group(1).trim());
+        }
+        if (keyPoints.isEmpty()) {
+            return first;
+        }
+        return first + " Key points: " + String.join("; ", keyPoints) + ".";
+    }
+
+    private String truncate(String text, int tokenBudget) {
+        String[] words = text.split("\\s+");
+        int keep = words.length;
+        String candidate = text;
+        while (keep > 1 && tokenEstimator.estimate(candidate) > tokenBudget) {
+            keep = keep * 3 / 4;
+            candidate = String.join(" ", Arrays.copyOf(words, keep)) + " …";
+        }
+        return candidate;
+    }
+
+    /** Splits the client-built transcript ("User: ..." / "Assistant: ..." lines) into turns. */
+    static List<Turn> parse(String conversationContext) {
+        List<Turn> turns = new ArrayList<>();
+        String role = null;
+        StringBuilder content = new StringBuilder();
+        for (String line : conversationContext.split("\\r?\\n")) {
+            Matcher start = TURN_START.matcher(line);
+            if (start.matches()) {
+                if (role != null) {
+                    turns.add(new Turn(role, content.toString().strip()));
+                }
+                role = start.group(1);
+                content.setLength(0);
+                content.append(start.group(2));
+            } else {
+                if (role == null) {
+                    role = "Context";
+                }
+                content.append('\n').append(line);
+            }
+        }
+        if (role != null) {
+            turns.add(new Turn(role, content.toString().strip()));
+        }
+        return turns;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    record Turn(String role, String content) {
+        String render() {
+            return role + ": " + content;
+        }
+    }
+}
@@ -2,10 +2,16 @@ package com.magicbus.careercatalyst.databricks;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.cache.BoundedTtlCache;
+import com.magicbus.careercatalyst.concurrent.CircuitBreaker;
+import com.magicbus.careercatalyst.concurrent.LatencyTracker;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.retrieval.StudentVectorSearch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
@@ -15,13 +21,33 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Databricks Vector Search over the student success stories.
+ * <p>
+ * Callers wait at most {@code databricks.vector-search.budget-ms} for an answer; a query still running after that
+ * is left to finish in the background and fill the cache. A {@link CircuitBreaker} stops calling the endpoint
+ * after repeated failures or slow calls, and while it is open queries return empty context right away (the hybrid
+ * retriever then answers from BM25 alone). With hedging on, a second identical request is sent once the first has
+ * been running longer than the recent p95 latency, and whichever answers first is used.
+ */
 @Service
-public class DatabricksVectorSearchClient {
+@ConditionalOnProperty(name = "advisor.retrieval.provider", havingValue = "databricks", matchIfMissing = true)
+public class DatabricksVectorSearchClient implements StudentVectorSearch {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabricksVectorSearchClient.class);
 
@@ -34,61 +60,279 @@ public class DatabricksVectorSearchClient {
     private final String textColumn;
     private final int defaultNumResults;
 
+    // Identical queries (multi-turn chats, look-alike cohorts) are served from cache; concurrent misses
+    // on the same key share a single in-flight HTTP call.
+    private final BoundedTtlCache<String, List<Document>> resultCache;
+    private final Map<String, CompletableFuture<List<Document>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+
+    private final Duration requestTimeout;
+    private final long budgetMillis;
+    private final boolean hedgingEnabled;
+    private final long hedgeMinDelayMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencies = new LatencyTracker(200);
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong budgetExceeded = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
     public DatabricksVectorSearchClient(
             @Value("${databricks.workspace-url:}") String workspaceUrl,
             @Value("${databricks.pat:}") String pat,
             @Value("${databricks.vector-search.index:}") String indexName,
             @Value("${databricks.vector-search.text-column:text}") String textColumn,
-            @Value("${databricks.vector-search.num-results:3}") int defaultNumResults) {
+            @Value("${databricks.vector-search.num-results:3}") int defaultNumResults,
+            @Value("${databricks.vector-search.cache.max-entries:1000}") int cacheMaxEntries,
+            @Value("${databricks.vector-search.cache.ttl-minutes:30}") long cacheTtlMinutes,
+            @Value("${databricks.vector-search.connect-timeout-ms:3000}") long connectTimeoutMillis,
+            @Value("${databricks.vector-search.request-timeout-ms:10000}") long requestTimeoutMillis,
+            @Value("${databricks.vector-search.budget-ms:2500}") long budgetMillis,
+            @Value("${databricks.vector-search.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${databricks.vector-search.hedging.min-delay-ms:200}") long hedgeMinDelayMillis,
+            @Value("${databricks.vector-search.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${databricks.vector-search.circuit-breaker.slow-call-ms:3000}") long slowCallMillis,
+            @Value("${databricks.vector-search.circuit-breaker.open-seconds:30}") long openSeconds) {
         this.workspaceUrl = trimTrailingSlash(workspaceUrl);
         this.pat = pat;
         this.indexName = indexName;
         this.textColumn = textColumn;
         this.defaultNumResults = defaultNumResults;
-        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(20)).build();
+        this.httpClient = TaskExecutors.httpClientBuilder("vector-search-http")
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.budgetMillis = budgetMillis;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, slowCallMillis, openSeconds * 1000);
         this.objectMapper = new ObjectMapper();
+        this.resultCache = new BoundedTtlCache<>(cacheMaxEntries, cacheTtlMinutes * 60_000L);
     }
 
+    @Override
     public List<Document> similaritySearch(String queryText, int topK) {
+        return similaritySearchAsync(queryText, topK).join();
+    }
+
+    /** Never completes exceptionally; completes with an empty list at the latest after the budget. */
+    @Override
+    public CompletableFuture<List<Document>> similaritySearchAsync(String queryText, int topK) {
         if (isBlank(workspaceUrl) || isBlank(pat) || isBlank(indexName)) {
             logger.warn("Databricks Vector Search not configured. Returning empty RAG context.");
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         int k = topK > 0 ? topK : defaultNumResults;
-        String encodedIndex = URLEncoder.encode(indexName, StandardCharsets.UTF_8);
-        URI uri = URI.create(workspaceUrl + "/api/2.0/vector-search/indexes/" + encodedIndex + "/query");
+        String key = cacheKey(queryText, k);
+        List<Document> cached = resultCache.get(key);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        try {
-            Map<String, Object> body = Map.of(
-                    "query_text", queryText,
-                    "num_results", k,
-                    "columns", List.of(textColumn)
-            );
-            String json = objectMapper.writeValueAsString(body);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(uri)
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Authorization", "Bearer " + pat)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(json))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() / 100 != 2) {
-                logger.warn("Databricks Vector Search query failed with status {}", response.statusCode());
-                return Collections.emptyList();
+        CompletableFuture<List<Document>> call = new CompletableFuture<>();
+        CompletableFuture<List<Document>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCalls.incrementAndGet();
+            return withBudget(existing);
+        }
+
+        // The previous leader may have filled the cache between our miss and putIfAbsent.
+        cached = resultCache.get(key);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            inFlight.remove(key, call);
+            call.complete(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            shortCircuited.incrementAndGet();
+            inFlight.remove(key, call);
+            call.complete(Collections.emptyList());
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        cacheMisses.incrementAndGet();
+        queryWithHedge(queryText, k).whenComplete((docs, error) -> {
+            inFlight.remove(key, call);
+            if (error != null) {
+                logger.warn("Databricks Vector Search query failed: {}", rootMessage(error));
+                // Failures are shared with the waiters but never cached.
+                call.complete(Collections.emptyList());
+                return;
+            }
+            List<Document> result = List.copyOf(docs);
+            resultCache.put(key, result);
+            call.complete(result);
+        });
+        return withBudget(call);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        long hits = cacheHits.get();
+        long total = hits + cacheMisses.get() + coalescedCalls.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("provider", "databricks");
+        stats.put("cacheHits", hits);
+        stats.put("cacheMisses", cacheMisses.get());
+        stats.put("coalescedCalls", coalescedCalls.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hits / total);
+        stats.put("cacheEntries", resultCache.size());
+        stats.put("cacheEvictions", resultCache.evictions());
+        stats.put("cacheExpirations", resultCache.expirations());
+        stats.put("inFlight", inFlight.size());
+        stats.put("budgetExceeded", budgetExceeded.get());
+        stats.put("shortCircuited", shortCircuited.get());
+        stats.put("hedgedRequests", hedgedRequests.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("p95Ms", latencies.percentileMillis(0.95));
+        stats.put("circuitBreaker", circuitBreaker.stats());
+        return stats;
+    }
+
+    /**
+     * Sends the query and, with hedging on and the breaker closed, a second copy once the first has taken longer
+     * than the recent p95. Completes with the first successful answer, or the last failure when both fail.
+     */
+    private CompletableFuture<List<Document>> queryWithHedge(String queryText, int k) {
+        long primaryStart = System.nanoTime();
+        CompletableFuture<List<Document>> primary = query(queryText, k);
+        if (!hedgingEnabled || latencies.count() < 20) {
+            return primary;
+        }
+        CompletableFuture<List<Document>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        primary.whenComplete((docs, error) -> settle(result, pending, docs, error, false, primaryStart));
+
+        long delay = Math.max(hedgeMinDelayMillis, latencies.percentileMillis(0.95));
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone() || circuitBreaker.state() != CircuitBreaker.State.CLOSED) {
+                return;
+            }
+            pending.incrementAndGet();
+            hedgedRequests.incrementAndGet();
+            CompletableFuture<List<Document>> hedge = query(queryText, k);
+            hedge.whenComplete((docs, error) -> settle(result, pending, docs, error, true, primaryStart));
+            // Whichever answer loses is abandoned rather than read.
+            result.whenComplete((docs, error) -> hedge.cancel(true));
+        });
+        result.whenComplete((docs, error) -> primary.cancel(true));
+        return result;
+    }
+
+    private void settle(CompletableFuture<List<Document>> result,
+                        AtomicInteger pending,
+                        List<Document> docs,
+                        Throwable error,
+                        boolean hedge,
+                        long primaryStart) {
+        if (error == null) {
+            if (result.complete(docs) && hedge) {
+                hedgeWins.incrementAndGet();
+                // The cancelled primary records nothing, yet it was slow; without this sample only fast calls
+                // reach the window and the p95 (and with it the hedge delay) keeps drifting down.
+                latencies.record(System.nanoTime() - primaryStart);
             }
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
 
-            return parseDocuments(response.body());
+    private CompletableFuture<List<Document>> query(String queryText, int k) {
+        HttpRequest request;
+        try {
+            request = buildRequest(queryText, k);
         } catch (Exception e) {
-            logger.warn("Databricks Vector Search query failed: {}", e.getMessage());
-            return Collections.emptyList();
+            circuitBreaker.onFailure();
+            return CompletableFuture.failedFuture(e);
         }
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<List<Document>> docs = exchange
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException("status " + response.statusCode());
+                    }
+                    return response.body();
+                })
+                .whenComplete((body, error) -> {
+                    // A hedge loser abandoned on purpose says nothing about the endpoint's health.
+                    if (exchange.isCancelled()) {
+                        return;
+                    }
+                    if (error != null) {
+                        circuitBreaker.onFailure();
+                        return;
+                    }
+                    long latency = System.nanoTime() - start;
+                    latencies.record(latency);
+                    circuitBreaker.onSuccess(latency);
+                })
+                .thenApply(this::parseDocuments);
+        // Cancelling the returned future aborts the HTTP exchange as well.
+        docs.whenComplete((result, error) -> {
+            if (docs.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return docs;
+    }
+
+    private HttpRequest buildRequest(String queryText, int k) throws IOException {
+        String encodedIndex = URLEncoder.encode(indexName, StandardCharsets.UTF_8);
+        URI uri = URI.create(workspaceUrl + "/api/2.0/vector-search/indexes/" + encodedIndex + "/query");
+
+        Map<String, Object> body = Map.of(
+                "query_text", queryText,
+                "num_results", k,
+                "columns", List.of(textColumn)
+        );
+        String json = objectMapper.writeValueAsString(body);
+
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + pat)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Times out a copy, so the shared call itself keeps running and fills the cache for the next request
+    // with this profile.
+    private CompletableFuture<List<Document>> withBudget(CompletableFuture<List<Document>> call) {
+        return call.copy()
+                .orTimeout(budgetMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        budgetExceeded.incrementAndGet();
+                        logger.debug("Vector Search exceeded {} ms budget; returning empty context.", budgetMillis);
+                    } else {
+                        logger.warn("Waiting for in-flight Vector Search query failed: {}", cause.getMessage());
+                    }
+                    return Collections.emptyList();
+                });
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private static String cacheKey(String queryText, int k) {
+        String normalized = queryText == null ? "" : queryText.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return k + ":" + normalized;
     }
 
-    private List<Document> parseDocuments(String json) {
+    List<Document> parseDocuments(String json) {
         try {
             Map<String, Object> root = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
             Object resultObj = root.getOrDefault("result", root);
@@ -0,0 +1,143 @@
+package com.magicbus.careercatalyst.embedding;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeds text through the configured {@link EmbeddingModel}. With {@code advisor.embedding-store.enabled}
+ * every vector is also remembered in a {@link MappedEmbeddingStore} keyed by SHA-256 of deployment name and
+ * text, so repeated texts never pay for a second embedding call, including across restarts. Callers get a
+ * {@code float[]}, so a stored vector is copied out of the mapping on each hit.
+ */
+@Component
+public class CachedEmbeddingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedEmbeddingService.class);
+
+    private final ObjectProvider<EmbeddingModel> embeddingModelProvider;
+    private final String deploymentName;
+    private final double compactDeadRatio;
+    private final MappedEmbeddingStore store;
+
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong modelCalls = new AtomicLong();
+
+    public CachedEmbeddingService(
+            ObjectProvider<EmbeddingModel> embeddingModelProvider,
+            @Value("${spring.ai.azure.openai.embedding.options.deployment-name:embedding}") String deploymentName,
+            @Value("${advisor.embedding-store.enabled:false}") boolean storeEnabled,
+            @Value("${advisor.embedding-store.file:data/embeddings.bin}") String storeFile,
+            @Value("${advisor.embedding-store.dimensions:1536}") int dimensions,
+            @Value("${advisor.embedding-store.compact-dead-ratio:0.3}") double compactDeadRatio) {
+        this.embeddingModelProvider = embeddingModelProvider;
+        this.deploymentName = deploymentName;
+        this.compactDeadRatio = compactDeadRatio;
+        this.store = storeEnabled ? openStore(storeFile, dimensions, deploymentName) : null;
+    }
+
+    public boolean isAvailable() {
+        return embeddingModelProvider.getIfAvailable() != null;
+    }
+
+    public String deploymentName() {
+        return deploymentName;
+    }
+
+    /** Returns the embedding for {@code text}, or null when no embedding model is configured. */
+    public float[] embed(String text) {
+        byte[] key = key(text);
+        if (store != null) {
+            FloatBuffer stored = store.get(key);
+            if (stored != null) {
+                storeHits.incrementAndGet();
+                float[] vector = new float[stored.remaining()];
+                stored.get(vector);
+                return vector;
+            }
+        }
+        EmbeddingModel embeddingModel = embeddingModelProvider.getIfAvailable();
+        if (embeddingModel == null) {
+            return null;
+        }
+        modelCalls.incrementAndGet();
+        float[] vector = embeddingModel.embed(text);
+        if (store != null) {
+            if (vector.length != store.dimensions()) {
+                logger.warn("Embedding has {} dimensions but the store expects {}; not persisting. Set advisor.embedding-store.dimensions.",
+                        vector.length, store.dimensions());
+            } else {
+                try {
+                    store.put(key, vector);
+                } catch (Exception e) {
+                    logger.warn("Failed to persist embedding: {}", e.getMessage());
+                }
+            }
+        }
+        return vector;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("persistent", store != null);
+        stats.put("storeHits", storeHits.get());
+        stats.put("modelCalls", modelCalls.get());
+        if (store != null) {
+            stats.put("storedVectors", store.size());
+            stats.put("deadRecords", store.deadRecords());
+            stats.put("fileBytes", store.fileBytes());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store == null) {
+            return;
+        }
+        try {
+            int live = store.size();
+            if (live > 0 && (double) store.deadRecords() / (live + store.deadRecords()) > compactDeadRatio) {
+                store.compact();
+            }
+            store.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close embedding store: {}", e.getMessage());
+        }
+    }
+
+    private byte[] key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(deploymentName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return digest.digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static MappedEmbeddingStore openStore(String storeFile, int dimensions, String deploymentName) {
+        if (storeFile == null || storeFile.isBlank()) {
+            return null;
+        }
+        try {
+            return new MappedEmbeddingStore(Path.of(storeFile), dimensions, deploymentName);
+        } catch (Exception e) {
+            logger.warn("Embedding store {} unavailable, embeddings will not be persisted: {}", storeFile, e.getMessage());
+            return null;
+        }
+    }
+}
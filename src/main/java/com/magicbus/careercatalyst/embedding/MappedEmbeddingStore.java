@@ -0,0 +1,334 @@
+package com.magicbus.careercatalyst.embedding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only store of fixed-width float vectors keyed by a 32-byte content hash, backed by a
+ * memory-mapped file. Only the key index lives on the heap; {@link #get} returns a view of the mapping, so
+ * vectors are only copied onto the heap by callers that need an array.
+ * <p>
+ * Layout: a 128-byte header (magic, version, dimensions, record count, live count, model name) followed by
+ * records of {@code [32-byte key][dimensions x float32]}. The record count is written after each record,
+ * so a crash mid-append leaves the previous state intact. Overwritten or removed records stay in the file
+ * as dead space until {@link #compact()} rewrites it.
+ */
+public class MappedEmbeddingStore implements Closeable {
+
+    private static final int MAGIC = 0x454D4253; // "EMBS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 128;
+    private static final int MODEL_NAME_BYTES = 96;
+    private static final int KEY_BYTES = 32;
+    private static final int INITIAL_RECORDS = 1024;
+
+    private final Path file;
+    private final int dimensions;
+    private final String modelName;
+    private final int recordBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Key, Integer> slots = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private int recordCount;
+
+    public MappedEmbeddingStore(Path file, int dimensions, String modelName) throws IOException {
+        this.file = file;
+        this.dimensions = dimensions;
+        this.modelName = modelName;
+        this.recordBytes = KEY_BYTES + dimensions * Float.BYTES;
+        open();
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deadRecords() {
+        lock.readLock().lock();
+        try {
+            return recordCount - slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long fileBytes() {
+        lock.readLock().lock();
+        try {
+            return HEADER_BYTES + (long) recordCount * recordBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zero-copy read-only view of the vector stored under {@code key}, or null.
+     * The view stays valid after the store grows; it must not be used after {@link #compact()} or {@link #close()}.
+     */
+    public FloatBuffer get(byte[] key) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(Key.of(key));
+            if (slot == null) {
+                return null;
+            }
+            int offset = offsetOf(slot) + KEY_BYTES;
+            return mapping.duplicate()
+                    .position(offset)
+                    .limit(offset + dimensions * Float.BYTES)
+                    .slice()
+                    .asReadOnlyBuffer()
+                    .asFloatBuffer();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Appends a vector. A key that is already present is overwritten by appending a new record. */
+    public void put(byte[] key, float[] vector) throws IOException {
+        if (key.length != KEY_BYTES) {
+            throw new IllegalArgumentException("Key must be " + KEY_BYTES + " bytes");
+        }
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(recordCount + 1);
+            int offset = offsetOf(recordCount);
+            ByteBuffer record = mapping.duplicate().position(offset);
+            record.put(key);
+            for (float v : vector) {
+                record.putFloat(v);
+            }
+            Integer previous = slots.put(Key.of(key), recordCount);
+            if (previous != null) {
+                // Retire the superseded record so a rebuild on open cannot pick it up again.
+                mapping.put(offsetOf(previous), new byte[KEY_BYTES]);
+            }
+            recordCount++;
+            writeCounts();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(byte[] key) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(Key.of(key));
+            if (slot == null) {
+                return false;
+            }
+            // Zero the key so the record is not resurrected when the index is rebuilt on open.
+            mapping.put(offsetOf(slot), new byte[KEY_BYTES]);
+            writeCounts();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rewrites the file with live records only and swaps it in atomically. */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (recordCount == slots.size()) {
+                return;
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            int live = slots.size();
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                        HEADER_BYTES + (long) Math.max(live, INITIAL_RECORDS) * recordBytes);
+                writeHeader(target, live);
+                int written = 0;
+                Map<Key, Integer> compacted = new HashMap<>(slots.size() * 2);
+                for (int slot = 0; slot < recordCount; slot++) {
+                    Key key = Key.of(readKey(slot));
+                    Integer current = slots.get(key);
+                    if (current == null || current != slot) {
+                        continue;
+                    }
+                    ByteBuffer source = mapping.duplicate().position(offsetOf(slot)).limit(offsetOf(slot) + recordBytes);
+                    target.position(offsetOf(written));
+                    target.put(source);
+                    compacted.put(key, written);
+                    written++;
+                }
+                target.force();
+                slots.clear();
+                slots.putAll(compacted);
+            }
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            mapping.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            mapping.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        boolean existing = Files.exists(file) && Files.size(file) >= HEADER_BYTES;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (existing && !headerMatches()) {
+            channel.close();
+            throw new IOException("Embedding store " + file + " has a different layout or model; remove it or use another file");
+        }
+        int storedCount = existing ? storedRecordCount() : 0;
+        long fileSize = channel.size();
+        if (existing && (storedCount < 0 || HEADER_BYTES + (long) storedCount * recordBytes > fileSize)) {
+            channel.close();
+            throw new IOException("Embedding store " + file + " claims " + storedCount
+                    + " records but is only " + fileSize + " bytes; remove it or use another file");
+        }
+        long capacity = existing ? Math.max(channel.size(), HEADER_BYTES + (long) INITIAL_RECORDS * recordBytes)
+                : HEADER_BYTES + (long) INITIAL_RECORDS * recordBytes;
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        slots.clear();
+        if (!existing) {
+            recordCount = 0;
+            writeHeader(mapping, 0);
+            return;
+        }
+        recordCount = storedCount;
+        // Rebuild the key index from disk; vectors are never read here.
+        for (int slot = 0; slot < recordCount; slot++) {
+            byte[] key = readKey(slot);
+            if (!isZero(key)) {
+                slots.put(Key.of(key), slot);
+            }
+        }
+    }
+
+    private boolean headerMatches() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != dimensions) {
+            return false;
+        }
+        byte[] name = new byte[MODEL_NAME_BYTES];
+        header.position(HEADER_BYTES - MODEL_NAME_BYTES);
+        header.get(name);
+        return Arrays.equals(name, modelNameBytes());
+    }
+
+    private int storedRecordCount() throws IOException {
+        ByteBuffer count = ByteBuffer.allocate(Integer.BYTES);
+        channel.read(count, 12);
+        return count.flip().getInt();
+    }
+
+    private void writeHeader(ByteBuffer target, int count) {
+        target.putInt(0, MAGIC);
+        target.putInt(4, VERSION);
+        target.putInt(8, dimensions);
+        target.putInt(12, count);
+        target.putInt(16, count);
+        target.put(HEADER_BYTES - MODEL_NAME_BYTES, modelNameBytes());
+    }
+
+    private void writeCounts() {
+        mapping.putInt(12, recordCount);
+        mapping.putInt(16, slots.size());
+    }
+
+    private void ensureCapacity(int records) throws IOException {
+        long needed = HEADER_BYTES + (long) records * recordBytes;
+        if (needed <= mapping.capacity()) {
+            return;
+        }
+        long grown = Math.max(needed, HEADER_BYTES + (long) (mapping.capacity() - HEADER_BYTES) * 2);
+        if (grown > Integer.MAX_VALUE) {
+            throw new IOException("Embedding store " + file + " exceeds 2 GB; compact it or shard by model");
+        }
+        mapping.force();
+        // Earlier views keep pointing at the old mapping of the same file pages, so they stay valid.
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, grown);
+    }
+
+    private byte[] modelNameBytes() {
+        byte[] padded = new byte[MODEL_NAME_BYTES];
+        byte[] raw = modelName.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(raw, 0, padded, 0, Math.min(raw.length, MODEL_NAME_BYTES));
+        return padded;
+    }
+
+    private byte[] readKey(int slot) {
+        byte[] key = new byte[KEY_BYTES];
+        mapping.get(offsetOf(slot), key);
+        return key;
+    }
+
+    private int offsetOf(int slot) {
+        return HEADER_BYTES + slot * recordBytes;
+    }
+
+
+    private static boolean isZero(byte[] key) {
+        for (byte b : key) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The full 32-byte key as four longs: value equality without keeping a byte[] per entry.
+    private record Key(long a, long b, long c, long d) {
+        static Key of(byte[] key) {
+            ByteBuffer buffer = ByteBuffer.wrap(key);
+            return new Key(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+}
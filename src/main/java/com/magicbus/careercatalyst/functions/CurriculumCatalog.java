@@ -0,0 +1,169 @@
+package com.magicbus.careercatalyst.functions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable curriculum catalog compiled into an Aho–Corasick automaton over track names and aliases.
+ * <p>
+ * {@link #match} scans the query once, so a lookup costs time linear in the query length regardless of how
+ * many tracks the catalog holds. Among the patterns found on word boundaries the longest wins, then the one
+ * appearing first, so "Cloud Support Associate" beats "Cloud Support" and the result no longer depends on
+ * map iteration order.
+ */
+public class CurriculumCatalog {
+
+    static final String FALLBACK_TRACK = "General";
+
+    private final List<Track> tracks;
+    private final Track fallback;
+
+    // Automaton: node -> (char -> node), failure links, and the longest pattern ending at each node (or -1).
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final int[] failure;
+    private final int[] outputPattern;
+    private final int[] dictionaryLink;
+    private final List<String> patterns = new ArrayList<>();
+    private final List<Track> patternTracks = new ArrayList<>();
+
+    public CurriculumCatalog(List<Track> tracks) {
+        this.tracks = List.copyOf(tracks);
+        Track general = null;
+        transitions.add(new HashMap<>());
+        List<Integer> terminal = new ArrayList<>();
+        terminal.add(-1);
+        for (Track track : this.tracks) {
+            if (FALLBACK_TRACK.equalsIgnoreCase(track.track())) {
+                general = track;
+                continue;
+            }
+            List<String> names = new ArrayList<>();
+            names.add(track.track());
+            if (track.aliases() != null) {
+                names.addAll(track.aliases());
+            }
+            for (String name : names) {
+                String pattern = normalize(name);
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                int node = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    Integer next = transitions.get(node).get(c);
+                    if (next == null) {
+                        next = transitions.size();
+                        transitions.add(new HashMap<>());
+                        terminal.add(-1);
+                        transitions.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                // The first track to claim a name keeps it.
+                if (terminal.get(node) < 0) {
+                    terminal.set(node, patterns.size());
+                    patterns.add(pattern);
+                    patternTracks.add(track);
+                }
+            }
+        }
+        this.fallback = general;
+
+        int size = transitions.size();
+        this.failure = new int[size];
+        this.outputPattern = new int[size];
+        this.dictionaryLink = new int[size];
+        for (int node = 0; node < size; node++) {
+            outputPattern[node] = terminal.get(node);
+            dictionaryLink[node] = -1;
+        }
+        // Breadth-first so every failure target is finished before its dependants.
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(0).values()) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallbackState = failure[node];
+                while (fallbackState > 0 && !transitions.get(fallbackState).containsKey(edge.getKey())) {
+                    fallbackState = failure[fallbackState];
+                }
+                Integer target = transitions.get(fallbackState).get(edge.getKey());
+                failure[child] = target != null && target != child ? target : 0;
+                dictionaryLink[child] = outputPattern[failure[child]] >= 0
+                        ? failure[child]
+                        : dictionaryLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static CurriculumCatalog empty() {
+        return new CurriculumCatalog(List.of());
+    }
+
+    public int trackCount() {
+        return tracks.size();
+    }
+
+    public int patternCount() {
+        return patterns.size();
+    }
+
+    public List<String> fallbackModules() {
+        return fallback == null ? List.of() : fallback.modules();
+    }
+
+    /** Best-matching track mentioned anywhere in {@code query}, e.g. "I want to be a Data Analyst". */
+    public Optional<Track> match(String query) {
+        String text = normalize(query);
+        int best = -1;
+        int bestStart = Integer.MAX_VALUE;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            while (state > 0 && !transitions.get(state).containsKey(c)) {
+                state = failure[state];
+            }
+            Integer next = transitions.get(state).get(c);
+            state = next == null ? 0 : next;
+            int candidate = outputPattern[state] >= 0 ? state : dictionaryLink[state];
+            while (candidate >= 0) {
+                int pattern = outputPattern[candidate];
+                int length = patterns.get(pattern).length();
+                int start = i - length + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    int bestLength = best < 0 ? -1 : patterns.get(best).length();
+                    if (length > bestLength || (length == bestLength && start < bestStart)) {
+                        best = pattern;
+                        bestStart = start;
+                    }
+                }
+                candidate = dictionaryLink[candidate];
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(patternTracks.get(best));
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** One catalog entry as stored in curriculum.json. */
+    public record Track(String track, List<String> aliases, List<String> modules) {}
+}
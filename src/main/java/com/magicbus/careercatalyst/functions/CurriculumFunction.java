@@ -1,63 +1,163 @@
 package com.magicbus.careercatalyst.functions;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.metrics.AdvisorMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 
 // FIX: We give this Configuration a specific name so it doesn't grab the "curriculumFunction" name
 @Configuration("curriculumConfig")
 public class CurriculumFunction {
 
     /**
-     * Mock Service to represent the mentor curriculum database.
-     * We make this a separate class or Bean so it can be injected.
+     * Mentor curriculum database, loaded from {@code advisor.curriculum.file} (or the bundled curriculum.json)
+     * and compiled into a {@link CurriculumCatalog}. When a file is configured it is checked every
+     * {@code advisor.curriculum.reload-seconds}; a changed file is parsed and compiled off to the side and then
+     * swapped in with a single volatile write, so lookups never block and never see a half-built catalog.
+     * A file that fails to parse is logged and the previous catalog stays in service.
      */
-    public static class CurriculumService {
-        // Mock database of modules for different career paths
-        private static final Map<String, List<String>> CURRICULUM_DB = Map.of(
-            "Data Analyst", List.of("Module 1: Introduction to Data", "Module 2: Excel for Data Analysis", "Module 3: SQL Fundamentals", "Module 4: Power BI Basics"),
-            "Frontend Developer", List.of("Module 1: HTML & CSS", "Module 2: JavaScript Basics", "Module 3: Introduction to React", "Module 4: Building a Portfolio Project"),
-            "Cloud Support Associate", List.of("Module 1: Introduction to Cloud Computing", "Module 2: AWS Core Services", "Module 3: Networking and Security Basics", "Module 4: Troubleshooting Common Issues"),
-            "Digital Marketer", List.of("Module 1: SEO Fundamentals", "Module 2: Social Media Marketing", "Module 3: Content Creation", "Module 4: Google Analytics"),
-            // Fallback for generic queries
-            "General", List.of("Module 1: Digital Literacy", "Module 2: Soft Skills", "Module 3: Professional Communication")
-        );
+    public static class CurriculumService implements AutoCloseable {
+        private static final Logger logger = LoggerFactory.getLogger(CurriculumService.class);
+
+        private final Path catalogFile;
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final ScheduledExecutorService reloader;
+        private final AtomicLong reloads = new AtomicLong();
+        private volatile CurriculumCatalog catalog;
+        private volatile long loadedModifiedMillis;
+
+        public CurriculumService(String catalogFile, long reloadSeconds) {
+            this.catalogFile = catalogFile == null || catalogFile.isBlank() ? null : Path.of(catalogFile);
+            CurriculumCatalog initial = load();
+            this.catalog = initial == null ? CurriculumCatalog.empty() : initial;
+            if (this.catalogFile != null && reloadSeconds > 0) {
+                this.reloader = Executors.newSingleThreadScheduledExecutor(TaskExecutors.daemonThreadFactory("curriculum-reload"));
+                reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+            } else {
+                this.reloader = null;
+            }
+        }
 
         public List<String> getModules(String careerPath) {
-            // Simple fuzzy matching to handle inputs like "I want to be a Data Analyst"
-            return CURRICULUM_DB.entrySet().stream()
-                .filter(entry -> careerPath.toLowerCase().contains(entry.getKey().toLowerCase()))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(CURRICULUM_DB.get("General"));
+            return findModules(careerPath).orElse(catalog.fallbackModules());
+        }
+
+        /** Modules for a specific path, without the "General" fallback. */
+        public Optional<List<String>> findModules(String careerPath) {
+            // Matches inputs like "I want to be a Data Analyst"; the longest track name or alias wins.
+            return catalog.match(careerPath).map(CurriculumCatalog.Track::modules);
+        }
+
+        public List<String> generalModules() {
+            return catalog.fallbackModules();
+        }
+
+        public Map<String, Object> stats() {
+            CurriculumCatalog current = catalog;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("tracks", current.trackCount());
+            stats.put("patterns", current.patternCount());
+            stats.put("reloads", reloads.get());
+            return stats;
+        }
+
+        void reloadIfChanged() {
+            try {
+                if (!Files.exists(catalogFile) || Files.getLastModifiedTime(catalogFile).toMillis() == loadedModifiedMillis) {
+                    return;
+                }
+                CurriculumCatalog reloaded = load();
+                if (reloaded != null) {
+                    catalog = reloaded;
+                    reloads.incrementAndGet();
+                    logger.info("Curriculum catalog reloaded: {} tracks", reloaded.trackCount());
+                }
+            } catch (Exception e) {
+                logger.warn("Curriculum reload check failed: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (reloader != null) {
+                reloader.shutdownNow();
+            }
+        }
+
+        private CurriculumCatalog load() {
+            long modified = 0;
+            try {
+                if (catalogFile != null) {
+                    modified = Files.getLastModifiedTime(catalogFile).toMillis();
+                }
+                try (InputStream in = catalogFile == null
+                        ? new ClassPathResource("curriculum.json").getInputStream()
+                        : Files.newInputStream(catalogFile)) {
+                    List<CurriculumCatalog.Track> tracks = mapper.readValue(in, new TypeReference<List<CurriculumCatalog.Track>>() {});
+                    return new CurriculumCatalog(tracks);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to load curriculum catalog{}: {}",
+                        catalogFile == null ? "" : " from " + catalogFile, e.getMessage());
+                return null;
+            } finally {
+                // Remember this version even when it is broken, so a bad file is not re-parsed on every tick.
+                loadedModifiedMillis = modified;
+            }
         }
     }
 
     // 1. Register the Service as a Bean so Spring can find it
     @Bean
-    public CurriculumService curriculumService() {
-        return new CurriculumService();
+    public CurriculumService curriculumService(@Value("${advisor.curriculum.file:}") String catalogFile,
+                                               @Value("${advisor.curriculum.reload-seconds:10}") long reloadSeconds) {
+        return new CurriculumService(catalogFile, reloadSeconds);
     }
 
     @Bean
-    public CurriculumTool curriculumTool(CurriculumService curriculumService) {
-        return new CurriculumTool(curriculumService);
+    public CurriculumTool curriculumTool(CurriculumService curriculumService, AdvisorMetrics metrics) {
+        return new CurriculumTool(curriculumService, metrics);
     }
 
     public static class CurriculumTool {
         private final CurriculumService curriculumService;
+        // Modules are prefetched into the prompt, so each call here is a model round trip we did not anticipate.
+        private final AtomicLong invocations = new AtomicLong();
+        private final AdvisorMetrics metrics;
 
-        public CurriculumTool(CurriculumService curriculumService) {
+        public CurriculumTool(CurriculumService curriculumService, AdvisorMetrics metrics) {
             this.curriculumService = curriculumService;
+            this.metrics = metrics;
         }
 
         @Tool(name = "curriculumFunction",
               description = "Get the list of curriculum modules for a specific IT career path from the mentor curriculum database.")
         public List<String> curriculumFunction(String careerPath) {
-            return curriculumService.getModules(careerPath);
+            invocations.incrementAndGet();
+            return metrics.timeTool("curriculumFunction", () -> curriculumService.getModules(careerPath));
+        }
+
+        public long invocations() {
+            return invocations.get();
         }
     }
 }
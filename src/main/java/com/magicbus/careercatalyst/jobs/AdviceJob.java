@@ -0,0 +1,113 @@
+package com.magicbus.careercatalyst.jobs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/** One asynchronous advice generation. State changes are published through volatile fields. */
+public class AdviceJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final String id;
+    private final String callbackUrl;
+    private final long submittedAtMillis;
+    private volatile Status status = Status.QUEUED;
+    private volatile long startedAtMillis;
+    private volatile long finishedAtMillis;
+    private volatile String result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    AdviceJob(String id, String callbackUrl) {
+        this.id = id;
+        this.callbackUrl = callbackUrl;
+        this.submittedAtMillis = System.currentTimeMillis();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    String callbackUrl() {
+        return callbackUrl;
+    }
+
+    Future<?> future() {
+        return future;
+    }
+
+    void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        startedAtMillis = System.currentTimeMillis();
+        status = Status.RUNNING;
+        return true;
+    }
+
+    synchronized void succeed(String result) {
+        if (isDone()) {
+            return;
+        }
+        this.result = result;
+        finish(Status.SUCCEEDED);
+    }
+
+    synchronized void fail(String error) {
+        if (isDone()) {
+            return;
+        }
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    synchronized boolean cancel() {
+        if (status != Status.QUEUED && status != Status.RUNNING) {
+            return false;
+        }
+        finish(Status.CANCELLED);
+        return true;
+    }
+
+    boolean isDone() {
+        Status current = status;
+        return current == Status.SUCCEEDED || current == Status.FAILED || current == Status.CANCELLED;
+    }
+
+    private void finish(Status finalStatus) {
+        if (!isDone()) {
+            finishedAtMillis = System.currentTimeMillis();
+            status = finalStatus;
+        }
+    }
+
+    /** JSON view returned by the status endpoint and posted to the callback URL. */
+    public Map<String, Object> view() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", id);
+        view.put("status", status);
+        view.put("submittedAt", submittedAtMillis);
+        if (startedAtMillis > 0) {
+            view.put("queuedMs", startedAtMillis - submittedAtMillis);
+        }
+        if (finishedAtMillis > 0 && startedAtMillis > 0) {
+            view.put("runMs", finishedAtMillis - startedAtMillis);
+        }
+        if (result != null) {
+            view.put("advice", result);
+        }
+        if (error != null) {
+            view.put("error", error);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,64 @@
+package com.magicbus.careercatalyst.jobs;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/advisor/jobs")
+public class AdviceJobController {
+
+    private final AdviceJobService jobService;
+
+    public AdviceJobController(AdviceJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /** Accepts an advice request for background generation; poll the Location URL or wait for the callback. */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody AdviceJobRequest request) {
+        AdviceJob job;
+        try {
+            job = jobService.submit(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "30")
+                    .body(Map.of("error", "Job queue is full"));
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/advisor/jobs/" + job.id()))
+                .body(job.view());
+    }
+
+    @GetMapping("/{jobId}")
+    public Map<String, Object> status(@PathVariable String jobId) {
+        AdviceJob job = jobService.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired job");
+        }
+        return job.view();
+    }
+
+    @DeleteMapping("/{jobId}")
+    public Map<String, Object> cancel(@PathVariable String jobId) {
+        AdviceJob job = jobService.get(jobId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired job");
+        }
+        jobService.cancel(jobId);
+        return job.view();
+    }
+}
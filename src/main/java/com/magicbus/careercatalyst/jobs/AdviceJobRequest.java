@@ -0,0 +1,16 @@
+package com.magicbus.careercatalyst.jobs;
+
+import com.magicbus.careercatalyst.StudentProfileRequest;
+
+/** Advice request plus an optional URL that receives the finished job as a JSON POST. */
+public class AdviceJobRequest extends StudentProfileRequest {
+    private String callbackUrl;
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+}
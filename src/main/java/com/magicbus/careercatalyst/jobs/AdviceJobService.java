@@ -0,0 +1,255 @@
+package com.magicbus.careercatalyst.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.CareerAdvisorService;
+import com.magicbus.careercatalyst.cache.BoundedTtlCache;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.ratelimit.RequestPriority;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Runs advice generation in the background so the HTTP request only lives as long as the submit.
+ * <p>
+ * A fixed pool of {@code advisor.jobs.workers} threads takes jobs from a queue of at most
+ * {@code advisor.jobs.queue-capacity}; submits beyond that are rejected rather than piling up.
+ * Queued and running jobs are held outside the result cache, so they can never be evicted; finished jobs move
+ * into it and stay pollable for {@code advisor.jobs.result-ttl-minutes} (at most {@code advisor.jobs.max-jobs}
+ * of them, least recently polled first out), and when a callback URL was
+ * given the final job view is POSTed there, with retries, from a separate sender thread. Callbacks are only
+ * accepted for hosts listed in {@code advisor.jobs.callback-allowed-hosts}, and never to loopback, link-local
+ * or wildcard addresses; the host is resolved again just before sending.
+ */
+@Service
+public class AdviceJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdviceJobService.class);
+
+    private final CareerAdvisorService careerAdvisorService;
+    private final ObjectMapper mapper;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService callbackSender;
+    private final HttpClient httpClient;
+    private final BoundedTtlCache<String, AdviceJob> jobs;
+    // Queued and running jobs; bounded by the pool and its queue, since submits beyond them are rejected.
+    private final Map<String, AdviceJob> activeJobs = new ConcurrentHashMap<>();
+    private final Set<String> callbackAllowedHosts;
+    private final int callbackAttempts;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callbacksDelivered = new AtomicLong();
+    private final AtomicLong callbacksFailed = new AtomicLong();
+
+    public AdviceJobService(CareerAdvisorService careerAdvisorService,
+                            ObjectMapper mapper,
+                            @Value("${advisor.jobs.workers:4}") int workerCount,
+                            @Value("${advisor.jobs.queue-capacity:100}") int queueCapacity,
+                            @Value("${advisor.jobs.result-ttl-minutes:60}") long resultTtlMinutes,
+                            @Value("${advisor.jobs.max-jobs:2000}") int maxJobs,
+                            @Value("${advisor.jobs.callback-allowed-hosts:}") String callbackAllowedHosts,
+                            @Value("${advisor.jobs.callback-attempts:3}") int callbackAttempts) {
+        this.careerAdvisorService = careerAdvisorService;
+        this.mapper = mapper;
+        int threads = Math.max(1, workerCount);
+        int capacity = Math.max(1, queueCapacity);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), TaskExecutors.threadFactory("advice-job"));
+        this.callbackSender = Executors.newSingleThreadExecutor(TaskExecutors.threadFactory("advice-job-callback"));
+        this.httpClient = TaskExecutors.httpClientBuilder("advice-job-http").connectTimeout(Duration.ofSeconds(5)).build();
+        this.jobs = new BoundedTtlCache<>(maxJobs, resultTtlMinutes * 60_000L);
+        this.callbackAllowedHosts = Arrays.stream(callbackAllowedHosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.callbackAttempts = Math.max(1, callbackAttempts);
+    }
+
+    /**
+     * Queues a job. Returns null when the queue is full.
+     * @throws IllegalArgumentException when the callback URL is not an allowed http(s) URL
+     */
+    public AdviceJob submit(AdviceJobRequest request) {
+        validateCallback(request.getCallbackUrl());
+        AdviceJob job = new AdviceJob(UUID.randomUUID().toString().replace("-", ""), request.getCallbackUrl());
+        activeJobs.put(job.id(), job);
+        try {
+            job.attach(workers.submit(() -> run(job, request)));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.id());
+            rejected.incrementAndGet();
+            return null;
+        }
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    public AdviceJob get(String id) {
+        if (id == null) {
+            return null;
+        }
+        AdviceJob active = activeJobs.get(id);
+        return active != null ? active : jobs.get(id);
+    }
+
+    /** Cancels a queued or running job; finished jobs are left as they are. */
+    public boolean cancel(String id) {
+        AdviceJob job = get(id);
+        if (job == null || !job.cancel()) {
+            return false;
+        }
+        if (job.future() != null) {
+            job.future().cancel(true);
+        }
+        // A queued job never reaches run(), so it is retired here; a running one is retired again by run().
+        retire(job);
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers.getMaximumPoolSize());
+        stats.put("running", workers.getActiveCount());
+        stats.put("queued", workers.getQueue().size());
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("activeJobs", activeJobs.size());
+        stats.put("retainedJobs", jobs.size());
+        stats.put("callbacksDelivered", callbacksDelivered.get());
+        stats.put("callbacksFailed", callbacksFailed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        callbackSender.shutdownNow();
+    }
+
+    private void run(AdviceJob job, AdviceJobRequest request) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            job.succeed(careerAdvisorService.getCareerAdvice(request, RequestPriority.BATCH));
+            succeeded.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Advice job {} failed: {}", job.id(), e.getMessage());
+            job.fail(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+            failed.incrementAndGet();
+        } finally {
+            retire(job);
+            if (job.callbackUrl() != null && !job.callbackUrl().isBlank()) {
+                callbackSender.execute(() -> deliverCallback(job));
+            }
+        }
+    }
+
+    // Into the result cache first, so a poll in between still finds the job; the TTL counts from completion.
+    private void retire(AdviceJob job) {
+        jobs.put(job.id(), job);
+        activeJobs.remove(job.id());
+    }
+
+    private void deliverCallback(AdviceJob job) {
+        try {
+            requirePublicAddress(URI.create(job.callbackUrl()).getHost());
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(job.callbackUrl()))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(job.view())))
+                    .build();
+            for (int attempt = 1; attempt <= callbackAttempts; attempt++) {
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 == 2) {
+                        callbacksDelivered.incrementAndGet();
+                        return;
+                    }
+                    logger.warn("Callback for job {} returned {}", job.id(), response.statusCode());
+                } catch (IOException e) {
+                    logger.warn("Callback for job {} failed: {}", job.id(), e.getMessage());
+                }
+                if (attempt < callbackAttempts) {
+                    Thread.sleep(1000L << (attempt - 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Callback for job {} could not be sent: {}", job.id(), e.getMessage());
+        }
+        callbacksFailed.incrementAndGet();
+    }
+
+    private void validateCallback(String callbackUrl) {
+        if (callbackUrl == null || callbackUrl.isBlank()) {
+            return;
+        }
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("callbackUrl is not a valid URL");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new IllegalArgumentException("callbackUrl must be an absolute http(s) URL");
+        }
+        if (callbackAllowedHosts.isEmpty()) {
+            throw new IllegalArgumentException("callbacks are disabled; poll the job instead");
+        }
+        if (!callbackAllowedHosts.contains(uri.getHost().toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("callbackUrl host is not allowed");
+        }
+        requirePublicAddress(uri.getHost());
+    }
+
+    // An allow-listed name must not resolve, or be re-pointed, to this machine or a metadata endpoint.
+    private static void requirePublicAddress(String host) {
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("callbackUrl host does not resolve");
+        }
+        for (InetAddress address : addresses) {
+            if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isAnyLocalAddress()
+                    || address.isMulticastAddress()) {
+                throw new IllegalArgumentException("callbackUrl host resolves to a disallowed address");
+            }
+        }
+    }
+}
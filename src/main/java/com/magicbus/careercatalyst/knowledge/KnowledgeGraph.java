@@ -0,0 +1,323 @@
+package com.magicbus.careercatalyst.knowledge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable typed graph of interest -> trait -> skill -> role edges built from knowledge_graph.json rules.
+ * <p>
+ * Nodes are deduplicated by type and normalized name, so rules sharing a trait or skill share a node.
+ * Successor lists are sorted by edge support (how many rules contain the edge), and interest/skill nodes are
+ * indexed by full name and by word for matching free-text student profiles.
+ */
+public class KnowledgeGraph {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "the", "for", "with", "basic", "basics", "good", "like", "likes", "love", "other", "others");
+
+    public enum NodeType {
+        INTEREST("Interest"), TRAIT("Trait"), SKILL("Skill"), ROLE("Role");
+
+        private final String label;
+
+        NodeType(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public record Node(int id, NodeType type, String name) {}
+
+    private final List<Node> nodes;
+    private final int[][] successors;
+    private final Map<Long, Integer> edgeSupport;
+    private final int edgeCount;
+    private final Map<NodeType, Map<String, int[]>> nodesByTerm;
+    private final List<Path> defaultPaths;
+
+    private KnowledgeGraph(List<Node> nodes,
+                           int[][] successors,
+                           Map<Long, Integer> edgeSupport,
+                           Map<NodeType, Map<String, int[]>> nodesByTerm,
+                           List<Path> defaultPaths) {
+        this.nodes = nodes;
+        this.successors = successors;
+        this.edgeSupport = edgeSupport;
+        this.edgeCount = edgeSupport.size();
+        this.nodesByTerm = nodesByTerm;
+        this.defaultPaths = defaultPaths;
+    }
+
+    public static KnowledgeGraph empty() {
+        return fromRules(List.of());
+    }
+
+    /** Builds the graph from rules of the form {@code {"interest", "trait", "skill", "role"}}. Blank steps are skipped. */
+    public static KnowledgeGraph fromRules(List<Map<String, String>> rules) {
+        List<Node> nodes = new ArrayList<>();
+        Map<String, Integer> nodeByKey = new HashMap<>();
+        Map<Integer, Set<Integer>> adjacency = new HashMap<>();
+        Map<Long, Integer> support = new HashMap<>();
+        List<int[]> chains = new ArrayList<>();
+        Set<String> seenChains = new LinkedHashSet<>();
+
+        for (Map<String, String> rule : rules) {
+            List<Integer> chain = new ArrayList<>(4);
+            for (NodeType type : NodeType.values()) {
+                String name = rule.get(type.name().toLowerCase(Locale.ROOT));
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                String key = type.name() + ':' + normalize(name);
+                Integer id = nodeByKey.get(key);
+                if (id == null) {
+                    id = nodes.size();
+                    nodes.add(new Node(id, type, name.trim()));
+                    nodeByKey.put(key, id);
+                }
+                chain.add(id);
+            }
+            if (chain.size() < 2) {
+                continue;
+            }
+            for (int i = 1; i < chain.size(); i++) {
+                adjacency.computeIfAbsent(chain.get(i - 1), n -> new LinkedHashSet<>()).add(chain.get(i));
+                support.merge(edgeKey(chain.get(i - 1), chain.get(i)), 1, Integer::sum);
+            }
+            if (seenChains.add(chain.toString())) {
+                chains.add(chain.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        int[][] successors = new int[nodes.size()][];
+        for (int node = 0; node < nodes.size(); node++) {
+            Set<Integer> next = adjacency.getOrDefault(node, Set.of());
+            int from = node;
+            successors[node] = next.stream()
+                    .sorted(Comparator.comparingInt((Integer to) -> support.get(edgeKey(from, to))).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        Map<NodeType, Map<String, int[]>> index = new HashMap<>();
+        for (NodeType type : List.of(NodeType.INTEREST, NodeType.SKILL)) {
+            Map<String, Set<Integer>> byTerm = new HashMap<>();
+            for (Node node : nodes) {
+                if (node.type() != type) {
+                    continue;
+                }
+                byTerm.computeIfAbsent(normalize(node.name()), t -> new LinkedHashSet<>()).add(node.id());
+                for (String word : words(node.name())) {
+                    byTerm.computeIfAbsent(word, t -> new LinkedHashSet<>()).add(node.id());
+                }
+            }
+            Map<String, int[]> packed = new HashMap<>(byTerm.size() * 2);
+            byTerm.forEach((term, ids) -> packed.put(term, ids.stream().mapToInt(Integer::intValue).toArray()));
+            index.put(type, packed);
+        }
+
+        List<Path> defaults = new ArrayList<>(chains.size());
+        for (int[] chain : chains) {
+            double score = 0;
+            for (int i = 1; i < chain.length; i++) {
+                score += support.get(edgeKey(chain[i - 1], chain[i]));
+            }
+            defaults.add(new Path(toNodes(nodes, chain), score));
+        }
+        defaults.sort(Comparator.comparingDouble(Path::score).reversed());
+
+        return new KnowledgeGraph(List.copyOf(nodes), successors, support, index, List.copyOf(defaults));
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Ranked paths reachable from the declared interests and skills, at most {@code maxPaths} of them.
+     * A full name match scores 1.0 and a shared word 0.5; a path also gains 0.5 for each skill on it the
+     * student already lists, and a small bonus for well-supported edges. Each seed is expanded with a beam of
+     * {@code maxPaths}, so the work stays bounded however dense the graph becomes. Seeds take turns filling
+     * the result so every declared interest is represented.
+     */
+    public List<Path> select(List<String> interests, List<String> skills, int maxPaths) {
+        if (maxPaths <= 0 || nodes.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Double> interestSeeds = match(NodeType.INTEREST, interests);
+        Map<Integer, Double> skillSeeds = match(NodeType.SKILL, skills);
+
+        List<List<Path>> perSeed = new ArrayList<>();
+        Set<Integer> reachedSkills = new HashSet<>();
+        for (Map.Entry<Integer, Double> seed : interestSeeds.entrySet()) {
+            List<Path> paths = expandSeed(seed.getKey(), seed.getValue(), skillSeeds, maxPaths);
+            paths.forEach(p -> p.nodes().forEach(n -> reachedSkills.add(n.id())));
+            perSeed.add(paths);
+        }
+        for (Map.Entry<Integer, Double> seed : skillSeeds.entrySet()) {
+            // Skills reached from an interest are already covered by a longer path.
+            if (!reachedSkills.contains(seed.getKey())) {
+                perSeed.add(expandSeed(seed.getKey(), 0.8 * seed.getValue(), Map.of(), maxPaths));
+            }
+        }
+        perSeed.removeIf(List::isEmpty);
+        perSeed.sort(Comparator.comparingDouble((List<Path> paths) -> paths.get(0).score()).reversed());
+
+        // Round-robin across seeds so one dense interest cannot crowd out the others.
+        Map<String, Path> selected = new LinkedHashMap<>();
+        for (int rank = 0; selected.size() < maxPaths; rank++) {
+            boolean any = false;
+            for (List<Path> paths : perSeed) {
+                if (rank < paths.size() && selected.size() < maxPaths) {
+                    selected.putIfAbsent(paths.get(rank).render(), paths.get(rank));
+                    any = true;
+                }
+            }
+            if (!any) {
+                break;
+            }
+        }
+        return List.copyOf(selected.values());
+    }
+
+    /** Best-supported rules, used when nothing in the profile matches the graph. */
+    public List<Path> defaultPaths(int maxPaths) {
+        return defaultPaths.subList(0, Math.min(Math.max(maxPaths, 0), defaultPaths.size()));
+    }
+
+    /** Beam search from one seed: keeps the best {@code maxPaths} partial paths per hop. */
+    private List<Path> expandSeed(int seed, double score, Map<Integer, Double> skillSeeds, int maxPaths) {
+        Comparator<Partial> byScore = Comparator.comparingDouble(Partial::score).reversed();
+        List<Partial> beam = List.of(new Partial(new int[]{seed}, score));
+        List<Partial> finished = new ArrayList<>();
+        while (!beam.isEmpty()) {
+            List<Partial> next = new ArrayList<>();
+            for (Partial partial : beam) {
+                int last = partial.path()[partial.path().length - 1];
+                int[] targets = successors[last];
+                if (targets.length == 0) {
+                    if (partial.path().length > 1) {
+                        finished.add(partial);
+                    }
+                    continue;
+                }
+                for (int i = 0; i < targets.length && i < maxPaths; i++) {
+                    int to = targets[i];
+                    if (contains(partial.path(), to)) {
+                        continue;
+                    }
+                    int[] extended = Arrays.copyOf(partial.path(), partial.path().length + 1);
+                    extended[partial.path().length] = to;
+                    double gained = 0.5 * skillSeeds.getOrDefault(to, 0.0)
+                            + 0.05 * Math.log1p(edgeSupport.get(edgeKey(last, to)));
+                    next.add(new Partial(extended, partial.score() + gained));
+                }
+            }
+            next.sort(byScore);
+            beam = next.size() > maxPaths ? next.subList(0, maxPaths) : next;
+        }
+        finished.sort(byScore);
+        List<Path> paths = new ArrayList<>(Math.min(finished.size(), maxPaths));
+        for (int i = 0; i < finished.size() && i < maxPaths; i++) {
+            paths.add(new Path(toNodes(nodes, finished.get(i).path()), finished.get(i).score()));
+        }
+        return paths;
+    }
+
+    private Map<Integer, Double> match(NodeType type, List<String> phrases) {
+        Map<String, int[]> index = nodesByTerm.getOrDefault(type, Map.of());
+        Map<Integer, Double> matched = new LinkedHashMap<>();
+        for (String phrase : phrases) {
+            String normalized = normalize(phrase);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            for (int id : index.getOrDefault(normalized, new int[0])) {
+                if (normalize(nodes.get(id).name()).equals(normalized)) {
+                    matched.merge(id, 1.0, Math::max);
+                }
+            }
+            for (String word : words(phrase)) {
+                for (int id : index.getOrDefault(word, new int[0])) {
+                    matched.merge(id, 0.5, Math::max);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static List<Node> toNodes(List<Node> nodes, int[] path) {
+        List<Node> resolved = new ArrayList<>(path.length);
+        for (int id : path) {
+            resolved.add(nodes.get(id));
+        }
+        return List.copyOf(resolved);
+    }
+
+    private static boolean contains(int[] path, int node) {
+        for (int id : path) {
+            if (id == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalize(value).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() >= 3 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private record Partial(int[] path, double score) {}
+
+    public record Path(List<Node> nodes, double score) {
+
+        /** Same line format the advisor prompt has always used, e.g. "Interest: Music -> Trait: ... -> Role: ...". */
+        public String render() {
+            StringBuilder line = new StringBuilder();
+            for (Node node : nodes) {
+                if (!line.isEmpty()) {
+                    line.append(" -> ");
+                }
+                line.append(node.type().label()).append(": ").append(node.name());
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.magicbus.careercatalyst.knowledge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the career knowledge graph once and selects the rules relevant to a student profile, so the prompt
+ * carries at most {@code advisor.knowledge-graph.max-paths} lines however large the graph grows.
+ * Reads {@code advisor.knowledge-graph.file} when set, otherwise the bundled knowledge_graph.json.
+ */
+@Component
+public class KnowledgeGraphService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnowledgeGraphService.class);
+    static final String NOT_AVAILABLE = "Knowledge graph rules not available.";
+
+    private final KnowledgeGraph graph;
+    private final int maxPaths;
+
+    private final AtomicLong selections = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong pathsInjected = new AtomicLong();
+
+    public KnowledgeGraphService(@Value("${advisor.knowledge-graph.file:}") String graphFile,
+                                 @Value("${advisor.knowledge-graph.max-paths:12}") int maxPaths) {
+        this.maxPaths = maxPaths;
+        this.graph = load(graphFile);
+        logger.info("Knowledge graph loaded: {} nodes, {} edges", graph.nodeCount(), graph.edgeCount());
+    }
+
+    /** Rule lines for the prompt; falls back to the best-supported rules when nothing in the profile matches. */
+    public String rulesFor(String interests, String skills) {
+        return select(interests, skills).rules();
+    }
+
+    /** Selected rule lines plus the roles they lead to, best first. */
+    public Selection select(String interests, String skills) {
+        if (graph.isEmpty()) {
+            return new Selection(NOT_AVAILABLE, List.of());
+        }
+        selections.incrementAndGet();
+        List<KnowledgeGraph.Path> paths = graph.select(split(interests), split(skills), maxPaths);
+        if (paths.isEmpty()) {
+            fallbacks.incrementAndGet();
+            paths = graph.defaultPaths(maxPaths);
+        }
+        pathsInjected.addAndGet(paths.size());
+        Set<String> roles = new LinkedHashSet<>();
+        for (KnowledgeGraph.Path path : paths) {
+            KnowledgeGraph.Node last = path.nodes().get(path.nodes().size() - 1);
+            if (last.type() == KnowledgeGraph.NodeType.ROLE) {
+                roles.add(last.name());
+            }
+        }
+        String rules = paths.stream().map(KnowledgeGraph.Path::render).collect(Collectors.joining("\n"));
+        return new Selection(rules, List.copyOf(roles));
+    }
+
+    public Map<String, Object> stats() {
+        long count = selections.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodes", graph.nodeCount());
+        stats.put("edges", graph.edgeCount());
+        stats.put("maxPaths", maxPaths);
+        stats.put("selections", count);
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("avgPathsInjected", count == 0 ? 0.0 : (double) pathsInjected.get() / count);
+        return stats;
+    }
+
+    private KnowledgeGraph load(String graphFile) {
+        try (InputStream in = open(graphFile)) {
+            if (in == null) {
+                logger.warn("knowledge_graph.json not found; prompts will carry no knowledge-graph rules.");
+                return KnowledgeGraph.empty();
+            }
+            List<Map<String, String>> rules = new ObjectMapper().readValue(in, List.class);
+            return KnowledgeGraph.fromRules(rules);
+        } catch (Exception e) {
+            logger.warn("Failed to load knowledge graph: {}", e.getMessage());
+            return KnowledgeGraph.empty();
+        }
+    }
+
+    private InputStream open(String graphFile) throws Exception {
+        if (graphFile != null && !graphFile.isBlank()) {
+            return Files.newInputStream(Path.of(graphFile));
+        }
+        ClassPathResource resource = new ClassPathResource("knowledge_graph.json");
+        return resource.exists() ? resource.getInputStream() : null;
+    }
+
+    public record Selection(String rules, List<String> roles) {}
+
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        if (value == null) {
+            return parts;
+        }
+        for (String part : value.split("[,;|\\n]")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,122 @@
+package com.magicbus.careercatalyst.metrics;
+
+import com.magicbus.careercatalyst.prompt.PromptTokenStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the advice pipeline, scraped from {@code /actuator/prometheus}.
+ * <ul>
+ *   <li>{@code advisor.stage} timer per stage: cache, context, retrieval, knowledge_graph, curriculum_prefetch,
+ *       prompt, quota_wait and model (the chat call including quota wait and any tool round trips)</li>
+ *   <li>{@code advisor.request} timer per mode and outcome (cache_hit, speculative_hit, generated, error,
+ *       cancelled)</li>
+ *   <li>{@code advisor.tool} timer per tool invocation</li>
+ *   <li>{@code advisor.tokens} counter per type (prompt, cached_prompt, completion), mode and language</li>
+ *   <li>{@code advisor.rag.fallback} counter per reason (empty_context, vector_budget, vector_failure,
+ *       vector_saturated)</li>
+ * </ul>
+ * Tag values come from small fixed sets so the series count stays bounded.
+ */
+@Component
+public class AdvisorMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public AdvisorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T timeStage(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    /** Ends a stage that was started with {@link #start()}, for work that completes asynchronously. */
+    public void endStage(Timer.Sample sample, String stage) {
+        sample.stop(stageTimer(stage));
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void endRequest(Timer.Sample sample, String mode, String outcome) {
+        Timer timer = timers.computeIfAbsent("request:" + mode + ":" + outcome, key -> Timer.builder("advisor.request")
+                .description("End-to-end advice generation")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+        sample.stop(timer);
+    }
+
+    public <T> T timeTool(String tool, Supplier<T> work) {
+        Timer timer = timers.computeIfAbsent("tool:" + tool, key -> Timer.builder("advisor.tool")
+                .description("Tool invocations made by the model")
+                .tag("tool", tool)
+                .publishPercentileHistogram()
+                .register(registry));
+        return timer.record(work);
+    }
+
+    public void recordTokens(String mode, String language, ChatResponse response) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage == null || usage.getPromptTokens() == null || usage.getPromptTokens() == 0) {
+            return;
+        }
+        String lang = languageTag(language);
+        tokens("prompt", mode, lang).increment(usage.getPromptTokens());
+        tokens("cached_prompt", mode, lang).increment(PromptTokenStats.cachedTokens(usage.getNativeUsage()));
+        tokens("completion", mode, lang).increment(usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens());
+    }
+
+    public void ragFallback(String reason) {
+        counters.computeIfAbsent("rag:" + reason, key -> Counter.builder("advisor.rag.fallback")
+                .description("Requests answered without vector-search context")
+                .tag("reason", reason)
+                .register(registry)).increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return timers.computeIfAbsent("stage:" + stage, key -> Timer.builder("advisor.stage")
+                .description("Time spent in one stage of advice generation")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter tokens(String type, String mode, String language) {
+        return counters.computeIfAbsent("tokens:" + type + ":" + mode + ":" + language, key -> Counter.builder("advisor.tokens")
+                .description("Azure OpenAI tokens reported in chat responses")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .tag("mode", mode)
+                .tag("language", language)
+                .register(registry));
+    }
+
+    private static String languageTag(String language) {
+        if (language == null) {
+            return "english";
+        }
+        String normalized = language.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("hindi")) {
+            return "hindi";
+        }
+        if (normalized.startsWith("marathi")) {
+            return "marathi";
+        }
+        return normalized.startsWith("english") || normalized.isEmpty() ? "english" : "other";
+    }
+}
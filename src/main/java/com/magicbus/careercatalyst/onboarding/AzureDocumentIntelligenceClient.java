@@ -2,6 +2,7 @@ package com.magicbus.careercatalyst.onboarding;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,7 +32,7 @@ public class AzureDocumentIntelligenceClient {
             @Value("${azure.docintelligence.key:}") String apiKey) {
         this.endpoint = endpoint;
         this.apiKey = apiKey;
-        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(20)).build();
+        this.httpClient = TaskExecutors.httpClientBuilder("docintel-http").connectTimeout(Duration.ofSeconds(20)).build();
     }
 
     public DocumentExtractionResult analyzeIdDocument(byte[] bytes, String modelId) {
@@ -226,7 +227,7 @@ public class AzureDocumentIntelligenceClient {
         return valueNode.isMissingNode() ? 0.0 : valueNode.asDouble(0.0);
     }
 
-    private String extractDobFromContent(String content) {
+    String extractDobFromContent(String content) {
         if (content == null || content.isBlank()) {
             return "";
         }
@@ -246,7 +247,7 @@ public class AzureDocumentIntelligenceClient {
         return "";
     }
 
-    private IncomeExtraction extractIncomeFromContent(String content) {
+    IncomeExtraction extractIncomeFromContent(String content) {
         if (content == null || content.isBlank()) {
             return null;
         }
@@ -267,5 +268,5 @@ public class AzureDocumentIntelligenceClient {
         return null;
     }
 
-    private record IncomeExtraction(String value, double confidence) {}
+    record IncomeExtraction(String value, double confidence) {}
 }
@@ -1,5 +1,6 @@
 package com.magicbus.careercatalyst.onboarding;
 
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -7,11 +8,15 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 
 @Component
 public class PowerAutomateNotifier {
 
     private final String webhookUrl;
+    private final HttpClient httpClient = TaskExecutors.httpClientBuilder("powerautomate-http")
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
 
     public PowerAutomateNotifier(@Value("${powerautomate.webhook.url:}") String webhookUrl) {
         this.webhookUrl = webhookUrl;
@@ -31,7 +36,7 @@ public class PowerAutomateNotifier {
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(body))
                     .build();
-            HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            httpClient.send(request, HttpResponse.BodyHandlers.ofString());
         } catch (Exception ignored) {
             // Keep onboarding flow resilient for demo.
         }
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
@@ -40,24 +41,31 @@ public class StudentProfileLookup {
             }
 
             try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
-                Iterable<CSVRecord> records = CSVFormat.DEFAULT
-                        .builder()
-                        .setHeader()
-                        .setSkipHeaderRecord(true)
-                        .setTrim(true)
-                        .build()
-                        .parse(reader);
-
-                for (CSVRecord record : records) {
-                    String studentId = record.get("student_id");
-                    String name = record.get("name");
-                    if (studentId != null && !studentId.isBlank()) {
-                        studentNames.put(studentId, name == null ? "" : name);
-                    }
-                }
+                studentNames.putAll(readProfiles(reader));
             }
         } catch (Exception e) {
             logger.warn("Failed to load students.csv: {}", e.getMessage());
         }
     }
+
+    /** student_id -> name for every row of a students.csv stream. */
+    static Map<String, String> readProfiles(Reader reader) throws IOException {
+        Map<String, String> names = new HashMap<>();
+        Iterable<CSVRecord> records = CSVFormat.DEFAULT
+                .builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setTrim(true)
+                .build()
+                .parse(reader);
+
+        for (CSVRecord record : records) {
+            String studentId = record.get("student_id");
+            String name = record.get("name");
+            if (studentId != null && !studentId.isBlank()) {
+                names.put(studentId, name == null ? "" : name);
+            }
+        }
+        return names;
+    }
 }
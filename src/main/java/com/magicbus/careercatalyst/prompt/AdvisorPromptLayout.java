@@ -0,0 +1,277 @@
+package com.magicbus.careercatalyst.prompt;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Advisor prompts, compiled once at startup.
+ * <p>
+ * Everything that is the same for every request in a mode (mentor style, mission and section instructions)
+ * goes into a fixed system message. The per-student parts (profile, success stories, the knowledge-graph
+ * rules selected for the profile, conversation, latest message) follow as the user message.
+ * Azure OpenAI only caches identical prefixes of 1024+ tokens. The single-call roadmap system message carries
+ * the context-reading rules as well as the section instructions, which puts it over that line, so every roadmap
+ * request shares a cacheable prefix. Discovery, plan and section prompts stay short and are not cached; the cached
+ * token counts in {@link PromptTokenStats} show what the provider actually cached.
+ */
+public class AdvisorPromptLayout {
+
+    static final String CANDIDATE_STYLE = """
+            You are a Magic Bus mentor copilot. Address the mentor directly and never address the student.
+            Be concise, practical, and supportive. Use short bullet points when helpful.
+            Your job: interpret the student context for the mentor, recommend the next mentor actions,
+            and provide a mentor-ready roadmap that can be shared with the student.
+            Include clear, actionable guidance the mentor can use in the next 1–2 interactions.
+            Avoid motivational filler; keep it focused and usable.
+            Always refer to the student in third person (e.g., "the student", "they/them", or the student's name).
+            """;
+
+    static final String DISCOVERY_MISSION = """
+            YOUR MISSION:
+            1) Summarize the candidate context for the mentor in 2-3 lines.
+            2) Provide 4-6 focused questions the mentor should ask next (goals, location, time, device/internet, learning style).
+            3) Offer 2-3 Magic Bus program directions/focus areas with a one-line rationale for each.
+            4) Provide a mentor-ready 4-step roadmap outline (bulleted) the mentor can share.
+            End with one short line addressed to the mentor in the selected language.
+            """;
+
+    // Rules for the blocks of REQUEST_TEMPLATE. Only the single-call roadmap uses them, and they are what
+    // lifts its system message past the 1024-token cache minimum.
+    static final String ROADMAP_CONTEXT_GUIDE = """
+            HOW TO READ THE STUDENT CONTEXT:
+            The user message carries the same blocks for every student, in the same order. Use them as follows.
+            - USER PROFILE: the only source for the student's name, education, skills, interests, comfort scores,
+              weekly time and device access. Fields marked "Not shared" are unknown: do not guess them; instead,
+              suggest that the mentor asks about them.
+            - Time per Week and Device Access set the pace of the Immediate Action Plan. Keep the total time in the
+              table within the stated weekly hours, and prefer mobile-friendly resources when the student only has
+              a phone.
+            - Comfort scores run from 1 (low) to 5 (high). With Math Comfort of 2 or below, start with applied and
+              visual material before any theory. With English Comfort of 2 or below, prefer resources that are
+              available in the language of the Language Mode.
+            - SUCCESS STORIES: real Magic Bus alumni. Cite them by the exact name and number shown. Never invent a
+              student, a placement or an outcome that is not written there. If the block is empty, say that no close
+              match was found instead of making one up.
+            - CAREER KNOWLEDGE GRAPH: relational rules that link interests and skills to roles. Prefer paths the rules
+              support for this student, and name the supporting rule in one short clause when it explains a choice.
+            - TRAINING MODULES: the mentor curriculum for the likely roles. Quote module names exactly as listed; do
+              not rename, merge or reorder them.
+            - RECENT CONVERSATION: may begin with a summary of older turns, followed by the latest messages. Do not
+              repeat advice the mentor has already received there; build on it.
+            - LATEST USER MESSAGE: the mentor's current request. When it asks for something narrower than a full
+              roadmap, keep the section structure but keep the sections it does not touch brief.
+            Formatting: use the section headings exactly as given below. Keep every section under about 120 words,
+            except the table and the flowchart. Keep Mermaid node labels free of parentheses, quotes and colons so
+            the chart renders.
+            """;
+
+    static final String ROADMAP_INTRO = """
+            YOUR MISSION:
+            Create a mentor-facing, high-impact, visual career roadmap. Address the mentor directly and never address the student.
+            Always refer to the student in third person.
+            Follow this structure strictly and keep it readable:
+
+            """;
+
+    /** The roadmap sections in output order; the sectioned mode generates each one with its own call. */
+    static final List<RoadmapSection> ROADMAP_SECTIONS = List.of(
+            new RoadmapSection("1. Recommended Paths 🎯", """
+                    Suggest 2 distinct IT career paths, prioritizing AI/ML or AI-adjacent roles if the candidate is interested.
+                    * Explain WHY in a mentor-facing tone (use the Language Mode from the USER PROFILE for the example line, but address the mentor).
+                    * Add a short, mentor-ready summary line the mentor can share with the student this week.
+                    * List the specific training modules for these paths from TRAINING MODULES. Only call the 'curriculumFunction' tool for a path that is not listed there.
+                    """),
+            new RoadmapSection("2. Success-Twin (Relatability Anchor) 🤝", """
+                    Pick one real student name from the SUCCESS STORIES and tell a 2-3 line mini-story.
+                    Use the real name from the data (do not anonymize).
+                    """),
+            new RoadmapSection("3. Skill Bridge (Micro-Skill Mapping) 🧠", """
+                    Identify 1-2 "hidden skills" based on the user's interests or hobbies and connect them to a career path.
+                    Use a simple bridge sentence like: "Because you enjoy X, you already have Y, which helps in Z."
+                    """),
+            new RoadmapSection("4. Social Proof (Citations) 🔍", """
+                    You MUST mention specific students from the SUCCESS STORIES provided.
+                    (e.g., "Just like **Student #12 (Rohan)** who also liked Gaming...")
+                    This builds trust.
+                    """),
+            new RoadmapSection("5. Visual Career Map 🗺️", """
+                    Generate a **Mermaid.js** flowchart syntax to visualize the journey.
+                    Replace "Education Level" with the student's education from the USER PROFILE.
+                    **IMPORTANT:** Wrap the code in a block like:
+                    ```mermaid
+                    flowchart TB
+                        A[Current - Education Level] --> B[Step 1 - Skill Up]
+                        B --> C[Step 2 - First Project]
+                        C --> D[Step 3 - Build Portfolio]
+                        D --> E[Step 4 - Apply for Jobs]
+                        E --> F[Goal - Tech Professional]
+                        style A fill:#e6f0f3,stroke:#1f7a5f,stroke-width:1px
+                        style F fill:#ffe2b3,stroke:#c26a00,stroke-width:2px
+                    ```
+                    """),
+            new RoadmapSection("6. Immediate Action Plan 🎒", """
+                    Create a Markdown Table with 3 columns:
+                    | Step | Free Resource (YouTube/Website) | Time |
+
+                    (Suggest real resources like 'CodeWithHarry', 'FreeCodeCamp', 'Khan Academy').
+                    """),
+            new RoadmapSection("7. Extra Resources 🔗", """
+                    Provide 2-3 links the mentor can share with the student (include full URLs).
+                    """));
+
+    static final String ROADMAP_CLOSING = """
+            End with a short, mentor-addressed line in the Language Mode from the USER PROFILE.
+            """;
+
+    static final String ROADMAP_MISSION = ROADMAP_INTRO
+            + ROADMAP_SECTIONS.stream().map(RoadmapSection::render).collect(Collectors.joining("\n"))
+            + "\n" + ROADMAP_CLOSING;
+
+    static final String PLAN_MISSION = """
+            YOUR MISSION:
+            Choose the 2 distinct IT career paths a mentor-facing roadmap for this student will recommend,
+            prioritizing AI/ML or AI-adjacent roles if the candidate is interested.
+            Base the choice on the USER PROFILE, SUCCESS STORIES and CAREER KNOWLEDGE GRAPH.
+            Reply with the two path names only, one per line, in English, without numbering or explanation.
+            """;
+
+    static final String SECTION_MISSION = """
+            YOUR MISSION:
+            Write one section of a mentor-facing career roadmap. The other sections are written separately and
+            placed around yours, so write only the body of the section below: no heading, no other sections.
+            The roadmap's two paths are already chosen (RECOMMENDED PATHS); build on them and never suggest others.
+
+            """;
+
+    static final String REQUEST_TEMPLATE = """
+            USER PROFILE:
+            - Name: {student_name}
+            - Education: {education}
+            - Skills: {skills}
+            - Interests: {interests}
+            - AI/Data Interest: {ai_interest}
+            - Device Access: {device_access}
+            - Time per Week: {time_per_week}
+            - Math Comfort (1-5): {math_comfort}
+            - Problem Solving Confidence (1-5): {problem_solving}
+            - English Comfort (1-5): {english_comfort}
+            - Language Mode: {language}
+
+            --- SUCCESS STORIES (Context from Database) ---
+            {rag_context}
+            -----------------------------------------------
+
+            --- CAREER KNOWLEDGE GRAPH (Relational Rules) ---
+            {kg_rules}
+            -----------------------------------------------
+
+            --- TRAINING MODULES (Mentor Curriculum Database) ---
+            {curriculum_modules}
+            -----------------------------------------------
+
+            --- RECENT CONVERSATION ---
+            {conversation_context}
+            ---------------------------
+
+            LATEST USER MESSAGE:
+            {user_message}
+            """;
+
+    static final String SECTION_REQUEST_TEMPLATE = REQUEST_TEMPLATE + """
+
+            --- RECOMMENDED PATHS (already chosen) ---
+            {recommended_paths}
+            ------------------------------------------
+            """;
+
+    private final SystemMessage discoverySystem;
+    private final SystemMessage roadmapSystem;
+    private final SystemMessage planSystem;
+    private final List<SystemMessage> sectionSystems;
+    private final PromptTemplate requestTemplate;
+    private final PromptTemplate sectionRequestTemplate;
+
+    public AdvisorPromptLayout() {
+        this.discoverySystem = new SystemMessage(CANDIDATE_STYLE + "\n" + DISCOVERY_MISSION);
+        this.roadmapSystem = new SystemMessage(CANDIDATE_STYLE + "\n" + ROADMAP_CONTEXT_GUIDE + "\n" + ROADMAP_MISSION);
+        this.planSystem = new SystemMessage(CANDIDATE_STYLE + "\n" + PLAN_MISSION);
+        List<SystemMessage> sections = new ArrayList<>();
+        for (int i = 0; i < ROADMAP_SECTIONS.size(); i++) {
+            // The closing line belongs to whichever section ends the stitched roadmap.
+            String closing = i == ROADMAP_SECTIONS.size() - 1 ? "\n" + ROADMAP_CLOSING : "";
+            sections.add(new SystemMessage(CANDIDATE_STYLE + "\n" + SECTION_MISSION + ROADMAP_SECTIONS.get(i).render() + closing));
+        }
+        this.sectionSystems = List.copyOf(sections);
+        this.requestTemplate = new PromptTemplate(REQUEST_TEMPLATE);
+        this.sectionRequestTemplate = new PromptTemplate(SECTION_REQUEST_TEMPLATE);
+    }
+
+    public Prompt create(boolean roadmapRequested, Map<String, Object> templateVars) {
+        Message request = requestTemplate.createMessage(templateVars);
+        return new Prompt(List.of(roadmapRequested ? roadmapSystem : discoverySystem, request));
+    }
+
+    /** Short call that fixes the two recommended paths before the sections are generated. */
+    public Prompt createRoadmapPlan(Map<String, Object> templateVars) {
+        return new Prompt(List.of(planSystem, requestTemplate.createMessage(templateVars)));
+    }
+
+    public int roadmapSectionCount() {
+        return sectionSystems.size();
+    }
+
+    /** {@code templateVars} must also carry {@code recommended_paths}, see {@link #recommendedPaths}. */
+    public Prompt createRoadmapSection(int index, Map<String, Object> templateVars) {
+        return new Prompt(List.of(sectionSystems.get(index), sectionRequestTemplate.createMessage(templateVars)));
+    }
+
+    /** Turns the planning reply into the RECOMMENDED PATHS block; tolerates bullets and numbering. */
+    public static String recommendedPaths(String planReply) {
+        List<String> paths = new ArrayList<>();
+        for (String line : (planReply == null ? "" : planReply).split("\\R")) {
+            String path = line.replaceFirst("^[\\s*#>-]*(\\d+[.)]\\s*)?", "").replace("**", "").strip();
+            if (!path.isEmpty() && paths.size() < 2) {
+                paths.add(path);
+            }
+        }
+        if (paths.isEmpty()) {
+            return "Not chosen yet: pick 2 distinct IT career paths that fit the USER PROFILE.";
+        }
+        List<String> numbered = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            numbered.add((i + 1) + ". " + paths.get(i));
+        }
+        return String.join("\n", numbered);
+    }
+
+    /** Joins section bodies under the same headings the single-call roadmap uses. */
+    public String stitchRoadmap(List<String> sectionBodies) {
+        StringBuilder roadmap = new StringBuilder();
+        for (int i = 0; i < sectionBodies.size(); i++) {
+            String body = sectionBodies.get(i) == null ? "" : sectionBodies.get(i).strip();
+            // Models sometimes repeat the heading anyway.
+            if (body.startsWith("#")) {
+                int newline = body.indexOf('\n');
+                body = newline < 0 ? "" : body.substring(newline + 1).strip();
+            }
+            if (roadmap.length() > 0) {
+                roadmap.append("\n\n");
+            }
+            roadmap.append("### ").append(ROADMAP_SECTIONS.get(i).heading()).append("\n").append(body);
+        }
+        return roadmap.toString();
+    }
+
+    record RoadmapSection(String heading, String instructions) {
+        String render() {
+            return "### " + heading + "\n" + instructions;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.magicbus.careercatalyst.prompt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the variable part of the advisor prompt under a per-mode token budget.
+ * <p>
+ * Every template variable is counted with the local tokenizer. Success stories are always deduplicated; when
+ * the total is still over {@code advisor.prompt.budget.<mode>-tokens}, the four bulky blocks (success stories,
+ * knowledge-graph rules, curriculum modules, conversation) share what the profile fields leave over: blocks
+ * below an equal share keep everything and hand the rest on. A block over its share loses its lowest-ranked
+ * entries first: later stories and rules, trailing curriculum lines, the oldest recent conversation lines (the
+ * compactor's summary of older turns is kept); what is left of a story is cut at a word boundary. The same input
+ * always compresses the same way, so the response cache and the provider's prompt cache still match. Compressed
+ * requests log their per-variable breakdown at info level, the others at debug.
+ */
+@Component
+public class PromptBudgeter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptBudgeter.class);
+
+    static final String RAG_SEPARATOR = "\n---\n";
+    // Written by ConversationCompactor between its summary of older turns and the verbatim recent ones.
+    static final String RECENT_MARKER = "\nRecent messages:\n";
+    private static final Pattern STUDENT_ID = Pattern.compile("Student\\s*#\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final List<String> COMPRESSIBLE = List.of("rag_context", "kg_rules", "curriculum_modules", "conversation_context");
+
+    private final boolean enabled;
+    private final int discoveryBudget;
+    private final int roadmapBudget;
+    private final int minBlockTokens;
+    private final TokenCountEstimator tokenEstimator = new JTokkitTokenCountEstimator();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong compressedRequests = new AtomicLong();
+    private final AtomicLong duplicateStories = new AtomicLong();
+    private final AtomicLong tokensIn = new AtomicLong();
+    private final AtomicLong tokensOut = new AtomicLong();
+    private final Map<String, AtomicLong> trimmedBlocks = new LinkedHashMap<>();
+
+    public PromptBudgeter(@Value("${advisor.prompt.budget.enabled:true}") boolean enabled,
+                          @Value("${advisor.prompt.budget.discovery-tokens:2500}") int discoveryBudget,
+                          @Value("${advisor.prompt.budget.roadmap-tokens:3500}") int roadmapBudget,
+                          @Value("${advisor.prompt.budget.min-block-tokens:60}") int minBlockTokens) {
+        this.enabled = enabled;
+        this.discoveryBudget = discoveryBudget;
+        this.roadmapBudget = roadmapBudget;
+        this.minBlockTokens = minBlockTokens;
+        for (String name : COMPRESSIBLE) {
+            trimmedBlocks.put(name, new AtomicLong());
+        }
+    }
+
+    /** Compresses {@code templateVars} in place. */
+    public void apply(Map<String, Object> templateVars, boolean roadmapRequested) {
+        if (!enabled) {
+            return;
+        }
+        requests.incrementAndGet();
+        String mode = roadmapRequested ? "roadmap" : "discovery";
+        int budget = roadmapRequested ? roadmapBudget : discoveryBudget;
+
+        Object rag = templateVars.get("rag_context");
+        if (rag != null) {
+            templateVars.put("rag_context", dedupeStories(rag.toString()));
+        }
+
+        Map<String, Integer> before = count(templateVars);
+        int total = before.values().stream().mapToInt(Integer::intValue).sum();
+        tokensIn.addAndGet(total);
+        if (total <= budget) {
+            tokensOut.addAndGet(total);
+            logger.debug("Prompt tokens [{}] {} total={}/{}", mode, before, total, budget);
+            return;
+        }
+
+        int fixed = total;
+        List<String> blocks = new ArrayList<>();
+        for (String name : COMPRESSIBLE) {
+            if (before.containsKey(name)) {
+                fixed -= before.get(name);
+                blocks.add(name);
+            }
+        }
+        // Water-filling: smallest blocks first, each capped at an equal share of what is still unallocated.
+        blocks.sort(Comparator.comparing(before::get));
+        int remaining = Math.max(budget - fixed, minBlockTokens * blocks.size());
+        List<String> trimmed = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            String name = blocks.get(i);
+            int share = Math.max(minBlockTokens, remaining / (blocks.size() - i));
+            int tokens = before.get(name);
+            if (tokens > share) {
+                templateVars.put(name, compress(name, templateVars.get(name).toString(), share));
+                trimmedBlocks.get(name).incrementAndGet();
+                trimmed.add(name);
+                remaining -= share;
+            } else {
+                remaining -= tokens;
+            }
+        }
+
+        Map<String, Integer> after = count(templateVars);
+        int compressed = after.values().stream().mapToInt(Integer::intValue).sum();
+        compressedRequests.incrementAndGet();
+        tokensOut.addAndGet(compressed);
+        logger.info("Prompt tokens [{}] {} total={}/{} (was {}, trimmed {})", mode, after, compressed, budget, total, trimmed);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("discoveryBudget", discoveryBudget);
+        stats.put("roadmapBudget", roadmapBudget);
+        stats.put("requests", requests.get());
+        stats.put("compressedRequests", compressedRequests.get());
+        stats.put("duplicateStories", duplicateStories.get());
+        stats.put("tokensIn", tokensIn.get());
+        stats.put("tokensOut", tokensOut.get());
+        Map<String, Object> trimmed = new LinkedHashMap<>();
+        trimmedBlocks.forEach((name, count) -> trimmed.put(name, count.get()));
+        stats.put("trimmedBlocks", trimmed);
+        return stats;
+    }
+
+    private Map<String, Integer> count(Map<String, Object> templateVars) {
+        Map<String, Integer> tokens = new TreeMap<>();
+        templateVars.forEach((name, value) -> tokens.put(name, value == null ? 0 : tokenEstimator.estimate(value.toString())));
+        return tokens;
+    }
+
+    // Hybrid retrieval can return the same student twice: once from the CSV and once from the vector index.
+    private String dedupeStories(String ragContext) {
+        if (ragContext.isBlank()) {
+            return ragContext;
+        }
+        Set<String> seen = new HashSet<>();
+        List<String> kept = new ArrayList<>();
+        for (String story : ragContext.split(Pattern.quote(RAG_SEPARATOR))) {
+            Matcher id = STUDENT_ID.matcher(story);
+            String key = id.find()
+                    ? "id:" + id.group(1)
+                    : "text:" + story.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (seen.add(key)) {
+                kept.add(story);
+            } else {
+                duplicateStories.incrementAndGet();
+            }
+        }
+        return String.join(RAG_SEPARATOR, kept);
+    }
+
+    private String compress(String name, String value, int budget) {
+        return switch (name) {
+            case "rag_context" -> compressStories(value, budget);
+            case "conversation_context" -> compressConversation(value, budget);
+            default -> keepFirstLines(value, budget);
+        };
+    }
+
+    // Best-ranked stories first; each keeps an even share, and stories that would get too little are dropped.
+    private String compressStories(String ragContext, int budget) {
+        List<String> stories = new ArrayList<>(Arrays.asList(ragContext.split(Pattern.quote(RAG_SEPARATOR))));
+        while (stories.size() > 1 && budget / stories.size() < minBlockTokens) {
+            stories.remove(stories.size() - 1);
+        }
+        int perStory = budget / stories.size();
+        List<String> kept = new ArrayList<>(stories.size());
+        for (String story : stories) {
+            kept.add(truncate(story.strip(), perStory));
+        }
+        return String.join(RAG_SEPARATOR, kept);
+    }
+
+    // Rules and curriculum lines are ordered best first.
+    private String keepFirstLines(String value, int budget) {
+        List<String> lines = new ArrayList<>(Arrays.asList(value.split("\n")));
+        int dropped = 0;
+        while (lines.size() > 1 && tokenEstimator.estimate(String.join("\n", lines)) > budget) {
+            lines.remove(lines.size() - 1);
+            dropped++;
+        }
+        String kept = String.join("\n", lines);
+        if (lines.size() == 1) {
+            kept = truncate(kept, budget);
+        }
+        return dropped == 0 ? kept : kept + "\n(" + dropped + " lower-ranked lines omitted)";
+    }
+
+    // The newest messages matter most. The compactor's summary stands in for everything older, so it stays and
+    // only the recent messages are trimmed; the summary itself is cut back only when one message still overflows.
+    private String compressConversation(String value, int budget) {
+        int marker = value.indexOf(RECENT_MARKER);
+        if (marker < 0) {
+            return keepLastLines(value, budget);
+        }
+        String summary = value.substring(0, marker + RECENT_MARKER.length());
+        String recent = value.substring(marker + RECENT_MARKER.length());
+        int summaryTokens = tokenEstimator.estimate(summary);
+        int recentBudget = Math.max(minBlockTokens, budget - summaryTokens);
+        String keptRecent = keepLastLines(recent, recentBudget);
+        int overflow = summaryTokens + tokenEstimator.estimate(keptRecent) - budget;
+        if (overflow > 0) {
+            summary = keepFirstLines(value.substring(0, marker), Math.max(minBlockTokens, summaryTokens - overflow))
+                    + RECENT_MARKER;
+        }
+        return summary + keptRecent;
+    }
+
+    private String keepLastLines(String value, int budget) {
+        List<String> lines = new ArrayList<>(Arrays.asList(value.split("\n")));
+        int dropped = 0;
+        while (lines.size() > 1 && tokenEstimator.estimate(String.join("\n", lines)) > budget) {
+            lines.remove(0);
+            dropped++;
+        }
+        String kept = String.join("\n", lines);
+        if (lines.size() == 1) {
+            kept = truncate(kept, budget);
+        }
+        return dropped == 0 ? kept : "(" + dropped + " earlier lines omitted)\n" + kept;
+    }
+
+    private String truncate(String text, int tokenBudget) {
+        String[] words = text.split("\\s+");
+        int keep = words.length;
+        String candidate = text;
+        while (keep > 1 && tokenEstimator.estimate(candidate) > tokenBudget) {
+            keep = keep * 3 / 4;
+            candidate = String.join(" ", Arrays.copyOf(words, keep)) + " …";
+        }
+        return candidate;
+    }
+}
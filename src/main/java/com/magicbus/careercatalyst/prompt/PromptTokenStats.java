@@ -0,0 +1,72 @@
+package com.magicbus.careercatalyst.prompt;
+
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals of prompt tokens served from the provider's prompt cache versus billed in full.
+ * Azure OpenAI reports cached tokens in {@code usage.prompt_tokens_details.cached_tokens}; Spring AI only
+ * exposes them on the SDK's native usage object, which is read reflectively so an SDK upgrade that moves
+ * the field degrades to "0 cached" instead of failing the call.
+ */
+@Component
+public class PromptTokenStats {
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong callsWithCacheHit = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong cachedPromptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+
+    public void record(ChatResponse response) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage == null || usage.getPromptTokens() == null || usage.getPromptTokens() == 0) {
+            return;
+        }
+        long cached = cachedTokens(usage.getNativeUsage());
+        calls.incrementAndGet();
+        if (cached > 0) {
+            callsWithCacheHit.incrementAndGet();
+        }
+        promptTokens.addAndGet(usage.getPromptTokens());
+        cachedPromptTokens.addAndGet(cached);
+        completionTokens.addAndGet(usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens());
+    }
+
+    public Map<String, Object> stats() {
+        long prompt = promptTokens.get();
+        long cached = cachedPromptTokens.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("callsWithCacheHit", callsWithCacheHit.get());
+        stats.put("promptTokens", prompt);
+        stats.put("cachedPromptTokens", cached);
+        stats.put("uncachedPromptTokens", prompt - cached);
+        stats.put("cachedRatio", prompt == 0 ? 0.0 : (double) cached / prompt);
+        stats.put("completionTokens", completionTokens.get());
+        return stats;
+    }
+
+    public static long cachedTokens(Object nativeUsage) {
+        if (nativeUsage == null) {
+            return 0;
+        }
+        try {
+            Method detailsGetter = nativeUsage.getClass().getMethod("getPromptTokensDetails");
+            Object details = detailsGetter.invoke(nativeUsage);
+            if (details == null) {
+                return 0;
+            }
+            Object cached = details.getClass().getMethod("getCachedTokens").invoke(details);
+            return cached instanceof Number number ? number.longValue() : 0;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side token buckets for each chat deployment's requests-per-minute and tokens-per-minute quota.
+ * <p>
+ * Azure meters every deployment separately, so each one gets its own pair of buckets: the small routing tier
+ * ({@code advisor.routing.small.deployment}) is sized by {@code advisor.rate-limit.small.*}, every other
+ * deployment by {@code advisor.rate-limit.requests-per-minute} and {@code tokens-per-minute}. Calls that name no
+ * deployment use the large tier's. Both buckets refill continuously at quota/60s. A call takes one request and its
+ * estimated tokens up front and settles the difference with the reported usage afterwards, so the token bucket
+ * tracks what Azure actually bills. Batch callers wait while any interactive caller is waiting on the same
+ * deployment and may not dip into the last {@code advisor.rate-limit.interactive-reserve} of either bucket, which
+ * keeps a chat reply fast while a cohort is running. The {@code x-ratelimit-remaining-*} and {@code retry-after}
+ * headers seen on each response pull the answering deployment's buckets down to the server's view and pause its
+ * lanes until the retry time, so the service settles just under quota instead of cycling through 429 storms.
+ */
+@Component
+public class AzureOpenAiRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final String defaultDeployment;
+    private final String smallDeployment;
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final int smallRequestsPerMinute;
+    private final int smallTokensPerMinute;
+    private final double interactiveReserve;
+    private final long interactiveMaxWaitNanos;
+    private final long batchMaxWaitNanos;
+    private final Map<String, Buckets> deployments = new ConcurrentHashMap<>();
+
+    private final Map<RequestPriority, AtomicLong> granted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, AtomicLong> rejected = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, AtomicLong> waitNanos = new EnumMap<>(RequestPriority.class);
+    private final AtomicLong estimatedTokens = new AtomicLong();
+    private final AtomicLong actualTokens = new AtomicLong();
+    private final AtomicLong headerAdjustments = new AtomicLong();
+    private final AtomicLong throttledResponses = new AtomicLong();
+
+    public AzureOpenAiRateLimiter(
+            @Value("${advisor.rate-limit.enabled:true}") boolean enabled,
+            @Value("${advisor.rate-limit.requests-per-minute:300}") int requestsPerMinute,
+            @Value("${advisor.rate-limit.tokens-per-minute:50000}") int tokensPerMinute,
+            @Value("${advisor.rate-limit.small.requests-per-minute:${advisor.rate-limit.requests-per-minute:300}}") int smallRequestsPerMinute,
+            @Value("${advisor.rate-limit.small.tokens-per-minute:${advisor.rate-limit.tokens-per-minute:50000}}") int smallTokensPerMinute,
+            @Value("${advisor.routing.small.deployment:}") String smallDeployment,
+            @Value("${advisor.routing.large.deployment:${spring.ai.azure.openai.chat.options.deployment-name:gpt-4o}}") String defaultDeployment,
+            @Value("${advisor.rate-limit.interactive-reserve:0.2}") double interactiveReserve,
+            @Value("${advisor.rate-limit.interactive-max-wait-ms:10000}") long interactiveMaxWaitMs,
+            @Value("${advisor.rate-limit.batch-max-wait-ms:120000}") long batchMaxWaitMs) {
+        this.enabled = enabled && requestsPerMinute > 0 && tokensPerMinute > 0;
+        this.requestsPerMinute = Math.max(1, requestsPerMinute);
+        this.tokensPerMinute = Math.max(1, tokensPerMinute);
+        this.smallRequestsPerMinute = smallRequestsPerMinute > 0 ? smallRequestsPerMinute : this.requestsPerMinute;
+        this.smallTokensPerMinute = smallTokensPerMinute > 0 ? smallTokensPerMinute : this.tokensPerMinute;
+        this.smallDeployment = smallDeployment == null || smallDeployment.isBlank() ? null : smallDeployment;
+        this.defaultDeployment = defaultDeployment;
+        this.interactiveReserve = Math.min(0.9, Math.max(0, interactiveReserve));
+        this.interactiveMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(interactiveMaxWaitMs);
+        this.batchMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(batchMaxWaitMs);
+        for (RequestPriority priority : RequestPriority.values()) {
+            granted.put(priority, new AtomicLong());
+            rejected.put(priority, new AtomicLong());
+            waitNanos.put(priority, new AtomicLong());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Blocks until the call fits in both of the deployment's buckets; a null deployment means the default one.
+     * Throws {@link RateLimitExceededException} (HTTP 429) when that takes longer than the lane's max wait.
+     */
+    public Permit acquire(String deployment, RequestPriority priority, int estimatedTokens) {
+        if (!enabled) {
+            return new Permit(priority, 0, deployment);
+        }
+        return buckets(deployment).acquire(priority, estimatedTokens);
+    }
+
+    /**
+     * Takes a permit only if one is available right now, for callers that must not block (the async pipeline);
+     * they fall back to {@link #acquire} on a thread that may wait. Returns null when the call would have to wait.
+     */
+    public Permit tryAcquire(String deployment, RequestPriority priority, int estimatedTokens) {
+        if (!enabled) {
+            return new Permit(priority, 0, deployment);
+        }
+        return buckets(deployment).tryAcquire(priority, estimatedTokens);
+    }
+
+    /** Settles a permit with the tokens the call actually used (prompt + completion, all tool round trips). */
+    public void reconcile(Permit permit, long usedTokens) {
+        if (!enabled || permit.estimatedTokens() == 0 || usedTokens <= 0) {
+            return;
+        }
+        actualTokens.addAndGet(usedTokens);
+        buckets(permit.deployment()).reconcile(permit, usedTokens);
+    }
+
+    /** Hands back a permit whose call was abandoned before it reached the model. */
+    public void release(Permit permit) {
+        if (!enabled || permit.estimatedTokens() == 0) {
+            return;
+        }
+        estimatedTokens.addAndGet(-permit.estimatedTokens());
+        buckets(permit.deployment()).release(permit);
+    }
+
+    /**
+     * Feeds back what Azure reported on a chat response from {@code deployment}. Null values were not present.
+     * The buckets only ever move down here; they grow back through the normal refill.
+     */
+    public void observe(String deployment, Long remainingRequests, Long remainingTokens, long retryAfterMs,
+                        boolean throttled) {
+        if (!enabled) {
+            return;
+        }
+        if (throttled) {
+            throttledResponses.incrementAndGet();
+        }
+        if (buckets(deployment).observe(remainingRequests, remainingTokens, retryAfterMs)) {
+            headerAdjustments.incrementAndGet();
+        }
+    }
+
+    /**
+     * Share of the default deployment's per-minute quota free right now, the lower of requests and tokens; 1 when
+     * limiting is off. Roadmaps run on the default (large) deployment.
+     */
+    public double headroom() {
+        return enabled ? buckets(null).headroom() : 1.0;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        Map<String, Object> byDeployment = new TreeMap<>();
+        deployments.forEach((name, buckets) -> byDeployment.put(name, buckets.stats()));
+        stats.put("deployments", byDeployment);
+        for (RequestPriority priority : RequestPriority.values()) {
+            long calls = granted.get(priority).get();
+            Map<String, Object> lane = new LinkedHashMap<>();
+            lane.put("granted", calls);
+            lane.put("rejected", rejected.get(priority).get());
+            lane.put("avgWaitMs", calls == 0 ? 0.0 : waitNanos.get(priority).get() / 1_000_000.0 / calls);
+            stats.put(priority.name().toLowerCase(), lane);
+        }
+        stats.put("estimatedTokens", estimatedTokens.get());
+        stats.put("actualTokens", actualTokens.get());
+        stats.put("headerAdjustments", headerAdjustments.get());
+        stats.put("throttledResponses", throttledResponses.get());
+        return stats;
+    }
+
+    private Buckets buckets(String deployment) {
+        String name = deployment == null || deployment.isBlank() ? defaultDeployment : deployment;
+        return deployments.computeIfAbsent(name, key -> key.equals(smallDeployment)
+                ? new Buckets(key, smallRequestsPerMinute, smallTokensPerMinute)
+                : new Buckets(key, requestsPerMinute, tokensPerMinute));
+    }
+
+    /** Request and token buckets of one deployment. */
+    private final class Buckets {
+
+        private final String deployment;
+        private final double requestCapacity;
+        private final double tokenCapacity;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition changed = lock.newCondition();
+        private double availableRequests;
+        private double availableTokens;
+        private long lastRefillNanos;
+        private long pausedUntilNanos;
+        private int interactiveWaiting;
+
+        Buckets(String deployment, int requestsPerMinute, int tokensPerMinute) {
+            this.deployment = deployment;
+            this.requestCapacity = requestsPerMinute;
+            this.tokenCapacity = tokensPerMinute;
+            this.availableRequests = requestCapacity;
+            this.availableTokens = tokenCapacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        Permit acquire(RequestPriority priority, int estimatedTokens) {
+            int cost = (int) Math.min(Math.max(1, estimatedTokens), tokenCapacity);
+            boolean interactive = priority == RequestPriority.INTERACTIVE;
+            long start = System.nanoTime();
+            long deadline = start + (interactive ? interactiveMaxWaitNanos : batchMaxWaitNanos);
+            lock.lock();
+            if (interactive) {
+                interactiveWaiting++;
+            }
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    refill(now);
+                    long wait = nanosUntilAvailable(priority, cost, now);
+                    if (wait == 0) {
+                        return grant(priority, cost, now - start);
+                    }
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        rejected.get(priority).incrementAndGet();
+                        throw new RateLimitExceededException("Azure OpenAI quota exhausted on " + deployment
+                                + "; no capacity for a " + priority.name().toLowerCase() + " call within the wait limit");
+                    }
+                    changed.awaitNanos(Math.min(wait, remaining));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.get(priority).incrementAndGet();
+                throw new RateLimitExceededException("Interrupted while waiting for Azure OpenAI quota");
+            } finally {
+                if (interactive) {
+                    interactiveWaiting--;
+                    // Batch callers parked behind this one re-check the buckets.
+                    changed.signalAll();
+                }
+                lock.unlock();
+            }
+        }
+
+        Permit tryAcquire(RequestPriority priority, int estimatedTokens) {
+            int cost = (int) Math.min(Math.max(1, estimatedTokens), tokenCapacity);
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                return nanosUntilAvailable(priority, cost, now) == 0 ? grant(priority, cost, 0) : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void reconcile(Permit permit, long usedTokens) {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                // May go negative: an underestimate is paid back before the next call is let through.
+                availableTokens = Math.min(tokenCapacity, availableTokens + permit.estimatedTokens() - usedTokens);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(Permit permit) {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                availableRequests = Math.min(requestCapacity, availableRequests + 1);
+                availableTokens = Math.min(tokenCapacity, availableTokens + permit.estimatedTokens());
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** True when the headers moved the buckets or paused the deployment. */
+        boolean observe(Long remainingRequests, Long remainingTokens, long retryAfterMs) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                boolean adjusted = false;
+                if (remainingRequests != null && remainingRequests < availableRequests) {
+                    availableRequests = remainingRequests;
+                    adjusted = true;
+                }
+                if (remainingTokens != null && remainingTokens < availableTokens) {
+                    availableTokens = remainingTokens;
+                    adjusted = true;
+                }
+                if (retryAfterMs > 0) {
+                    pausedUntilNanos = Math.max(pausedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(retryAfterMs));
+                    adjusted = true;
+                }
+                return adjusted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double headroom() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                if (now < pausedUntilNanos) {
+                    return 0.0;
+                }
+                return Math.max(0.0, Math.min(availableRequests / requestCapacity, availableTokens / tokenCapacity));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requestsPerMinute", (long) requestCapacity);
+            stats.put("tokensPerMinute", (long) tokenCapacity);
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                stats.put("availableRequests", (long) availableRequests);
+                stats.put("availableTokens", (long) availableTokens);
+                stats.put("interactiveWaiting", interactiveWaiting);
+            } finally {
+                lock.unlock();
+            }
+            return stats;
+        }
+
+        // Caller holds the lock.
+        private Permit grant(RequestPriority priority, int cost, long waitedNanos) {
+            availableRequests -= 1;
+            availableTokens -= cost;
+            granted.get(priority).incrementAndGet();
+            waitNanos.get(priority).addAndGet(waitedNanos);
+            estimatedTokens.addAndGet(cost);
+            return new Permit(priority, cost, deployment);
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed <= 0) {
+                return;
+            }
+            availableRequests = Math.min(requestCapacity, availableRequests + elapsed * requestCapacity / NANOS_PER_MINUTE);
+            availableTokens = Math.min(tokenCapacity, availableTokens + elapsed * tokenCapacity / NANOS_PER_MINUTE);
+            lastRefillNanos = now;
+        }
+
+        /** 0 when the call may go now, otherwise how long until the buckets should hold enough for it. */
+        private long nanosUntilAvailable(RequestPriority priority, int cost, long now) {
+            if (now < pausedUntilNanos) {
+                return pausedUntilNanos - now;
+            }
+            double requestReserve = 0;
+            double tokenReserve = 0;
+            if (priority == RequestPriority.BATCH) {
+                if (interactiveWaiting > 0) {
+                    // Woken by the interactive caller's signal once it has its permit.
+                    return NANOS_PER_MINUTE;
+                }
+                requestReserve = Math.min(requestCapacity * interactiveReserve, requestCapacity - 1);
+                tokenReserve = Math.min(tokenCapacity * interactiveReserve, tokenCapacity - cost);
+            }
+            double requestDeficit = 1 + requestReserve - availableRequests;
+            double tokenDeficit = cost + tokenReserve - availableTokens;
+            long wait = 0;
+            if (requestDeficit > 0) {
+                wait = Math.max(wait, (long) Math.ceil(requestDeficit * NANOS_PER_MINUTE / requestCapacity));
+            }
+            if (tokenDeficit > 0) {
+                wait = Math.max(wait, (long) Math.ceil(tokenDeficit * NANOS_PER_MINUTE / tokenCapacity));
+            }
+            return wait;
+        }
+    }
+
+    /**
+     * Capacity taken by one call from one deployment's buckets; hand it back to {@link #reconcile} once usage is
+     * known.
+     */
+    public record Permit(RequestPriority priority, int estimatedTokens, String deployment) {}
+}
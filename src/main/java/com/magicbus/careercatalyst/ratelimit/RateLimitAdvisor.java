@@ -0,0 +1,133 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import com.magicbus.careercatalyst.metrics.AdvisorMetrics;
+import org.springframework.ai.azure.openai.AzureOpenAiChatOptions;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes a permit from {@link AzureOpenAiRateLimiter} around every ChatClient call. The lane comes from the
+ * {@link #PRIORITY} advisor parameter and defaults to interactive; the buckets are those of the deployment set on
+ * the call's options, which the model router has already chosen by the time this advisor runs. Tool round trips happen inside the chat
+ * model, below this advisor, so one permit covers the whole exchange and is settled with its summed usage.
+ * A stream only waits for quota on a bounded-elastic thread, never on the thread that subscribed to it.
+ */
+@Component
+public class RateLimitAdvisor implements CallAdvisor, StreamAdvisor {
+
+    public static final String PRIORITY = "advisor.rate-limit.priority";
+
+    private final AzureOpenAiRateLimiter rateLimiter;
+    private final AdvisorMetrics metrics;
+    private final TokenCountEstimator tokenEstimator = new JTokkitTokenCountEstimator();
+    private final int expectedCompletionTokens;
+
+    public RateLimitAdvisor(AzureOpenAiRateLimiter rateLimiter,
+                            AdvisorMetrics metrics,
+                            @Value("${advisor.rate-limit.expected-completion-tokens:800}") int expectedCompletionTokens) {
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.expectedCompletionTokens = expectedCompletionTokens;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        AzureOpenAiRateLimiter.Permit permit = acquire(deployment(request), priority(request), estimate(request));
+        ChatClientResponse response = chain.nextCall(request);
+        rateLimiter.reconcile(permit, totalTokens(response.chatResponse()));
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Flux.defer(() -> {
+            String deployment = deployment(request);
+            RequestPriority priority = priority(request);
+            int estimate = estimate(request);
+            AzureOpenAiRateLimiter.Permit immediate = rateLimiter.tryAcquire(deployment, priority, estimate);
+            Mono<AzureOpenAiRateLimiter.Permit> permit = immediate != null
+                    ? Mono.just(immediate)
+                    : Mono.fromCallable(() -> acquire(deployment, priority, estimate)).subscribeOn(Schedulers.boundedElastic());
+            // Usage arrives on the last chunk when stream-usage is on; otherwise the estimate stands.
+            AtomicLong used = new AtomicLong();
+            // usingWhen settles the permit on complete, error and cancel alike. A permit granted after the
+            // subscriber already cancelled never reaches the closure; it is discarded and handed back instead.
+            return Flux.usingWhen(permit,
+                            granted -> chain.nextStream(request)
+                                    .doOnNext(response -> {
+                                        long tokens = totalTokens(response.chatResponse());
+                                        if (tokens > 0) {
+                                            used.set(tokens);
+                                        }
+                                    }),
+                            granted -> settle(granted, used),
+                            (granted, error) -> settle(granted, used),
+                            granted -> settle(granted, used))
+                    .doOnDiscard(AzureOpenAiRateLimiter.Permit.class, rateLimiter::release);
+        });
+    }
+
+    private Mono<Void> settle(AzureOpenAiRateLimiter.Permit granted, AtomicLong used) {
+        return Mono.fromRunnable(() -> rateLimiter.reconcile(granted, used.get()));
+    }
+
+    @Override
+    public String getName() {
+        return "RateLimitAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside the model router, which picks the deployment, and outside its latency timer, so a permit is only
+        // held while the model is actually being called and quota waits do not count against a deployment.
+        return Ordered.LOWEST_PRECEDENCE - 1000;
+    }
+
+    private AzureOpenAiRateLimiter.Permit acquire(String deployment, RequestPriority priority, int estimate) {
+        return metrics.timeStage("quota_wait", () -> rateLimiter.acquire(deployment, priority, estimate));
+    }
+
+    // Null leaves the limiter on its default deployment.
+    private static String deployment(ChatClientRequest request) {
+        return request.prompt() != null && request.prompt().getOptions() instanceof AzureOpenAiChatOptions options
+                ? options.getDeploymentName()
+                : null;
+    }
+
+    private int estimate(ChatClientRequest request) {
+        if (!rateLimiter.isEnabled()) {
+            return 0;
+        }
+        String contents = request.prompt() == null ? null : request.prompt().getContents();
+        return (contents == null ? 0 : tokenEstimator.estimate(contents)) + expectedCompletionTokens;
+    }
+
+    private static RequestPriority priority(ChatClientRequest request) {
+        Object priority = request.context() == null ? null : request.context().get(PRIORITY);
+        return priority instanceof RequestPriority lane ? lane : RequestPriority.INTERACTIVE;
+    }
+
+    private static long totalTokens(ChatResponse response) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage == null || usage.getTotalTokens() == null) {
+            return 0;
+        }
+        return usage.getTotalTokens();
+    }
+}
@@ -0,0 +1,15 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import org.springframework.ai.model.azure.openai.autoconfigure.AzureOpenAIClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfiguration {
+
+    // Picked up by the Azure OpenAI auto-configuration when it builds the shared OpenAIClient.
+    @Bean
+    public AzureOpenAIClientBuilderCustomizer rateLimitHeaderCustomizer(AzureOpenAiRateLimiter rateLimiter) {
+        return builder -> builder.addPolicy(new RateLimitHeaderPolicy(rateLimiter));
+    }
+}
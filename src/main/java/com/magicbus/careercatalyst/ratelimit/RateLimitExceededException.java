@@ -0,0 +1,16 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a model call could not get a permit within its lane's wait limit,
+ * {@code advisor.rate-limit.interactive-max-wait-ms} or {@code advisor.rate-limit.batch-max-wait-ms}.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,106 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import reactor.core.publisher.Mono;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Azure SDK pipeline policy that reports the quota headers of chat-completion responses to the
+ * {@link AzureOpenAiRateLimiter}. It runs per retry, so each 429 the SDK retries internally is seen too.
+ * Embedding calls share the client but have their own deployment quota, so only chat URLs are read. The headers
+ * describe only the deployment that answered, so they are reported against the deployment named in the URL path
+ * ({@code /openai/deployments/<name>/chat/completions}).
+ */
+class RateLimitHeaderPolicy implements HttpPipelinePolicy {
+
+    private static final HttpHeaderName REMAINING_REQUESTS = HttpHeaderName.fromString("x-ratelimit-remaining-requests");
+    private static final HttpHeaderName REMAINING_TOKENS = HttpHeaderName.fromString("x-ratelimit-remaining-tokens");
+    private static final HttpHeaderName RETRY_AFTER_MS = HttpHeaderName.fromString("retry-after-ms");
+    private static final HttpHeaderName RETRY_AFTER = HttpHeaderName.fromString("retry-after");
+    private static final String DEPLOYMENTS_SEGMENT = "/deployments/";
+
+    private final AzureOpenAiRateLimiter rateLimiter;
+
+    RateLimitHeaderPolicy(AzureOpenAiRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        return next.process().doOnNext(response -> observe(context, response));
+    }
+
+    @Override
+    public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+        HttpResponse response = next.processSync();
+        observe(context, response);
+        return response;
+    }
+
+    private void observe(HttpPipelineCallContext context, HttpResponse response) {
+        String path = chatCompletionPath(context);
+        if (response == null || path == null) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        boolean throttled = response.getStatusCode() == 429;
+        long retryAfterMs = parseLong(headers.getValue(RETRY_AFTER_MS), -1);
+        if (retryAfterMs < 0) {
+            long retryAfterSeconds = parseLong(headers.getValue(RETRY_AFTER), -1);
+            retryAfterMs = retryAfterSeconds < 0 ? 0 : retryAfterSeconds * 1000;
+        }
+        if (!throttled) {
+            // Some gateways send retry-after on successful responses; only a 429 should stop traffic.
+            retryAfterMs = 0;
+        }
+        rateLimiter.observe(deployment(path),
+                parseNullableLong(headers.getValue(REMAINING_REQUESTS)),
+                parseNullableLong(headers.getValue(REMAINING_TOKENS)),
+                retryAfterMs,
+                throttled);
+    }
+
+    // Null unless the request is a chat completion.
+    private static String chatCompletionPath(HttpPipelineCallContext context) {
+        if (context.getHttpRequest() == null || context.getHttpRequest().getUrl() == null) {
+            return null;
+        }
+        String path = context.getHttpRequest().getUrl().getPath();
+        return path != null && path.endsWith("/chat/completions") ? path : null;
+    }
+
+    // Null (the limiter's default deployment) for URLs without a deployment segment, such as the v1 API.
+    static String deployment(String path) {
+        int start = path.indexOf(DEPLOYMENTS_SEGMENT);
+        if (start < 0) {
+            return null;
+        }
+        start += DEPLOYMENTS_SEGMENT.length();
+        int end = path.indexOf('/', start);
+        return end > start ? URLDecoder.decode(path.substring(start, end), StandardCharsets.UTF_8) : null;
+    }
+
+    private static Long parseNullableLong(String value) {
+        long parsed = parseLong(value, -1);
+        return parsed < 0 ? null : parsed;
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return (long) Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+/** Lane a model call waits in when the Azure OpenAI quota is tight. */
+public enum RequestPriority {
+    /** A student or mentor is waiting on the reply (advice, stream, sessions). */
+    INTERACTIVE,
+    /** Cohort batches and background jobs; yields to interactive callers and leaves them a reserve. */
+    BATCH
+}
@@ -0,0 +1,145 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory inverted index with Okapi BM25 scoring.
+ * Terms are both whole comma-separated phrases ("sql (basics)") and single words, so exact
+ * vocabulary matches from students.csv outrank partial word overlap. Phrases only line up when both sides are
+ * plain comma lists, so documents are indexed from their raw skills and interests rather than their display text.
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final List<String> docIds;
+    private final List<String> docTexts;
+    private final Map<String, Posting> postings;
+    private final int[] docLengths;
+    private final float averageLength;
+
+    public Bm25Index(List<String> ids, List<String> texts) {
+        this(ids, texts, texts);
+    }
+
+    /** Indexes {@code indexTexts} but returns the matching {@code displayTexts} entry in each {@link Hit}. */
+    public Bm25Index(List<String> ids, List<String> indexTexts, List<String> displayTexts) {
+        this.docIds = List.copyOf(ids);
+        this.docTexts = List.copyOf(displayTexts);
+        this.docLengths = new int[indexTexts.size()];
+
+        Map<String, Map<Integer, Integer>> termFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < indexTexts.size(); doc++) {
+            List<String> terms = tokenize(indexTexts.get(doc));
+            docLengths[doc] = terms.size();
+            totalLength += terms.size();
+            for (String term : terms) {
+                termFrequencies.computeIfAbsent(term, t -> new HashMap<>()).merge(doc, 1, Integer::sum);
+            }
+        }
+        this.averageLength = indexTexts.isEmpty() ? 0f : (float) totalLength / indexTexts.size();
+
+        Map<String, Posting> built = new HashMap<>(termFrequencies.size() * 2);
+        for (Map.Entry<String, Map<Integer, Integer>> entry : termFrequencies.entrySet()) {
+            Map<Integer, Integer> byDoc = entry.getValue();
+            int[] docs = new int[byDoc.size()];
+            int[] freqs = new int[byDoc.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> df : byDoc.entrySet()) {
+                docs[i] = df.getKey();
+                freqs[i] = df.getValue();
+                i++;
+            }
+            float idf = (float) Math.log(1 + (indexTexts.size() - docs.length + 0.5) / (docs.length + 0.5));
+            built.put(entry.getKey(), new Posting(docs, freqs, idf));
+        }
+        this.postings = built;
+    }
+
+    public int size() {
+        return docIds.size();
+    }
+
+    /** Returns up to k documents with a positive score, best first. */
+    public List<Hit> search(String query, int k) {
+        if (docIds.isEmpty() || query == null || query.isBlank() || k <= 0) {
+            return List.of();
+        }
+        float[] scores = new float[docIds.size()];
+        // Repeated query terms are counted once; the query is a short bag of skills and interests.
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.docs.length; i++) {
+                int doc = posting.docs[i];
+                float tf = posting.freqs[i];
+                float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                scores[doc] += posting.idf * (tf * (K1 + 1)) / (tf + norm);
+            }
+        }
+        return topK(scores, k);
+    }
+
+    private List<Hit> topK(float[] scores, int k) {
+        // Small fixed-size insertion buffer: k is single digits, so this beats a heap.
+        int[] best = new int[k];
+        Arrays.fill(best, -1);
+        int filled = 0;
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] <= 0f) {
+                continue;
+            }
+            if (filled < k) {
+                filled++;
+            } else if (scores[doc] <= scores[best[k - 1]]) {
+                continue;
+            }
+            int pos = filled - 1;
+            while (pos > 0 && scores[best[pos - 1]] < scores[doc]) {
+                best[pos] = best[pos - 1];
+                pos--;
+            }
+            best[pos] = doc;
+        }
+        List<Hit> hits = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            hits.add(new Hit(docIds.get(best[i]), docTexts.get(best[i]), scores[best[i]]));
+        }
+        return hits;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String phrase : lower.split("[,|;\\n]")) {
+            String trimmed = phrase.trim();
+            if (trimmed.indexOf(' ') > 0) {
+                terms.add(trimmed);
+            }
+        }
+        for (String word : lower.split("[^\\p{L}\\p{N}+#/]+")) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "or", "the", "of", "in", "to", "for", "student", "skills", "interests", "education");
+
+    public record Hit(String id, String text, float score) {}
+
+    private record Posting(int[] docs, int[] freqs, float idf) {}
+}
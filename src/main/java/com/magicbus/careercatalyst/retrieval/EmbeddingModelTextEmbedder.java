@@ -0,0 +1,40 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import com.magicbus.careercatalyst.embedding.CachedEmbeddingService;
+
+/**
+ * Adapts the configured Spring AI embedding model (Azure OpenAI by default) to the local index.
+ * Vectors come from the persistent embedding store when the text was embedded before; otherwise
+ * each call is a network round trip. The dimension comes from {@code advisor.embedding-store.dimensions}
+ * rather than a probe call, so startup does not depend on the embedding endpoint being reachable.
+ */
+public class EmbeddingModelTextEmbedder implements TextEmbedder {
+
+    private final CachedEmbeddingService embeddingService;
+    private final int dimensions;
+
+    public EmbeddingModelTextEmbedder(CachedEmbeddingService embeddingService, int dimensions) {
+        this.embeddingService = embeddingService;
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public String name() {
+        return "model-" + embeddingService.deploymentName();
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = embeddingService.embed(text);
+        if (vector != null && vector.length != dimensions) {
+            throw new IllegalStateException("Embedding has " + vector.length + " dimensions but "
+                    + dimensions + " are configured; set advisor.embedding-store.dimensions");
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,70 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Deterministic feature-hashing embedder with no network dependency.
+ * Skills and interests come from a small fixed vocabulary, so hashed phrase and word features
+ * separate profiles well enough for success-story lookup and keep query embedding in-process.
+ */
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private final int dimensions;
+
+    public HashingTextEmbedder(int dimensions) {
+        this.dimensions = Math.max(16, dimensions);
+    }
+
+    @Override
+    public String name() {
+        return "hashing-" + dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isBlank()) {
+            return vector;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        // Whole phrases ("sql (basics)") weigh more than the individual words they share with others.
+        for (String phrase : lower.split("[,|;\\n]")) {
+            String trimmed = phrase.trim();
+            if (!trimmed.isEmpty()) {
+                add(vector, "p:" + trimmed, 2.0f);
+            }
+        }
+        for (String word : lower.split("[^\\p{L}\\p{N}+#/]+")) {
+            if (word.length() > 1) {
+                add(vector, "w:" + word, 1.0f);
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = murmurMix(feature.getBytes(StandardCharsets.UTF_8));
+        int index = Math.floorMod(hash, dimensions);
+        // The sign bit spreads collisions so they cancel out rather than accumulate.
+        vector[index] += (hash & 0x80000000) == 0 ? weight : -weight;
+    }
+
+    private static int murmurMix(byte[] bytes) {
+        int h = 0x9747b28c;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x5bd1e995;
+            h ^= h >>> 15;
+        }
+        h ^= h >>> 13;
+        h *= 0x5bd1e995;
+        h ^= h >>> 15;
+        return h;
+    }
+}
@@ -0,0 +1,380 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical Navigable Small World graph (Malkov &amp; Yashunin) for approximate nearest-neighbour
+ * search by cosine distance. Vectors are normalized on insert so distance is {@code 1 - dot}.
+ * <p>
+ * Inserts take the write lock and searches share the read lock, so the index can grow while serving.
+ */
+public class HnswIndex {
+
+    private static final int FILE_MAGIC = 0x484E5357; // "HNSW"
+    private static final int FILE_VERSION = 1;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final String embedderName;
+    private final SplittableRandom random;
+
+    private final List<float[]> vectors = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<int[][]> links = new ArrayList<>();
+    private final Map<String, Integer> nodeById = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HnswIndex(int dimensions, int m, int efConstruction, String embedderName) {
+        this.dimensions = dimensions;
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(this.m, efConstruction);
+        this.levelMultiplier = 1.0 / Math.log(this.m);
+        this.embedderName = embedderName;
+        this.random = new SplittableRandom(42);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String embedderName() {
+        return embedderName;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /** Adds a vector under the given id. Re-adding an existing id is ignored. */
+    public void add(String id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (nodeById.containsKey(id)) {
+                return;
+            }
+            int level = (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+            int node = ids.size();
+            ids.add(id);
+            vectors.add(normalized);
+            int[][] nodeLinks = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                nodeLinks[l] = new int[0];
+            }
+            links.add(nodeLinks);
+            nodeById.put(id, node);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(normalized, current, efConstruction, l);
+                int[] neighbours = selectNeighbours(candidates, l == 0 ? maxM0 : m);
+                links.get(node)[l] = neighbours;
+                for (int neighbour : neighbours) {
+                    connect(neighbour, node, l);
+                }
+                current = candidates.get(0).node();
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns up to k nearest ids, closest first. */
+    public List<SearchResult> search(float[] query, int k, int ef) {
+        if (query.length != dimensions) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            List<Candidate> candidates = searchLayer(normalized, current, Math.max(ef, k), 0);
+            List<SearchResult> results = new ArrayList<>(Math.min(k, candidates.size()));
+            for (int i = 0; i < candidates.size() && i < k; i++) {
+                Candidate c = candidates.get(i);
+                results.add(new SearchResult(ids.get(c.node()), c.distance()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, vectors.get(current));
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : links.get(current)[level]) {
+                float d = distance(query, vectors.get(neighbour));
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Best-first search on one layer; returns up to ef candidates sorted by ascending distance. */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(ids.size());
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, vectors.get(start)));
+        visited.set(start);
+        frontier.add(first);
+        best.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (closest.distance() > best.peek().distance() && best.size() >= ef) {
+                break;
+            }
+            int[][] nodeLinks = links.get(closest.node());
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            for (int neighbour : nodeLinks[level]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, vectors.get(neighbour));
+                if (best.size() < ef || d < best.peek().distance()) {
+                    Candidate c = new Candidate(neighbour, d);
+                    frontier.add(c);
+                    best.add(c);
+                    if (best.size() > ef) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(Candidate::distance));
+        return sorted;
+    }
+
+    /**
+     * Neighbour selection heuristic: keep a candidate only if it is closer to the new node than to any
+     * neighbour already kept, then top up with the closest rejects. Keeps clusters of identical profiles
+     * from monopolising all the links.
+     */
+    private int[] selectNeighbours(List<Candidate> candidates, int limit) {
+        List<Candidate> kept = new ArrayList<>(limit);
+        List<Candidate> rejected = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (kept.size() >= limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate k : kept) {
+                if (distance(vectors.get(candidate.node()), vectors.get(k.node())) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                kept.add(candidate);
+            } else {
+                rejected.add(candidate);
+            }
+        }
+        for (int i = 0; i < rejected.size() && kept.size() < limit; i++) {
+            kept.add(rejected.get(i));
+        }
+        int[] result = new int[kept.size()];
+        for (int i = 0; i < kept.size(); i++) {
+            result[i] = kept.get(i).node();
+        }
+        return result;
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] existing = links.get(from)[level];
+        int limit = level == 0 ? maxM0 : m;
+        int[] grown = new int[existing.length + 1];
+        System.arraycopy(existing, 0, grown, 0, existing.length);
+        grown[existing.length] = to;
+        if (grown.length <= limit) {
+            links.get(from)[level] = grown;
+            return;
+        }
+        float[] base = vectors.get(from);
+        List<Candidate> candidates = new ArrayList<>(grown.length);
+        for (int node : grown) {
+            candidates.add(new Candidate(node, distance(base, vectors.get(node))));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        links.get(from)[level] = selectNeighbours(candidates, limit);
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1f - dot;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] out = new float[vector.length];
+        if (norm == 0) {
+            return out;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = vector[i] * inv;
+        }
+        return out;
+    }
+
+    /** Writes the graph atomically (temp file + move) so a crash never leaves a truncated index. */
+    public void save(Path file) throws IOException {
+        lock.readLock().lock();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(embedderName);
+                out.writeInt(dimensions);
+                out.writeInt(m);
+                out.writeInt(efConstruction);
+                out.writeInt(ids.size());
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (int node = 0; node < ids.size(); node++) {
+                    out.writeUTF(ids.get(node));
+                    for (float v : vectors.get(node)) {
+                        out.writeFloat(v);
+                    }
+                    int[][] nodeLinks = links.get(node);
+                    out.writeInt(nodeLinks.length);
+                    for (int[] layer : nodeLinks) {
+                        out.writeInt(layer.length);
+                        for (int neighbour : layer) {
+                            out.writeInt(neighbour);
+                        }
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("Not an HNSW index file: " + file);
+            }
+            String embedderName = in.readUTF();
+            int dimensions = in.readInt();
+            int m = in.readInt();
+            int efConstruction = in.readInt();
+            HnswIndex index = new HnswIndex(dimensions, m, efConstruction, embedderName);
+            int count = in.readInt();
+            index.entryPoint = in.readInt();
+            index.maxLevel = in.readInt();
+            for (int node = 0; node < count; node++) {
+                String id = in.readUTF();
+                float[] vector = new float[dimensions];
+                for (int i = 0; i < dimensions; i++) {
+                    vector[i] = in.readFloat();
+                }
+                int levels = in.readInt();
+                int[][] nodeLinks = new int[levels][];
+                for (int l = 0; l < levels; l++) {
+                    int[] layer = new int[in.readInt()];
+                    for (int i = 0; i < layer.length; i++) {
+                        layer[i] = in.readInt();
+                    }
+                    nodeLinks[l] = layer;
+                }
+                index.ids.add(id);
+                index.vectors.add(vector);
+                index.links.add(nodeLinks);
+                index.nodeById.put(id, node);
+            }
+            return index;
+        }
+    }
+
+    public record SearchResult(String id, float distance) {}
+
+    private record Candidate(int node, float distance) {}
+}
@@ -0,0 +1,219 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.metrics.AdvisorMetrics;
+import com.magicbus.careercatalyst.retrieval.StudentCorpus.StudentRecord;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BM25 over students.csv alongside the configured vector search and merges both rankings with
+ * reciprocal-rank fusion. The lexical leg is in-process; the vector leg is dropped when it misses
+ * {@code advisor.retrieval.hybrid.vector-budget-ms}, or skipped outright when {@code vector-threads} are busy and
+ * {@code vector-queue-capacity} legs are already waiting, so a slow endpoint cannot pile up abandoned work.
+ */
+@Component
+public class HybridRetriever {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridRetriever.class);
+    private static final Pattern STUDENT_ID = Pattern.compile("Student\\s*#\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    private final StudentVectorSearch vectorSearch;
+    // Rebuilt and swapped in when the corpus file is reloaded.
+    private volatile Bm25Index lexicalIndex;
+    private final boolean enabled;
+    private final long vectorBudgetMillis;
+    private final int rrfK;
+    private final ThreadPoolExecutor vectorExecutor;
+    private final AdvisorMetrics metrics;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong vectorBudgetExceeded = new AtomicLong();
+    private final AtomicLong vectorFailures = new AtomicLong();
+    private final AtomicLong vectorSaturated = new AtomicLong();
+
+    public HybridRetriever(StudentCorpus corpus,
+                           StudentVectorSearch vectorSearch,
+                           AdvisorMetrics metrics,
+                           @Value("${advisor.retrieval.hybrid.enabled:true}") boolean enabled,
+                           @Value("${advisor.retrieval.hybrid.vector-budget-ms:1500}") long vectorBudgetMillis,
+                           @Value("${advisor.retrieval.hybrid.rrf-k:60}") int rrfK,
+                           @Value("${advisor.retrieval.hybrid.vector-threads:8}") int vectorThreads,
+                           @Value("${advisor.retrieval.hybrid.vector-queue-capacity:32}") int vectorQueueCapacity) {
+        this.vectorSearch = vectorSearch;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.vectorBudgetMillis = vectorBudgetMillis;
+        this.rrfK = rrfK;
+        this.lexicalIndex = lexicalIndex(corpus.records());
+        corpus.onReload(records -> lexicalIndex = lexicalIndex(records));
+        int threads = Math.max(1, vectorThreads);
+        this.vectorExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, vectorQueueCapacity)), TaskExecutors.threadFactory("hybrid-vector"));
+    }
+
+    /**
+     * The retrieval query for a profile. Joined with a comma so the last skill and the first interest stay
+     * separate phrases for the lexical leg.
+     */
+    public static String query(String skills, String interests) {
+        return skills + ", " + interests;
+    }
+
+    public List<Document> retrieve(String queryText, int topK) {
+        Bm25Index lexicalIndex = this.lexicalIndex;
+        if (!enabled || lexicalIndex.size() == 0) {
+            return vectorSearch.similaritySearch(queryText, topK);
+        }
+        requests.incrementAndGet();
+        int candidates = Math.max(topK * 3, 10);
+
+        CompletableFuture<List<Document>> vectorLeg;
+        try {
+            vectorLeg = CompletableFuture.supplyAsync(() -> vectorSearch.similaritySearch(queryText, candidates), vectorExecutor);
+        } catch (RejectedExecutionException e) {
+            vectorLeg = null;
+            vectorSaturated.incrementAndGet();
+            metrics.ragFallback("vector_saturated");
+            logger.debug("Vector leg skipped: all {} threads busy and the queue is full.", vectorExecutor.getMaximumPoolSize());
+        }
+        List<Bm25Index.Hit> lexicalHits = lexicalIndex.search(queryText, candidates);
+
+        List<Document> vectorHits = List.of();
+        if (vectorLeg != null) {
+            try {
+                vectorHits = vectorLeg.get(vectorBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Left running on purpose: its result still warms the vector-search cache for the next turn.
+                vectorLegMissed(e);
+            }
+        }
+
+        return fuse(lexicalHits, vectorHits, topK, rrfK);
+    }
+
+    /** {@link #retrieve} without a blocked thread: the vector leg is fused in when its future completes. */
+    public CompletableFuture<List<Document>> retrieveAsync(String queryText, int topK) {
+        Bm25Index lexicalIndex = this.lexicalIndex;
+        if (!enabled || lexicalIndex.size() == 0) {
+            return vectorSearch.similaritySearchAsync(queryText, topK);
+        }
+        requests.incrementAndGet();
+        int candidates = Math.max(topK * 3, 10);
+
+        CompletableFuture<List<Document>> vectorLeg = vectorSearch.similaritySearchAsync(queryText, candidates)
+                .copy()
+                .orTimeout(vectorBudgetMillis, TimeUnit.MILLISECONDS);
+        List<Bm25Index.Hit> lexicalHits = lexicalIndex.search(queryText, candidates);
+
+        return vectorLeg.handle((vectorHits, error) -> {
+            if (error != null) {
+                vectorLegMissed(error);
+                return fuse(lexicalHits, List.of(), topK, rrfK);
+            }
+            return fuse(lexicalHits, vectorHits, topK, rrfK);
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lexicalDocuments", lexicalIndex.size());
+        stats.put("requests", requests.get());
+        stats.put("vectorBudgetExceeded", vectorBudgetExceeded.get());
+        stats.put("vectorFailures", vectorFailures.get());
+        stats.put("vectorSaturated", vectorSaturated.get());
+        return stats;
+    }
+
+    private static Bm25Index lexicalIndex(List<StudentRecord> records) {
+        List<String> ids = new ArrayList<>();
+        List<String> indexTexts = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (StudentRecord record : records) {
+            ids.add(record.studentId());
+            // Raw comma lists, so "Skills: " and " | " never glue a label onto the first phrase of each field.
+            indexTexts.add(query(record.skills(), record.interests()));
+            texts.add(record.toDocumentText());
+        }
+        return new Bm25Index(ids, indexTexts, texts);
+    }
+
+    private void vectorLegMissed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            vectorBudgetExceeded.incrementAndGet();
+            metrics.ragFallback("vector_budget");
+            logger.debug("Vector leg exceeded {} ms budget; using lexical results only.", vectorBudgetMillis);
+        } else {
+            vectorFailures.incrementAndGet();
+            metrics.ragFallback("vector_failure");
+            logger.warn("Vector leg failed: {}", cause.getMessage());
+        }
+    }
+
+    // Each list contributes 1 / (rrfK + rank) per document; rows found by both legs are merged by student id.
+    static List<Document> fuse(List<Bm25Index.Hit> lexicalHits, List<Document> vectorHits, int topK, int rrfK) {
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Document> docs = new LinkedHashMap<>();
+        for (int rank = 0; rank < vectorHits.size(); rank++) {
+            Document doc = vectorHits.get(rank);
+            String key = fusionKey(doc);
+            scores.merge(key, 1.0 / (rrfK + rank + 1), Double::sum);
+            docs.putIfAbsent(key, doc);
+        }
+        for (int rank = 0; rank < lexicalHits.size(); rank++) {
+            Bm25Index.Hit hit = lexicalHits.get(rank);
+            String key = "id:" + hit.id();
+            scores.merge(key, 1.0 / (rrfK + rank + 1), Double::sum);
+            docs.putIfAbsent(key, new Document(hit.text(), Map.of("student_id", hit.id(), "bm25", hit.score())));
+        }
+        List<String> ranked = new ArrayList<>(docs.keySet());
+        ranked.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        List<Document> fused = new ArrayList<>(Math.min(topK, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < topK; i++) {
+            fused.add(docs.get(ranked.get(i)));
+        }
+        return fused;
+    }
+
+    // Databricks rows carry only text, so the student id is recovered from the "Student #N" prefix when present.
+    private static String fusionKey(Document doc) {
+        Object id = doc.getMetadata() == null ? null : doc.getMetadata().get("student_id");
+        if (id != null) {
+            return "id:" + id;
+        }
+        String text = doc.getText() == null ? "" : doc.getText();
+        Matcher matcher = STUDENT_ID.matcher(text);
+        if (matcher.find()) {
+            return "id:" + matcher.group(1);
+        }
+        return "text:" + text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        vectorExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,205 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import com.magicbus.careercatalyst.embedding.CachedEmbeddingService;
+import com.magicbus.careercatalyst.retrieval.StudentCorpus.StudentRecord;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process alternative to {@link com.magicbus.careercatalyst.databricks.DatabricksVectorSearchClient},
+ * enabled with {@code advisor.retrieval.provider=local}. Builds an HNSW index over students.csv, or loads it from
+ * {@code advisor.retrieval.local.index-file} and inserts only the rows it is missing. Inserts run on a background
+ * thread, so startup does not wait for the embedding endpoint; until they finish, searches see the rows indexed so
+ * far. Rows added to the corpus file later are inserted the same way when {@link StudentCorpus} reloads it.
+ */
+@Service
+@ConditionalOnProperty(name = "advisor.retrieval.provider", havingValue = "local")
+public class LocalHnswVectorSearchClient implements StudentVectorSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalHnswVectorSearchClient.class);
+
+    private final TextEmbedder embedder;
+    private final HnswIndex index;
+    private final Path indexFile;
+    private final int efSearch;
+    private final int defaultNumResults;
+    private final Map<String, String> textById = new ConcurrentHashMap<>();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(TaskExecutors.daemonThreadFactory("hnsw-indexer"));
+    private final AtomicInteger pendingInserts = new AtomicInteger();
+    private volatile boolean dirty;
+
+    public LocalHnswVectorSearchClient(
+            StudentCorpus corpus,
+            CachedEmbeddingService embeddingService,
+            @Value("${advisor.retrieval.local.embedder:hashing}") String embedderType,
+            @Value("${advisor.retrieval.local.dimensions:256}") int dimensions,
+            @Value("${advisor.embedding-store.dimensions:1536}") int modelDimensions,
+            @Value("${advisor.retrieval.local.m:16}") int m,
+            @Value("${advisor.retrieval.local.ef-construction:100}") int efConstruction,
+            @Value("${advisor.retrieval.local.ef-search:50}") int efSearch,
+            @Value("${advisor.retrieval.local.index-file:}") String indexFile,
+            @Value("${databricks.vector-search.num-results:3}") int defaultNumResults) {
+        this.embedder = createEmbedder(embedderType, dimensions, modelDimensions, embeddingService);
+        this.indexFile = indexFile == null || indexFile.isBlank() ? null : Path.of(indexFile);
+        this.efSearch = efSearch;
+        this.defaultNumResults = defaultNumResults;
+        this.index = loadOrCreate(m, efConstruction);
+        reindex(corpus.records());
+        corpus.onReload(this::reindex);
+    }
+
+    /**
+     * Inserts one student if the index does not hold it yet. Blocks for the embedding; persisted on the next
+     * {@link #persist()}.
+     */
+    public boolean addStudent(StudentRecord record) {
+        String text = record.toDocumentText();
+        textById.put(record.studentId(), text);
+        if (index.contains(record.studentId())) {
+            return false;
+        }
+        index.add(record.studentId(), embedder.embed(text));
+        dirty = true;
+        return true;
+    }
+
+    @Override
+    public List<Document> similaritySearch(String queryText, int topK) {
+        int k = topK > 0 ? topK : defaultNumResults;
+        try {
+            List<HnswIndex.SearchResult> hits = index.search(embedder.embed(queryText), k, efSearch);
+            List<Document> docs = new ArrayList<>(hits.size());
+            for (HnswIndex.SearchResult hit : hits) {
+                String text = textById.get(hit.id());
+                if (text != null) {
+                    docs.add(new Document(text, Map.of("student_id", hit.id(), "distance", hit.distance())));
+                }
+            }
+            return docs;
+        } catch (Exception e) {
+            logger.warn("Local vector search failed: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of("provider", "local", "indexedStudents", index.size(), "pendingInserts", pendingInserts.get(),
+                "embedder", embedder.name());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+        try {
+            indexer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        persist();
+    }
+
+    public void persist() {
+        if (indexFile == null || !dirty) {
+            return;
+        }
+        try {
+            index.save(indexFile);
+            dirty = false;
+        } catch (Exception e) {
+            logger.warn("Failed to persist local HNSW index to {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    // Rows that left the corpus keep their vectors, but without text they are never returned.
+    private void reindex(List<StudentRecord> records) {
+        Set<String> ids = new HashSet<>();
+        List<StudentRecord> missing = new ArrayList<>();
+        for (StudentRecord record : records) {
+            ids.add(record.studentId());
+            textById.put(record.studentId(), record.toDocumentText());
+            if (!index.contains(record.studentId())) {
+                missing.add(record);
+            }
+        }
+        textById.keySet().retainAll(ids);
+        if (missing.isEmpty()) {
+            logger.info("Local HNSW index ready: {} students using {}", index.size(), embedder.name());
+            return;
+        }
+        pendingInserts.addAndGet(missing.size());
+        indexer.execute(() -> insert(missing));
+    }
+
+    private void insert(List<StudentRecord> records) {
+        long start = System.nanoTime();
+        int inserted = 0;
+        try {
+            for (StudentRecord record : records) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                try {
+                    if (addStudent(record)) {
+                        inserted++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Failed to index student {}: {}", record.studentId(), e.getMessage());
+                }
+                pendingInserts.decrementAndGet();
+            }
+        } finally {
+            logger.info("Local HNSW index ready: {} students ({} inserted) in {} ms using {}",
+                    index.size(), inserted, (System.nanoTime() - start) / 1_000_000, embedder.name());
+            persist();
+        }
+    }
+
+    private HnswIndex loadOrCreate(int m, int efConstruction) {
+        if (indexFile != null && Files.exists(indexFile)) {
+            try {
+                HnswIndex loaded = HnswIndex.load(indexFile);
+                if (loaded.embedderName().equals(embedder.name()) && loaded.dimensions() == embedder.dimensions()) {
+                    return loaded;
+                }
+                logger.warn("Index file {} was built with {}; rebuilding with {}", indexFile, loaded.embedderName(), embedder.name());
+            } catch (Exception e) {
+                logger.warn("Failed to load local HNSW index from {}: {}", indexFile, e.getMessage());
+            }
+        }
+        return new HnswIndex(embedder.dimensions(), m, efConstruction, embedder.name());
+    }
+
+    private static TextEmbedder createEmbedder(String type,
+                                               int dimensions,
+                                               int modelDimensions,
+                                               CachedEmbeddingService embeddingService) {
+        if ("model".equalsIgnoreCase(type)) {
+            if (embeddingService.isAvailable()) {
+                return new EmbeddingModelTextEmbedder(embeddingService, modelDimensions);
+            }
+            logger.warn("advisor.retrieval.local.embedder=model but no EmbeddingModel is configured; using hashing embedder.");
+        }
+        return new HashingTextEmbedder(dimensions);
+    }
+}
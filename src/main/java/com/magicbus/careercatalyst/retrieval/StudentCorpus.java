@@ -0,0 +1,168 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Student success stories loaded from students.csv, used by the in-process retrievers.
+ * Reads {@code advisor.retrieval.corpus-file} when set, otherwise the bundled classpath copy. A configured file is
+ * checked every {@code advisor.retrieval.corpus-reload-seconds}; when it changed, the new rows are swapped in and
+ * handed to every {@link #onReload} listener. A file that fails to parse keeps the previous rows in service.
+ */
+@Component
+public class StudentCorpus {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentCorpus.class);
+
+    private final String corpusFile;
+    private final ScheduledExecutorService reloader;
+    private final List<Consumer<List<StudentRecord>>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile List<StudentRecord> records;
+    private volatile long loadedModifiedMillis;
+
+    public StudentCorpus(@Value("${advisor.retrieval.corpus-file:}") String corpusFile,
+                         @Value("${advisor.retrieval.corpus-reload-seconds:30}") long reloadSeconds) {
+        this.corpusFile = corpusFile == null || corpusFile.isBlank() ? null : corpusFile;
+        List<StudentRecord> initial = load(this.corpusFile);
+        this.records = initial == null ? List.of() : initial;
+        if (this.corpusFile != null && reloadSeconds > 0) {
+            this.reloader = Executors.newSingleThreadScheduledExecutor(TaskExecutors.daemonThreadFactory("corpus-reload"));
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+        } else {
+            this.reloader = null;
+        }
+    }
+
+    public List<StudentRecord> records() {
+        return records;
+    }
+
+    /** Called on the reload thread with the full new row list each time the corpus file changes. */
+    public void onReload(Consumer<List<StudentRecord>> listener) {
+        listeners.add(listener);
+    }
+
+    public long reloads() {
+        return reloads.get();
+    }
+
+    void reloadIfChanged() {
+        try {
+            Path file = Path.of(corpusFile);
+            if (!Files.exists(file) || Files.getLastModifiedTime(file).toMillis() == loadedModifiedMillis) {
+                return;
+            }
+            List<StudentRecord> reloaded = load(corpusFile);
+            if (reloaded == null) {
+                return;
+            }
+            records = reloaded;
+            reloads.incrementAndGet();
+            logger.info("Student corpus reloaded: {} rows", reloaded.size());
+            for (Consumer<List<StudentRecord>> listener : listeners) {
+                try {
+                    listener.accept(reloaded);
+                } catch (Exception e) {
+                    logger.warn("Student corpus reload listener failed: {}", e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Student corpus reload check failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    // Null when the file could not be read or parsed.
+    private List<StudentRecord> load(String corpusFile) {
+        long modified = 0;
+        try {
+            if (corpusFile != null) {
+                modified = Files.getLastModifiedTime(Path.of(corpusFile)).toMillis();
+            }
+            try (InputStream in = open(corpusFile)) {
+                if (in == null) {
+                    logger.warn("students.csv not found; local retrieval will return no context.");
+                    return List.of();
+                }
+                return Collections.unmodifiableList(parse(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load student corpus: {}", e.getMessage());
+            return null;
+        } finally {
+            // Remember this version even when it is broken, so a bad file is not re-parsed on every tick.
+            loadedModifiedMillis = modified;
+        }
+    }
+
+    private InputStream open(String corpusFile) throws Exception {
+        if (corpusFile != null && !corpusFile.isBlank()) {
+            return Files.newInputStream(Path.of(corpusFile));
+        }
+        ClassPathResource resource = new ClassPathResource("students.csv");
+        return resource.exists() ? resource.getInputStream() : null;
+    }
+
+    static List<StudentRecord> parse(Reader reader) throws Exception {
+        List<StudentRecord> parsed = new ArrayList<>();
+        Iterable<CSVRecord> rows = CSVFormat.DEFAULT
+                .builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setTrim(true)
+                .build()
+                .parse(reader);
+        for (CSVRecord row : rows) {
+            String studentId = row.get("student_id");
+            if (studentId == null || studentId.isBlank()) {
+                continue;
+            }
+            parsed.add(new StudentRecord(
+                    studentId,
+                    row.get("name"),
+                    row.get("skills"),
+                    row.get("interests"),
+                    row.get("education_level")));
+        }
+        return parsed;
+    }
+
+    public record StudentRecord(String studentId, String name, String skills, String interests, String educationLevel) {
+
+        /** Text used for embedding, lexical indexing and as the RAG snippet shown to the model. */
+        public String toDocumentText() {
+            return "Student #" + studentId + " (" + name + ") | Skills: " + skills
+                    + " | Interests: " + interests + " | Education: " + educationLevel;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Similarity search over student success stories used as RAG context.
+ * Implementations never throw; they log and return an empty list when retrieval is unavailable.
+ */
+public interface StudentVectorSearch {
+
+    List<Document> similaritySearch(String queryText, int topK);
+
+    /**
+     * Non-blocking variant for the async advisor pipeline. The default runs the search on the calling thread,
+     * which suits in-process indexes; remote implementations should complete from their own I/O threads.
+     */
+    default CompletableFuture<List<Document>> similaritySearchAsync(String queryText, int topK) {
+        return CompletableFuture.completedFuture(similaritySearch(queryText, topK));
+    }
+
+    /** Implementation-specific counters for the stats endpoint. */
+    default Map<String, Object> stats() {
+        return Map.of();
+    }
+}
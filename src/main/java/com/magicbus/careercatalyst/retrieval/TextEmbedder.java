@@ -0,0 +1,14 @@
+package com.magicbus.careercatalyst.retrieval;
+
+/**
+ * Turns text into a fixed-width vector for the local index.
+ * {@link #name()} is persisted with the index so a file built by a different embedder is rebuilt, not reused.
+ */
+public interface TextEmbedder {
+
+    String name();
+
+    int dimensions();
+
+    float[] embed(String text);
+}
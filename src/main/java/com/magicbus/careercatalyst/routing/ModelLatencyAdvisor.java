@@ -0,0 +1,99 @@
+package com.magicbus.careercatalyst.routing;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records latency and failures against the tier {@link ModelRoutingAdvisor} routed a call to. It sits below the
+ * rate limiter, so the clock starts once a permit is held. Unrouted calls pass straight through.
+ */
+@Component
+public class ModelLatencyAdvisor implements CallAdvisor, StreamAdvisor {
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        ModelRouter.Tier tier = tier(request);
+        if (tier == null) {
+            return chain.nextCall(request);
+        }
+        long start = System.nanoTime();
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            ChatResponse chatResponse = response.chatResponse();
+            tier.record(System.nanoTime() - start, completionTokens(chatResponse, text(chatResponse).length()));
+            return response;
+        } catch (RuntimeException e) {
+            tier.failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Flux.defer(() -> {
+            ModelRouter.Tier tier = tier(request);
+            if (tier == null) {
+                return chain.nextStream(request);
+            }
+            long start = System.nanoTime();
+            AtomicLong reported = new AtomicLong();
+            AtomicLong characters = new AtomicLong();
+            return chain.nextStream(request)
+                    .doOnNext(response -> {
+                        ChatResponse chatResponse = response.chatResponse();
+                        characters.addAndGet(text(chatResponse).length());
+                        long tokens = completionTokens(chatResponse, 0);
+                        if (tokens > 0) {
+                            reported.set(tokens);
+                        }
+                    })
+                    .doOnComplete(() -> tier.record(System.nanoTime() - start,
+                            reported.get() > 0 ? reported.get() : characters.get() / 4))
+                    .doOnError(e -> tier.failed());
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "ModelLatencyAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // Just inside the rate limiter.
+        return Ordered.LOWEST_PRECEDENCE - 900;
+    }
+
+    private static ModelRouter.Tier tier(ChatClientRequest request) {
+        Object tier = request.context() == null ? null : request.context().get(ModelRoutingAdvisor.TIER);
+        return tier instanceof ModelRouter.Tier routed ? routed : null;
+    }
+
+    // Falls back to ~4 characters per token when the deployment reports no usage.
+    private static long completionTokens(ChatResponse response, int fallbackCharacters) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage != null && usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+            return usage.getCompletionTokens();
+        }
+        return fallbackCharacters / 4;
+    }
+
+    private static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text == null ? "" : text;
+    }
+}
@@ -0,0 +1,23 @@
+package com.magicbus.careercatalyst.routing;
+
+/** What a model call is for; decides which deployment tier it prefers. */
+public enum ModelRoute {
+    /** Discovery follow-ups: a few short paragraphs, in any of the supported languages. */
+    DISCOVERY(false),
+    /** The planning call of a sectioned roadmap; two lines of output. */
+    ROADMAP_PLAN(false),
+    /** One section of a sectioned roadmap. */
+    ROADMAP_SECTION(true),
+    /** A full single-call roadmap, including speculative ones. */
+    ROADMAP(true);
+
+    private final boolean largeModel;
+
+    ModelRoute(boolean largeModel) {
+        this.largeModel = largeModel;
+    }
+
+    public boolean prefersLargeModel() {
+        return largeModel;
+    }
+}
@@ -0,0 +1,172 @@
+package com.magicbus.careercatalyst.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the Azure OpenAI deployment for each advisor call from two named tiers.
+ * <p>
+ * Discovery turns and roadmap plans go to the small tier, roadmaps and their sections to the large one, and any
+ * prompt above {@code advisor.routing.small.max-prompt-tokens} goes large as well. Each tier keeps an EWMA of
+ * milliseconds per completion token; while the small tier is slower than the large one by more than
+ * {@code shift-ratio}, its traffic moves to the large tier, except every {@code probe-every}-th call, which keeps
+ * the small tier's latency fresh so traffic can move back. Roadmaps never move down to the small model.
+ */
+@Component
+public class ModelRouter {
+
+    private static final int MIN_SAMPLES = 10;
+
+    private final boolean enabled;
+    private final Tier small;
+    private final Tier large;
+    private final int smallMaxPromptTokens;
+    private final double shiftRatio;
+    private final int probeEvery;
+
+    private final Map<ModelRoute, AtomicLong> routed = new EnumMap<>(ModelRoute.class);
+    private final AtomicLong oversizedPrompts = new AtomicLong();
+    private final AtomicLong shifted = new AtomicLong();
+    private final AtomicLong probes = new AtomicLong();
+
+    public ModelRouter(
+            @Value("${advisor.routing.enabled:false}") boolean enabled,
+            @Value("${advisor.routing.small.deployment:}") String smallDeployment,
+            @Value("${advisor.routing.small.temperature:}") String smallTemperature,
+            @Value("${advisor.routing.small.max-prompt-tokens:6000}") int smallMaxPromptTokens,
+            @Value("${advisor.routing.large.deployment:${spring.ai.azure.openai.chat.options.deployment-name:gpt-4o}}") String largeDeployment,
+            @Value("${advisor.routing.large.temperature:}") String largeTemperature,
+            @Value("${advisor.routing.shift-ratio:1.5}") double shiftRatio,
+            @Value("${advisor.routing.probe-every:10}") int probeEvery,
+            @Value("${advisor.routing.ewma-alpha:0.2}") double ewmaAlpha) {
+        // Without a small deployment there is nothing to route between.
+        this.enabled = enabled && smallDeployment != null && !smallDeployment.isBlank();
+        this.small = new Tier("small", smallDeployment, temperature(smallTemperature), ewmaAlpha);
+        this.large = new Tier("large", largeDeployment, temperature(largeTemperature), ewmaAlpha);
+        this.smallMaxPromptTokens = smallMaxPromptTokens;
+        this.shiftRatio = shiftRatio;
+        this.probeEvery = Math.max(2, probeEvery);
+        for (ModelRoute route : ModelRoute.values()) {
+            routed.put(route, new AtomicLong());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Tier choose(ModelRoute route, int promptTokens) {
+        routed.get(route).incrementAndGet();
+        if (route.prefersLargeModel()) {
+            return large;
+        }
+        if (promptTokens > smallMaxPromptTokens) {
+            oversizedPrompts.incrementAndGet();
+            return large;
+        }
+        if (small.slowerThan(large, shiftRatio)) {
+            if (shifted.incrementAndGet() % probeEvery == 0) {
+                probes.incrementAndGet();
+                return small;
+            }
+            return large;
+        }
+        return small;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        Map<String, Object> routes = new LinkedHashMap<>();
+        routed.forEach((route, count) -> routes.put(route.name().toLowerCase(), count.get()));
+        stats.put("routes", routes);
+        stats.put("oversizedPrompts", oversizedPrompts.get());
+        stats.put("shiftedToLarge", shifted.get() - probes.get());
+        stats.put("probes", probes.get());
+        stats.put("small", small.stats());
+        stats.put("large", large.stats());
+        return stats;
+    }
+
+    private static Double temperature(String value) {
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+
+    /** A deployment and its observed latency. */
+    public static final class Tier {
+
+        private final String name;
+        private final String deployment;
+        private final Double temperature;
+        private final double alpha;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private double msPerToken;
+        private double latencyMs;
+        private long samples;
+
+        Tier(String name, String deployment, Double temperature, double alpha) {
+            this.name = name;
+            this.deployment = deployment;
+            this.temperature = temperature;
+            this.alpha = alpha;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String deployment() {
+            return deployment;
+        }
+
+        /** Null keeps the temperature configured on the chat model. */
+        public Double temperature() {
+            return temperature;
+        }
+
+        public synchronized void record(long latencyNanos, long completionTokens) {
+            calls.incrementAndGet();
+            double millis = latencyNanos / 1_000_000.0;
+            double perToken = millis / Math.max(1, completionTokens);
+            if (samples == 0) {
+                latencyMs = millis;
+                msPerToken = perToken;
+            } else {
+                latencyMs += alpha * (millis - latencyMs);
+                msPerToken += alpha * (perToken - msPerToken);
+            }
+            samples++;
+        }
+
+        public void failed() {
+            calls.incrementAndGet();
+            failures.incrementAndGet();
+        }
+
+        synchronized double msPerToken() {
+            return samples < MIN_SAMPLES ? -1 : msPerToken;
+        }
+
+        boolean slowerThan(Tier other, double ratio) {
+            double mine = msPerToken();
+            double theirs = other.msPerToken();
+            return mine > 0 && theirs > 0 && mine > theirs * ratio;
+        }
+
+        synchronized Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("deployment", deployment);
+            stats.put("calls", calls.get());
+            stats.put("failures", failures.get());
+            stats.put("ewmaLatencyMs", Math.round(latencyMs));
+            stats.put("ewmaMsPerToken", Math.round(msPerToken * 100) / 100.0);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.magicbus.careercatalyst.routing;
+
+import org.springframework.ai.azure.openai.AzureOpenAiChatOptions;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends each ChatClient call to the deployment {@link ModelRouter} picks for its {@link #ROUTE} advisor parameter,
+ * by overriding the deployment name (and temperature, when the tier sets one) on a copy of the call's options.
+ * Calls without a route keep the configured deployment. The tier is chosen before the rate limiter runs, so the
+ * permit comes out of that deployment's quota; {@link ModelLatencyAdvisor}, below the rate limiter, times the call
+ * against the tier recorded under {@link #TIER}, so quota waits do not count against a deployment.
+ */
+@Component
+public class ModelRoutingAdvisor implements CallAdvisor, StreamAdvisor {
+
+    public static final String ROUTE = "advisor.routing.route";
+    /** Context key for the {@link ModelRouter.Tier} a routed call went to. */
+    public static final String TIER = "advisor.routing.tier";
+
+    private final ModelRouter router;
+    private final TokenCountEstimator tokenEstimator = new JTokkitTokenCountEstimator();
+
+    public ModelRoutingAdvisor(ModelRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        ModelRouter.Tier tier = tier(request);
+        return chain.nextCall(tier == null ? request : routed(request, tier));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Flux.defer(() -> {
+            ModelRouter.Tier tier = tier(request);
+            return chain.nextStream(tier == null ? request : routed(request, tier));
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "ModelRoutingAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // Just outside the rate limiter, which takes its permit from the deployment chosen here.
+        return Ordered.LOWEST_PRECEDENCE - 1100;
+    }
+
+    private ModelRouter.Tier tier(ChatClientRequest request) {
+        if (!router.isEnabled()) {
+            return null;
+        }
+        Object route = request.context() == null ? null : request.context().get(ROUTE);
+        if (!(route instanceof ModelRoute modelRoute)) {
+            return null;
+        }
+        if (!(request.prompt().getOptions() instanceof AzureOpenAiChatOptions)) {
+            return null;
+        }
+        String contents = request.prompt().getContents();
+        return router.choose(modelRoute, contents == null ? 0 : tokenEstimator.estimate(contents));
+    }
+
+    private static ChatClientRequest routed(ChatClientRequest request, ModelRouter.Tier tier) {
+        AzureOpenAiChatOptions options = ((AzureOpenAiChatOptions) request.prompt().getOptions()).copy();
+        options.setDeploymentName(tier.deployment());
+        if (tier.temperature() != null) {
+            options.setTemperature(tier.temperature());
+        }
+        Map<String, Object> context = new HashMap<>(request.context() == null ? Map.of() : request.context());
+        context.put(TIER, tier);
+        return new ChatClientRequest(new Prompt(request.prompt().getInstructions(), options), context);
+    }
+}
@@ -0,0 +1,101 @@
+package com.magicbus.careercatalyst.session;
+
+import com.magicbus.careercatalyst.CareerAdvisorService.PromptContext;
+import com.magicbus.careercatalyst.StudentProfileRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-side state of one mentor chat: the student profile, the last {@code maxTurns} turns and the
+ * retrieval results computed for the profile. Callers hold {@link #turnLock()} while running a turn,
+ * so turns of one session are serialized while different sessions run in parallel. A turn waits on the model,
+ * so it is a {@link ReentrantLock} rather than the monitor, which would pin a virtual thread for the whole call.
+ */
+public class AdvisorSession {
+
+    private final String id;
+    private final long createdAtMillis;
+    private final int maxTurns;
+    private final Deque<Turn> turns;
+    private final ReentrantLock turnLock = new ReentrantLock();
+    private StudentProfileRequest profile;
+
+    // Retrieval and KG selection only depend on skills and interests, so they are reused until those change.
+    private String contextKey;
+    private PromptContext context;
+
+    AdvisorSession(String id, StudentProfileRequest profile, int maxTurns, long createdAtMillis, List<Turn> turns) {
+        this.id = id;
+        this.profile = profile;
+        this.maxTurns = Math.max(2, maxTurns);
+        this.createdAtMillis = createdAtMillis;
+        this.turns = new ArrayDeque<>(Math.min(this.maxTurns, 32));
+        turns.forEach(this::append);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    ReentrantLock turnLock() {
+        return turnLock;
+    }
+
+    public synchronized StudentProfileRequest profile() {
+        return profile;
+    }
+
+    public synchronized void updateProfile(StudentProfileRequest profile) {
+        this.profile = profile;
+    }
+
+    public synchronized List<Turn> turns() {
+        return new ArrayList<>(turns);
+    }
+
+    public synchronized int turnCount() {
+        return turns.size();
+    }
+
+    synchronized void append(Turn turn) {
+        turns.addLast(turn);
+        while (turns.size() > maxTurns) {
+            turns.removeFirst();
+        }
+    }
+
+    /** Transcript in the "User: ... / Assistant: ..." format the chat pages used to send. */
+    synchronized String conversationContext() {
+        if (turns.isEmpty()) {
+            return "No prior messages.";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Turn turn : turns) {
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            text.append(turn.role()).append(": ").append(turn.content());
+        }
+        return text.toString();
+    }
+
+    synchronized PromptContext cachedContext(String key) {
+        return Objects.equals(contextKey, key) ? context : null;
+    }
+
+    synchronized void cacheContext(String key, PromptContext context) {
+        this.contextKey = key;
+        this.context = context;
+    }
+
+    public record Turn(String role, String content) {}
+}
@@ -0,0 +1,85 @@
+package com.magicbus.careercatalyst.session;
+
+import com.magicbus.careercatalyst.StudentProfileRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/advisor/sessions")
+public class AdvisorSessionController {
+
+    private final AdvisorSessionStore store;
+    private final AdvisorSessionService sessionService;
+
+    public AdvisorSessionController(AdvisorSessionStore store, AdvisorSessionService sessionService) {
+        this.store = store;
+        this.sessionService = sessionService;
+    }
+
+    /** Starts a session from the student profile; per-turn fields in the body are ignored. */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Map<String, Object> create(@RequestBody StudentProfileRequest profile) {
+        AdvisorSession session = store.create(AdvisorSessionService.copyProfile(profile));
+        return describe(session);
+    }
+
+    @GetMapping("/{sessionId}")
+    public Map<String, Object> get(@PathVariable String sessionId) {
+        return describe(require(sessionId));
+    }
+
+    /** Replaces the stored profile, e.g. after the mentor edits skills; history is kept. */
+    @PutMapping("/{sessionId}/profile")
+    public Map<String, Object> updateProfile(@PathVariable String sessionId, @RequestBody StudentProfileRequest profile) {
+        AdvisorSession session = require(sessionId);
+        session.updateProfile(AdvisorSessionService.copyProfile(profile));
+        return describe(session);
+    }
+
+    @PostMapping("/{sessionId}/messages")
+    public String send(@PathVariable String sessionId, @RequestBody SessionMessageRequest request) {
+        String answer = sessionService.send(sessionId, request.getMessage(),
+                Boolean.TRUE.equals(request.getRoadmapRequested()));
+        if (answer == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired session");
+        }
+        return answer;
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable String sessionId) {
+        if (!store.remove(sessionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired session");
+        }
+    }
+
+    private AdvisorSession require(String sessionId) {
+        AdvisorSession session = store.get(sessionId);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired session");
+        }
+        return session;
+    }
+
+    private static Map<String, Object> describe(AdvisorSession session) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sessionId", session.id());
+        body.put("turns", session.turnCount());
+        body.put("profile", session.profile());
+        return body;
+    }
+}
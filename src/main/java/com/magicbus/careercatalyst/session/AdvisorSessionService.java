@@ -0,0 +1,90 @@
+package com.magicbus.careercatalyst.session;
+
+import com.magicbus.careercatalyst.CareerAdvisorService;
+import com.magicbus.careercatalyst.CareerAdvisorService.PromptContext;
+import com.magicbus.careercatalyst.StudentProfileRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs advisor turns against server-side sessions: the profile and history come from the
+ * {@link AdvisorSessionStore}, so clients only send the new message.
+ */
+@Service
+public class AdvisorSessionService {
+
+    private final AdvisorSessionStore store;
+    private final CareerAdvisorService careerAdvisorService;
+
+    public AdvisorSessionService(AdvisorSessionStore store, CareerAdvisorService careerAdvisorService) {
+        this.store = store;
+        this.careerAdvisorService = careerAdvisorService;
+    }
+
+    /** Returns the answer, or null when the session does not exist (or has expired). */
+    public String send(String sessionId, String message, boolean roadmapRequested) {
+        AdvisorSession session = lockSession(sessionId);
+        if (session == null) {
+            return null;
+        }
+        try {
+            StudentProfileRequest profile = session.profile();
+            StudentProfileRequest request = copyProfile(profile);
+            request.setUserMessage(message);
+            request.setConversationContext(session.conversationContext());
+            request.setRoadmapRequested(roadmapRequested);
+
+            String answer = careerAdvisorService.getCareerAdvice(request, () -> context(session, profile));
+            session.append(new AdvisorSession.Turn("User", message == null ? "" : message));
+            session.append(new AdvisorSession.Turn("Assistant", answer == null ? "" : answer));
+            return answer;
+        } finally {
+            // The session may have been evicted or swept while the model was answering.
+            store.keep(session);
+            session.turnLock().unlock();
+        }
+    }
+
+    // Once the lock is held, an eviction parks the session for keep(). One that happened before (a spill written,
+    // a copy restored by another request) is caught by looking again, and the turn moves to the current copy.
+    private AdvisorSession lockSession(String sessionId) {
+        AdvisorSession session = store.get(sessionId);
+        while (session != null) {
+            session.turnLock().lock();
+            AdvisorSession current = store.get(sessionId);
+            if (current == session) {
+                return session;
+            }
+            session.turnLock().unlock();
+            session = current;
+        }
+        return null;
+    }
+
+    private PromptContext context(AdvisorSession session, StudentProfileRequest profile) {
+        String key = profile.getCurrentSkills() + '\u001f' + profile.getInterests();
+        PromptContext cached = session.cachedContext(key);
+        if (cached != null) {
+            return cached;
+        }
+        PromptContext context = careerAdvisorService.retrieveContext(profile.getCurrentSkills(), profile.getInterests());
+        session.cacheContext(key, context);
+        return context;
+    }
+
+    /** Stored profiles never carry per-turn fields; they are filled in for each call. */
+    static StudentProfileRequest copyProfile(StudentProfileRequest source) {
+        StudentProfileRequest copy = new StudentProfileRequest();
+        copy.setCurrentSkills(source.getCurrentSkills());
+        copy.setInterests(source.getInterests());
+        copy.setEducationLevel(source.getEducationLevel());
+        copy.setPreferredLanguage(source.getPreferredLanguage());
+        copy.setStudentName(source.getStudentName());
+        copy.setAiDataInterest(source.getAiDataInterest());
+        copy.setDeviceAccess(source.getDeviceAccess());
+        copy.setTimePerWeekHours(source.getTimePerWeekHours());
+        copy.setMathComfort(source.getMathComfort());
+        copy.setProblemSolvingConfidence(source.getProblemSolvingConfidence());
+        copy.setEnglishComfort(source.getEnglishComfort());
+        return copy;
+    }
+}
@@ -0,0 +1,281 @@
+package com.magicbus.careercatalyst.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.careercatalyst.StudentProfileRequest;
+import com.magicbus.careercatalyst.cache.BoundedTtlCache;
+import com.magicbus.careercatalyst.concurrent.TaskExecutors;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded in-memory store of advisor sessions with an idle timeout.
+ * <p>
+ * Sessions idle for longer than {@code advisor.sessions.idle-minutes}, or pushed out by
+ * {@code advisor.sessions.max-sessions}, are dropped. When {@code advisor.sessions.spill-dir} is set they
+ * are written there as JSON instead and loaded back on their next request; spilled files older than
+ * {@code advisor.sessions.spill-ttl-hours} are deleted.
+ * <p>
+ * A background thread sweeps idle sessions out every few seconds, so they are spilled even when nobody asks for
+ * them again, and does all spill-file I/O. Until its file is written, a spilled session stays in a pending map
+ * that {@link #get} checks first, so a request that arrives mid-write gets the session instead of a 404.
+ * <p>
+ * A session dropped while a turn holds its {@link AdvisorSession#turnLock()} is not spilled: its snapshot would miss
+ * the turn being written. It is parked in the pending map instead, and the turn hands it back with {@link #keep}.
+ */
+@Component
+public class AdvisorSessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvisorSessionStore.class);
+    private static final Pattern SESSION_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final int SWEEP_EVERY_CREATES = 200;
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 60_000L;
+
+    private final BoundedTtlCache<String, AdvisorSession> sessions;
+    private final int maxTurns;
+    private final Path spillDir;
+    private final long spillTtlMillis;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // Held while reading a spilled file; not the monitor, so a virtual thread is not pinned during the read.
+    private final ReentrantLock restoreLock = new ReentrantLock();
+    // Spilled sessions whose file is not written yet, and sessions parked while a turn holds them.
+    private final Map<String, PendingSpill> pendingSpills = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService spillWorker;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong restored = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+
+    public AdvisorSessionStore(
+            @Value("${advisor.sessions.max-sessions:2000}") int maxSessions,
+            @Value("${advisor.sessions.idle-minutes:60}") long idleMinutes,
+            @Value("${advisor.sessions.max-turns:30}") int maxTurns,
+            @Value("${advisor.sessions.spill-dir:}") String spillDir,
+            @Value("${advisor.sessions.spill-ttl-hours:24}") long spillTtlHours) {
+        this.maxTurns = maxTurns;
+        this.spillDir = spillDir == null || spillDir.isBlank() ? null : Path.of(spillDir);
+        this.spillTtlMillis = spillTtlHours * 3_600_000L;
+        this.sessions = new BoundedTtlCache<>(maxSessions, idleMinutes * 60_000L, true, (id, session) -> dropped(session));
+        this.spillWorker = Executors.newSingleThreadScheduledExecutor(TaskExecutors.daemonThreadFactory("session-sweep"));
+        long sweepMillis = Math.max(1_000L, Math.min(MAX_SWEEP_INTERVAL_MILLIS, idleMinutes * 60_000L / 4));
+        // snapshot() expires idle sessions, which hands them to the spill listener.
+        spillWorker.scheduleWithFixedDelay(sessions::snapshot, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        spillWorker.execute(this::sweepSpillDir);
+    }
+
+    public AdvisorSession create(StudentProfileRequest profile) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        AdvisorSession session = new AdvisorSession(id, profile, maxTurns, System.currentTimeMillis(), List.of());
+        sessions.put(id, session);
+        if (created.incrementAndGet() % SWEEP_EVERY_CREATES == 0) {
+            runOnSpillWorker(this::sweepSpillDir);
+        }
+        return session;
+    }
+
+    /** Returns the session, loading it back from the spill directory if needed, or null when unknown or expired. */
+    public AdvisorSession get(String id) {
+        if (id == null || !SESSION_ID.matcher(id).matches()) {
+            return null;
+        }
+        AdvisorSession session = sessions.get(id);
+        if (session != null || (spillDir == null && pendingSpills.isEmpty())) {
+            return session;
+        }
+        restoreLock.lock();
+        try {
+            // Another request may have restored it while we waited.
+            session = sessions.get(id);
+            if (session == null) {
+                PendingSpill pending = pendingSpills.remove(id);
+                session = pending != null ? pending.session() : spillDir == null ? null : restore(id);
+                if (session != null) {
+                    sessions.put(id, session);
+                }
+            }
+            return session;
+        } finally {
+            restoreLock.unlock();
+        }
+    }
+
+    /**
+     * Puts a session back that was evicted or swept while a turn held its lock, so the turn's messages are not
+     * left on an object the store no longer holds. Call it before releasing the turn lock. A session deleted
+     * meanwhile stays deleted.
+     */
+    public void keep(AdvisorSession session) {
+        PendingSpill pending = pendingSpills.get(session.id());
+        if (pending != null && pending.session() == session && pendingSpills.remove(session.id(), pending)) {
+            sessions.put(session.id(), session);
+        }
+    }
+
+    public boolean remove(String id) {
+        boolean removed = id != null && sessions.remove(id) != null;
+        removed |= id != null && pendingSpills.remove(id) != null;
+        if (spillDir != null && id != null && SESSION_ID.matcher(id).matches()) {
+            try {
+                removed |= Files.deleteIfExists(spillFile(id));
+            } catch (Exception e) {
+                logger.warn("Failed to delete spilled session {}: {}", id, e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", sessions.size());
+        stats.put("created", created.get());
+        stats.put("evictions", sessions.evictions());
+        stats.put("idleExpirations", sessions.expirations());
+        stats.put("spillEnabled", spillDir != null);
+        stats.put("spilled", spilled.get());
+        stats.put("pendingSpills", pendingSpills.size());
+        stats.put("restored", restored.get());
+        stats.put("spillFailures", spillFailures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        spillWorker.shutdown();
+        try {
+            // Let queued spill writes finish so those sessions survive a restart.
+            spillWorker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dropped(AdvisorSession session) {
+        if (session.turnLock().isLocked()) {
+            // Mid-turn: parked, unwritten, so a concurrent request still finds it and the turn can keep() it.
+            pendingSpills.put(session.id(), new PendingSpill(session));
+        } else if (spillDir != null) {
+            scheduleSpill(session);
+        }
+    }
+
+    private void scheduleSpill(AdvisorSession session) {
+        PendingSpill pending = new PendingSpill(session);
+        pendingSpills.put(session.id(), pending);
+        runOnSpillWorker(() -> {
+            spill(session);
+            // A request (or delete) took the session back while the file was written; the file is stale.
+            if (!pendingSpills.remove(session.id(), pending)) {
+                deleteQuietly(session.id());
+            }
+        });
+    }
+
+    private void runOnSpillWorker(Runnable task) {
+        try {
+            spillWorker.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: finish on the caller rather than lose the session.
+            task.run();
+        }
+    }
+
+    private void deleteQuietly(String id) {
+        try {
+            Files.deleteIfExists(spillFile(id));
+        } catch (Exception e) {
+            logger.warn("Failed to delete spilled session {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void spill(AdvisorSession session) {
+        try {
+            Files.createDirectories(spillDir);
+            SpilledSession snapshot = new SpilledSession(session.id(), session.createdAtMillis(),
+                    session.profile(), session.turns());
+            Path target = spillFile(session.id());
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            mapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            spilled.incrementAndGet();
+        } catch (Exception e) {
+            spillFailures.incrementAndGet();
+            logger.warn("Failed to spill session {}: {}", session.id(), e.getMessage());
+        }
+    }
+
+    private AdvisorSession restore(String id) {
+        Path file = spillFile(id);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            if (System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > spillTtlMillis) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            SpilledSession snapshot = mapper.readValue(file.toFile(), SpilledSession.class);
+            Files.deleteIfExists(file);
+            restored.incrementAndGet();
+            return new AdvisorSession(snapshot.id(), snapshot.profile(), maxTurns,
+                    snapshot.createdAtMillis(), snapshot.turns());
+        } catch (Exception e) {
+            logger.warn("Failed to restore spilled session {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void sweepSpillDir() {
+        if (spillDir == null || !Files.isDirectory(spillDir)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - spillTtlMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir, "*.json")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to sweep session spill directory {}: {}", spillDir, e.getMessage());
+        }
+    }
+
+    private Path spillFile(String id) {
+        return spillDir.resolve(id + ".json");
+    }
+
+    // Deliberately not a record: the pending map must compare by identity, not by the session's fields.
+    private static final class PendingSpill {
+        private final AdvisorSession session;
+
+        PendingSpill(AdvisorSession session) {
+            this.session = session;
+        }
+
+        AdvisorSession session() {
+            return session;
+        }
+    }
+
+    record SpilledSession(String id, long createdAtMillis, StudentProfileRequest profile, List<AdvisorSession.Turn> turns) {}
+}
@@ -0,0 +1,22 @@
+package com.magicbus.careercatalyst.session;
+
+public class SessionMessageRequest {
+    private String message;
+    private Boolean roadmapRequested;
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Boolean getRoadmapRequested() {
+        return roadmapRequested;
+    }
+
+    public void setRoadmapRequested(Boolean roadmapRequested) {
+        this.roadmapRequested = roadmapRequested;
+    }
+}
@@ -0,0 +1,108 @@
+package com.magicbus.careercatalyst.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 0, 60_000);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1L, breaker.stats().get("opened"));
+        assertEquals(1L, breaker.stats().get("rejected"));
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 0, 60_000);
+
+        breaker.onFailure();
+        breaker.onSuccess(FAST);
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, breaker.stats().get("consecutiveFailures"));
+    }
+
+    @Test
+    void slowSuccessesCountAsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 100, 60_000);
+
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(SLOW);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onSuccess(SLOW);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(), "only one trial call at a time");
+
+        breaker.onSuccess(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialReopensTheBreaker() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2L, breaker.stats().get("opened"));
+    }
+
+    @Test
+    void slowTrialReopensTheBreaker() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100, 50);
+        breaker.onFailure();
+        Thread.sleep(80);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private static CircuitBreaker openBreaker(long openMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, openMillis);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        return breaker;
+    }
+}
@@ -0,0 +1,40 @@
+package com.magicbus.careercatalyst.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyTrackerTest {
+
+    @Test
+    void reportsNearestRankPercentiles() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        for (int ms = 100; ms >= 1; ms--) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(50, tracker.percentileMillis(0.5));
+        assertEquals(95, tracker.percentileMillis(0.95));
+        assertEquals(100, tracker.percentileMillis(1.0));
+        assertEquals(1, tracker.percentileMillis(0.0));
+    }
+
+    @Test
+    void keepsOnlyTheLastWindowOfSamples() {
+        LatencyTracker tracker = new LatencyTracker(3);
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(900));
+        for (int i = 0; i < 3; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertEquals(3, tracker.count());
+        assertEquals(10, tracker.percentileMillis(1.0));
+    }
+
+    @Test
+    void noSamplesMeansNoPercentile() {
+        assertEquals(-1, new LatencyTracker(10).percentileMillis(0.99));
+    }
+}
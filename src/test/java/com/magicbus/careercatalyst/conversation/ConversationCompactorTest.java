@@ -0,0 +1,130 @@
+package com.magicbus.careercatalyst.conversation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversationCompactorTest {
+
+    private final ConversationCompactor compactor = new ConversationCompactor(true, 600, 4, 200, 100);
+
+    @Test
+    void shortConversationsComeBackUnchanged() {
+        String conversation = "User: I like computers.\nAssistant: Great, tell me more about what you enjoy.";
+
+        assertSame(conversation, compactor.compact(conversation));
+        assertEquals(ConversationCompactor.NO_PRIOR_MESSAGES, compactor.compact(ConversationCompactor.NO_PRIOR_MESSAGES));
+        assertEquals(null, compactor.compact(null));
+        assertEquals("  ", compactor.compact("  "));
+    }
+
+    @Test
+    void disabledCompactorPassesLongConversationsThrough() {
+        ConversationCompactor disabled = new ConversationCompactor(false, 600, 4, 200, 100);
+        String conversation = conversation(20);
+
+        assertSame(conversation, disabled.compact(conversation));
+    }
+
+    @Test
+    void keepsRecentTurnsVerbatimAndSummarizesTheRest() {
+        String conversation = conversation(20);
+
+        String compacted = compactor.compact(conversation);
+
+        assertTrue(compacted.startsWith("Summary of earlier conversation (16 turns):\n"), compacted);
+        assertTrue(compacted.contains("\nRecent messages:\n"));
+        List<ConversationCompactor.Turn> turns = ConversationCompactor.parse(conversation);
+        for (ConversationCompactor.Turn turn : turns.subList(16, 20)) {
+            assertTrue(compacted.contains(turn.render()), "missing recent turn " + turn.render());
+        }
+        // The opening user turn survives as the anchor even when older digests are dropped.
+        assertTrue(compacted.contains("- User: Turn 0 opens with my goal of becoming a data analyst."), compacted);
+        assertTrue(new JTokkitTokenCountEstimator().estimate(compacted) <= 600 + 20);
+        assertTrue(new JTokkitTokenCountEstimator().estimate(compacted)
+                < new JTokkitTokenCountEstimator().estimate(conversation));
+    }
+
+    @Test
+    void digestsEachTurnOnce() {
+        String conversation = conversation(20);
+        compactor.compact(conversation);
+        long digested = (long) compactor.stats().get("turnsDigested");
+
+        compactor.compact(conversation + "\nUser: One more question about internships.");
+
+        assertEquals(digested + 1, (long) compactor.stats().get("turnsDigested"));
+        assertTrue((long) compactor.stats().get("digestReuses") >= 16);
+    }
+
+    @Test
+    void truncatesALatestTurnThatIsTooLongOnItsOwn() {
+        ConversationCompactor small = new ConversationCompactor(true, 200, 4, 50, 100);
+        String longTurn = "Assistant: " + "This roadmap step explains the next module in detail. ".repeat(60);
+
+        String compacted = small.compact("User: Hi there.\n" + longTurn);
+
+        assertTrue(compacted.endsWith(" …"), compacted);
+        assertTrue(new JTokkitTokenCountEstimator().estimate(compacted) <= 200);
+    }
+
+    @Test
+    void extractsTheFirstSentenceAndBoldKeyPoints() {
+        String content = """
+                You could start with **Data Entry** roles. Later move towards **Excel Reporting**.
+                ```
+                =SUM(A1:A10) should be ignored.
+                ```
+                | Module | Weeks |
+                - Also consider **Customer Support** and **Retail Sales** and **Logistics**.
+                """;
+
+        String digest = ConversationCompactor.extract(content);
+
+        assertEquals("You could start with Data Entry roles. "
+                + "Key points: Data Entry; Excel Reporting; Customer Support.", digest);
+    }
+
+    @Test
+    void capsLongSentencesAtThirtyWords() {
+        String digest = ConversationCompactor.extract("word ".repeat(50).trim());
+
+        assertEquals(31, digest.split(" ").length);
+        assertTrue(digest.endsWith(" …"));
+    }
+
+    @Test
+    void parsesContinuationLinesAndLeadingContext() {
+        List<ConversationCompactor.Turn> turns = ConversationCompactor.parse(
+                "Profile loaded from onboarding.\nUser: First line\nsecond line\nAssistant: Reply");
+
+        assertEquals(3, turns.size());
+        assertEquals("Context", turns.get(0).role());
+        assertEquals("First line\nsecond line", turns.get(1).content());
+        assertEquals("Assistant", turns.get(2).role());
+        assertFalse(turns.get(2).content().isEmpty());
+    }
+
+    private static String conversation(int turns) {
+        StringBuilder conversation = new StringBuilder();
+        for (int i = 0; i < turns; i++) {
+            if (i % 2 == 0) {
+                conversation.append("User: Turn ").append(i).append(i == 0
+                        ? " opens with my goal of becoming a data analyst."
+                        : " asks another question about courses, timings and the skills I need to practise every week.");
+            } else {
+                conversation.append("Assistant: Turn ").append(i)
+                        .append(" answers with **Excel Basics** first. Then it explains how the module fits the")
+                        .append(" student's week, which devices work, and what to practise between sessions.");
+            }
+            conversation.append('\n');
+        }
+        return conversation.toString().strip();
+    }
+}
@@ -0,0 +1,156 @@
+package com.magicbus.careercatalyst.embedding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedEmbeddingStoreTest {
+
+    private static final int DIMENSIONS = 4;
+    private static final String MODEL = "text-embedding-ada-002";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void storesAndReopensVectors() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            store.put(key(1), new float[] {1f, 2f, 3f, 4f});
+            store.put(key(2), new float[] {5f, 6f, 7f, 8f});
+
+            assertArrayEquals(new float[] {1f, 2f, 3f, 4f}, toArray(store.get(key(1))));
+            assertTrue(store.get(key(1)).isReadOnly());
+            assertNull(store.get(key(3)));
+        }
+
+        try (MappedEmbeddingStore reopened = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            assertEquals(2, reopened.size());
+            assertEquals(0, reopened.deadRecords());
+            assertArrayEquals(new float[] {5f, 6f, 7f, 8f}, toArray(reopened.get(key(2))));
+        }
+    }
+
+    @Test
+    void overwrittenAndRemovedRecordsStayDeadAfterReopen() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            store.put(key(1), new float[] {1f, 1f, 1f, 1f});
+            store.put(key(1), new float[] {2f, 2f, 2f, 2f});
+            store.put(key(2), new float[] {3f, 3f, 3f, 3f});
+
+            assertTrue(store.remove(key(2)));
+            assertFalse(store.remove(key(2)));
+            assertEquals(1, store.size());
+            assertEquals(2, store.deadRecords());
+        }
+
+        try (MappedEmbeddingStore reopened = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            assertEquals(1, reopened.size());
+            assertEquals(2, reopened.deadRecords());
+            assertArrayEquals(new float[] {2f, 2f, 2f, 2f}, toArray(reopened.get(key(1))));
+            assertNull(reopened.get(key(2)));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveRecords() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            store.put(key(1), new float[] {1f, 1f, 1f, 1f});
+            store.put(key(2), new float[] {2f, 2f, 2f, 2f});
+            store.put(key(3), new float[] {3f, 3f, 3f, 3f});
+            store.put(key(1), new float[] {4f, 4f, 4f, 4f});
+            store.remove(key(2));
+            long before = store.fileBytes();
+
+            store.compact();
+
+            assertEquals(2, store.size());
+            assertEquals(0, store.deadRecords());
+            assertTrue(store.fileBytes() < before);
+            assertArrayEquals(new float[] {4f, 4f, 4f, 4f}, toArray(store.get(key(1))));
+            assertArrayEquals(new float[] {3f, 3f, 3f, 3f}, toArray(store.get(key(3))));
+
+            store.put(key(5), new float[] {5f, 5f, 5f, 5f});
+        }
+
+        try (MappedEmbeddingStore reopened = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            assertEquals(3, reopened.size());
+            assertEquals(0, reopened.deadRecords());
+            assertNull(reopened.get(key(2)));
+            assertArrayEquals(new float[] {5f, 5f, 5f, 5f}, toArray(reopened.get(key(5))));
+        }
+    }
+
+    @Test
+    void growsPastTheInitialMappingWithoutInvalidatingViews() throws IOException {
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(dir.resolve("embeddings.bin"), DIMENSIONS, MODEL)) {
+            store.put(key(0), new float[] {9f, 9f, 9f, 9f});
+            FloatBuffer first = store.get(key(0));
+            for (int i = 1; i < 3000; i++) {
+                store.put(key(i), new float[] {i, i, i, i});
+            }
+
+            assertEquals(3000, store.size());
+            assertArrayEquals(new float[] {9f, 9f, 9f, 9f}, toArray(first));
+            assertArrayEquals(new float[] {2999f, 2999f, 2999f, 2999f}, toArray(store.get(key(2999))));
+        }
+    }
+
+    @Test
+    void rejectsAFileWrittenForAnotherLayoutOrModel() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            store.put(key(1), new float[] {1f, 2f, 3f, 4f});
+        }
+
+        assertThrows(IOException.class, () -> new MappedEmbeddingStore(file, DIMENSIONS * 2, MODEL));
+        assertThrows(IOException.class, () -> new MappedEmbeddingStore(file, DIMENSIONS, "text-embedding-3-small"));
+    }
+
+    @Test
+    void rejectsAHeaderThatClaimsMoreRecordsThanTheFileHolds() throws IOException {
+        Path file = dir.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, DIMENSIONS, MODEL)) {
+            store.put(key(1), new float[] {1f, 2f, 3f, 4f});
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 1_000_000), 12);
+        }
+
+        assertThrows(IOException.class, () -> new MappedEmbeddingStore(file, DIMENSIONS, MODEL));
+    }
+
+    @Test
+    void rejectsMalformedKeysAndVectors() throws IOException {
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(dir.resolve("embeddings.bin"), DIMENSIONS, MODEL)) {
+            assertThrows(IllegalArgumentException.class, () -> store.put(new byte[16], new float[DIMENSIONS]));
+            assertThrows(IllegalArgumentException.class, () -> store.put(key(1), new float[DIMENSIONS + 1]));
+            assertEquals(0, store.size());
+        }
+    }
+
+    private static byte[] key(int value) {
+        return ByteBuffer.allocate(32).putInt(0, value + 1).putInt(28, value).array();
+    }
+
+    private static float[] toArray(FloatBuffer buffer) {
+        float[] vector = new float[buffer.remaining()];
+        buffer.duplicate().get(vector);
+        return vector;
+    }
+}
@@ -0,0 +1,107 @@
+package com.magicbus.careercatalyst.functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurriculumCatalogTest {
+
+    private static final CurriculumCatalog.Track CLOUD_SUPPORT =
+            new CurriculumCatalog.Track("Cloud Support", List.of(), List.of("Linux Basics"));
+    private static final CurriculumCatalog.Track CLOUD_ASSOCIATE =
+            new CurriculumCatalog.Track("Cloud Support Associate", List.of(), List.of("AWS Cloud Practitioner"));
+    private static final CurriculumCatalog.Track CUSTOMER_SUPPORT =
+            new CurriculumCatalog.Track("Customer Support", List.of("BPO", "Call Centre"), List.of("Spoken English"));
+    private static final CurriculumCatalog.Track AI =
+            new CurriculumCatalog.Track("AI", List.of(), List.of("Prompting Basics"));
+    private static final CurriculumCatalog.Track GENERAL =
+            new CurriculumCatalog.Track("General", List.of(), List.of("Digital Literacy", "Workplace Readiness"));
+
+    @Test
+    void longestMatchWinsWhateverTheCatalogOrder() {
+        CurriculumCatalog shortFirst = new CurriculumCatalog(List.of(CLOUD_SUPPORT, CLOUD_ASSOCIATE));
+        CurriculumCatalog longFirst = new CurriculumCatalog(List.of(CLOUD_ASSOCIATE, CLOUD_SUPPORT));
+
+        assertEquals(Optional.of(CLOUD_ASSOCIATE), shortFirst.match("I want to be a Cloud Support Associate"));
+        assertEquals(Optional.of(CLOUD_ASSOCIATE), longFirst.match("I want to be a Cloud Support Associate"));
+        assertEquals(Optional.of(CLOUD_SUPPORT), shortFirst.match("cloud support roles"));
+    }
+
+    @Test
+    void longerMatchLaterInTheQueryBeatsAnEarlierShortOne() {
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(AI, CLOUD_SUPPORT, CLOUD_ASSOCIATE));
+
+        assertEquals(Optional.of(CLOUD_ASSOCIATE), catalog.match("AI or maybe cloud support associate"));
+    }
+
+    @Test
+    void equalLengthMatchesGoToTheFirstInTheQuery() {
+        CurriculumCatalog.Track retail = new CurriculumCatalog.Track("Retail Sales", List.of(), List.of());
+        CurriculumCatalog.Track dataEntry = new CurriculumCatalog.Track("Data Entry A", List.of(), List.of());
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(retail, dataEntry));
+
+        assertEquals(Optional.of(dataEntry), catalog.match("data entry a or retail sales"));
+        assertEquals(Optional.of(retail), catalog.match("retail sales or data entry a"));
+    }
+
+    @Test
+    void findsPatternsReachedThroughFailureLinks() {
+        CurriculumCatalog.Track frontEnd = new CurriculumCatalog.Track("Front End Developer", List.of(), List.of());
+        CurriculumCatalog.Track endDeveloper = new CurriculumCatalog.Track("End Developer", List.of(), List.of());
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(frontEnd, endDeveloper));
+
+        assertEquals(Optional.of(endDeveloper), catalog.match("back end developer"));
+        assertEquals(Optional.of(endDeveloper), catalog.match("front end developers? no, an end developer"));
+        assertEquals(Optional.of(frontEnd), catalog.match("front end developer"));
+    }
+
+    @Test
+    void matchesOnlyOnWordBoundaries() {
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(AI, CUSTOMER_SUPPORT));
+
+        assertTrue(catalog.match("I maintain email accounts").isEmpty());
+        assertEquals(Optional.of(AI), catalog.match("interested in AI."));
+        assertEquals(Optional.of(AI), catalog.match("ai/ml"));
+    }
+
+    @Test
+    void matchesAliasesIgnoringCaseAndSpacing() {
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(CUSTOMER_SUPPORT));
+
+        assertEquals(Optional.of(CUSTOMER_SUPPORT), catalog.match("a job in a bpo"));
+        assertEquals(Optional.of(CUSTOMER_SUPPORT), catalog.match("CALL    centre work"));
+        assertEquals(Optional.of(CUSTOMER_SUPPORT), catalog.match("  customer\tsupport "));
+    }
+
+    @Test
+    void firstTrackToClaimANameKeepsIt() {
+        CurriculumCatalog.Track helpdesk = new CurriculumCatalog.Track("Helpdesk", List.of("BPO"), List.of());
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(CUSTOMER_SUPPORT, helpdesk));
+
+        assertEquals(Optional.of(CUSTOMER_SUPPORT), catalog.match("bpo"));
+        assertEquals(4, catalog.patternCount());
+    }
+
+    @Test
+    void generalTrackIsTheFallbackAndNeverMatched() {
+        CurriculumCatalog catalog = new CurriculumCatalog(List.of(GENERAL, AI));
+
+        assertTrue(catalog.match("general studies").isEmpty());
+        assertEquals(List.of("Digital Literacy", "Workplace Readiness"), catalog.fallbackModules());
+        assertEquals(2, catalog.trackCount());
+        assertEquals(1, catalog.patternCount());
+    }
+
+    @Test
+    void emptyCatalogMatchesNothing() {
+        CurriculumCatalog catalog = CurriculumCatalog.empty();
+
+        assertTrue(catalog.match("data analyst").isEmpty());
+        assertTrue(catalog.match(null).isEmpty());
+        assertTrue(catalog.fallbackModules().isEmpty());
+    }
+}
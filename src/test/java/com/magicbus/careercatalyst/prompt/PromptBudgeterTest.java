@@ -0,0 +1,146 @@
+package com.magicbus.careercatalyst.prompt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptBudgeterTest {
+
+    private static final int BUDGET = 1000;
+    private static final int MIN_BLOCK = 40;
+
+    private final TokenCountEstimator tokens = new JTokkitTokenCountEstimator();
+    private final PromptBudgeter budgeter = new PromptBudgeter(true, BUDGET, BUDGET * 2, MIN_BLOCK);
+
+    @Test
+    void leavesPromptsUnderBudgetAlone() {
+        Map<String, Object> vars = new HashMap<>(Map.of(
+                "skills", "Excel, typing",
+                "kg_rules", "Rule 1: Excel leads to data entry",
+                "rag_context", story(1, 10)));
+        Map<String, Object> original = Map.copyOf(vars);
+
+        budgeter.apply(vars, false);
+
+        assertEquals(original, vars);
+        assertEquals(0L, budgeter.stats().get("compressedRequests"));
+    }
+
+    @Test
+    void dropsDuplicateStoriesEvenUnderBudget() {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("rag_context", String.join(PromptBudgeter.RAG_SEPARATOR,
+                story(1, 5), story(2, 5), "Student # 1 (again) | Skills: Excel", story(3, 5)));
+
+        budgeter.apply(vars, false);
+
+        assertEquals(String.join(PromptBudgeter.RAG_SEPARATOR, story(1, 5), story(2, 5), story(3, 5)),
+                vars.get("rag_context"));
+        assertEquals(1L, budgeter.stats().get("duplicateStories"));
+    }
+
+    @Test
+    void waterFillingKeepsSmallBlocksAndSharesTheRest() {
+        Map<String, Object> vars = oversizedPrompt();
+        String rules = (String) vars.get("kg_rules");
+        int profile = tokens.estimate((String) vars.get("skills")) + tokens.estimate((String) vars.get("interests"));
+        int before = total(vars);
+
+        budgeter.apply(vars, false);
+
+        assertEquals(rules, vars.get("kg_rules"), "a block under its share is kept whole");
+        int share = (BUDGET - profile - tokens.estimate(rules)) / 3;
+        for (String block : List.of("rag_context", "curriculum_modules", "conversation_context")) {
+            int size = tokens.estimate((String) vars.get(block));
+            assertTrue(size <= share + 30, block + " has " + size + " tokens, share is " + share);
+            assertTrue(size >= share / 2, block + " was cut too far: " + size + " tokens");
+        }
+        assertTrue(total(vars) <= BUDGET + 60, "total " + total(vars));
+        assertTrue(total(vars) < before);
+        assertEquals(1L, budgeter.stats().get("compressedRequests"));
+    }
+
+    @Test
+    void trimsLowestRankedEntriesFirst() {
+        Map<String, Object> vars = oversizedPrompt();
+
+        budgeter.apply(vars, false);
+
+        String curriculum = (String) vars.get("curriculum_modules");
+        assertTrue(curriculum.startsWith("Module 0:"));
+        assertFalse(curriculum.contains("Module 59:"));
+        assertTrue(curriculum.endsWith("lower-ranked lines omitted)"), curriculum);
+
+        String stories = (String) vars.get("rag_context");
+        assertTrue(stories.startsWith("Student #0 "));
+        assertFalse(stories.contains("Student #29 "));
+
+        String conversation = (String) vars.get("conversation_context");
+        assertTrue(conversation.startsWith("Summary of earlier conversation"), "the compactor summary is kept");
+        assertTrue(conversation.contains(PromptBudgeter.RECENT_MARKER + "(") && conversation.contains("earlier lines omitted)"));
+        assertTrue(conversation.endsWith("Assistant: Reply 79 about the next module and weekly practice."));
+        assertFalse(conversation.contains("User: Question 0 "));
+    }
+
+    @Test
+    void compressesTheSameInputTheSameWay() {
+        Map<String, Object> first = oversizedPrompt();
+        Map<String, Object> second = oversizedPrompt();
+
+        budgeter.apply(first, true);
+        budgeter.apply(second, true);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void disabledBudgeterChangesNothing() {
+        PromptBudgeter disabled = new PromptBudgeter(false, BUDGET, BUDGET, MIN_BLOCK);
+        Map<String, Object> vars = oversizedPrompt();
+        Map<String, Object> original = Map.copyOf(vars);
+
+        disabled.apply(vars, false);
+
+        assertEquals(original, vars);
+    }
+
+    private Map<String, Object> oversizedPrompt() {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("skills", "Excel, typing, spoken English");
+        vars.put("interests", "Data entry, retail");
+        vars.put("kg_rules", "Rule 1: Excel leads to data entry\nRule 2: Spoken English leads to customer support");
+        vars.put("rag_context", IntStream.range(0, 30)
+                .mapToObj(i -> story(i, 40))
+                .collect(Collectors.joining(PromptBudgeter.RAG_SEPARATOR)));
+        vars.put("curriculum_modules", IntStream.range(0, 60)
+                .mapToObj(i -> "Module " + i + ": Digital skills unit " + i + " covering spreadsheets and email")
+                .collect(Collectors.joining("\n")));
+        vars.put("conversation_context", "Summary of earlier conversation (12 turns):\n"
+                + "- User: I want an office job.\n"
+                + PromptBudgeter.RECENT_MARKER
+                + IntStream.range(0, 80)
+                .mapToObj(i -> i % 2 == 0
+                        ? "User: Question " + i + " about courses and timings."
+                        : "Assistant: Reply " + i + " about the next module and weekly practice.")
+                .collect(Collectors.joining("\n")));
+        return vars;
+    }
+
+    private static String story(int id, int words) {
+        return "Student #" + id + " (Name " + id + ") | Skills: " + "excel ".repeat(words).trim();
+    }
+
+    private int total(Map<String, Object> vars) {
+        return vars.values().stream().mapToInt(v -> tokens.estimate(v.toString())).sum();
+    }
+}
@@ -0,0 +1,173 @@
+package com.magicbus.careercatalyst.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AzureOpenAiRateLimiterTest {
+
+    private static final String LARGE = "gpt-4o";
+    private static final String SMALL = "gpt-4o-mini";
+
+    @Test
+    void batchLaneLeavesTheRequestReserveToInteractiveCalls() {
+        AzureOpenAiRateLimiter limiter = limiter(10, 100_000, 0.2);
+
+        int batch = 0;
+        while (limiter.tryAcquire(LARGE, RequestPriority.BATCH, 10) != null) {
+            batch++;
+        }
+        int interactive = 0;
+        while (limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10) != null) {
+            interactive++;
+        }
+
+        assertEquals(8, batch);
+        assertEquals(2, interactive);
+    }
+
+    @Test
+    void batchLaneLeavesTheTokenReserveToInteractiveCalls() {
+        AzureOpenAiRateLimiter limiter = limiter(1000, 1000, 0.2);
+
+        assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.BATCH, 500));
+        assertNull(limiter.tryAcquire(LARGE, RequestPriority.BATCH, 500));
+        assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 450));
+    }
+
+    @Test
+    void capsAnEstimateAtTheTokenQuota() {
+        AzureOpenAiRateLimiter limiter = limiter(100, 1000, 0.2);
+
+        AzureOpenAiRateLimiter.Permit permit = limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 50_000);
+
+        assertEquals(1000, permit.estimatedTokens());
+        assertEquals(LARGE, permit.deployment());
+    }
+
+    @Test
+    void reconcileChargesTheReportedUsage() {
+        AzureOpenAiRateLimiter limiter = limiter(100, 10_000, 0.2);
+
+        AzureOpenAiRateLimiter.Permit under = limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 1000);
+        limiter.reconcile(under, 3000);
+        assertEquals(7000, availableTokens(limiter, LARGE), 5);
+
+        AzureOpenAiRateLimiter.Permit over = limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 2000);
+        limiter.reconcile(over, 500);
+        assertEquals(6500, availableTokens(limiter, LARGE), 5);
+        assertEquals(3500L, limiter.stats().get("actualTokens"));
+    }
+
+    @Test
+    void releaseHandsBackTheRequestAndTokens() {
+        AzureOpenAiRateLimiter limiter = limiter(2, 10_000, 0.2);
+
+        AzureOpenAiRateLimiter.Permit first = limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 4000);
+        assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        assertNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+
+        limiter.release(first);
+
+        assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        assertEquals(10_000 - 20, availableTokens(limiter, LARGE), 5);
+    }
+
+    @Test
+    void headersOnlyEverLowerTheBuckets() {
+        AzureOpenAiRateLimiter limiter = limiter(100, 10_000, 0.2);
+
+        limiter.observe(LARGE, 50_000L, 50_000L, 0, false);
+        assertEquals(0L, limiter.stats().get("headerAdjustments"));
+
+        limiter.observe(LARGE, 20L, 2000L, 0, false);
+        assertEquals(1L, limiter.stats().get("headerAdjustments"));
+        assertEquals(2000, availableTokens(limiter, LARGE), 5);
+        assertEquals(0.2, limiter.headroom(), 0.01);
+    }
+
+    @Test
+    void retryAfterPausesOnlyTheThrottledDeployment() {
+        AzureOpenAiRateLimiter limiter = limiter(100, 10_000, 0.2);
+
+        limiter.observe(LARGE, null, null, 60_000, true);
+
+        assertNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        assertEquals(0.0, limiter.headroom(), 0.0);
+        assertNotNull(limiter.tryAcquire(SMALL, RequestPriority.INTERACTIVE, 10));
+        assertEquals(1L, limiter.stats().get("throttledResponses"));
+    }
+
+    @Test
+    void eachDeploymentHasItsOwnQuota() {
+        AzureOpenAiRateLimiter limiter = new AzureOpenAiRateLimiter(true, 2, 10_000, 5, 20_000, SMALL, LARGE,
+                0.2, 50, 50);
+
+        assertNotNull(limiter.tryAcquire(null, RequestPriority.INTERACTIVE, 10));
+        assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        assertNull(limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(limiter.tryAcquire(SMALL, RequestPriority.INTERACTIVE, 10));
+        }
+        assertNull(limiter.tryAcquire(SMALL, RequestPriority.INTERACTIVE, 10));
+
+        Map<?, ?> deployments = (Map<?, ?>) limiter.stats().get("deployments");
+        assertEquals(20_000L, ((Map<?, ?>) deployments.get(SMALL)).get("tokensPerMinute"));
+        assertEquals(10_000L, ((Map<?, ?>) deployments.get(LARGE)).get("tokensPerMinute"));
+    }
+
+    @Test
+    void acquireWaitsForTheRefill() {
+        // One request every 100 ms.
+        AzureOpenAiRateLimiter limiter = new AzureOpenAiRateLimiter(true, 600, 100_000, 0, 0, "", LARGE,
+                0.2, 5000, 5000);
+        while (limiter.tryAcquire(LARGE, RequestPriority.INTERACTIVE, 10) != null) {
+            // drain
+        }
+
+        long start = System.nanoTime();
+        assertNotNull(limiter.acquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(waitedMs >= 50 && waitedMs < 2000, "waited " + waitedMs + " ms");
+    }
+
+    @Test
+    void acquireGivesUpAfterTheLaneWaitLimit() {
+        AzureOpenAiRateLimiter limiter = limiter(1, 100_000, 0.2);
+        assertNotNull(limiter.acquire(LARGE, RequestPriority.INTERACTIVE, 10));
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(LARGE, RequestPriority.INTERACTIVE, 10));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(LARGE, RequestPriority.BATCH, 10));
+        assertEquals(1L, ((Map<?, ?>) limiter.stats().get("interactive")).get("rejected"));
+        assertEquals(1L, ((Map<?, ?>) limiter.stats().get("batch")).get("rejected"));
+    }
+
+    @Test
+    void disabledLimiterNeverWaits() {
+        AzureOpenAiRateLimiter limiter = new AzureOpenAiRateLimiter(false, 1, 1, 1, 1, "", LARGE, 0.2, 50, 50);
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(limiter.tryAcquire(LARGE, RequestPriority.BATCH, 1000));
+        }
+        assertFalse(limiter.isEnabled());
+        assertEquals(1.0, limiter.headroom(), 0.0);
+    }
+
+    private static AzureOpenAiRateLimiter limiter(int requestsPerMinute, int tokensPerMinute, double reserve) {
+        return new AzureOpenAiRateLimiter(true, requestsPerMinute, tokensPerMinute, 0, 0, "", LARGE,
+                reserve, 50, 50);
+    }
+
+    private static double availableTokens(AzureOpenAiRateLimiter limiter, String deployment) {
+        Map<?, ?> deployments = (Map<?, ?>) limiter.stats().get("deployments");
+        return ((Number) ((Map<?, ?>) deployments.get(deployment)).get("availableTokens")).doubleValue();
+    }
+}
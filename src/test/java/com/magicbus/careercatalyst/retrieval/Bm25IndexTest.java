@@ -0,0 +1,81 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    @Test
+    void tokenizesWholePhrasesAndSingleWords() {
+        List<String> terms = Bm25Index.tokenize("Python, SQL (basics) | Data entry; C++ and a Student");
+
+        assertTrue(terms.contains("sql (basics)"));
+        assertTrue(terms.contains("data entry"));
+        assertTrue(terms.containsAll(List.of("python", "sql", "basics", "data", "entry", "c++")));
+        assertFalse(terms.contains("and"));
+        assertFalse(terms.contains("student"));
+        assertFalse(terms.contains("a"));
+    }
+
+    @Test
+    void exactPhraseOutranksWordOverlap() {
+        Bm25Index index = new Bm25Index(
+                List.of("1", "2", "3"),
+                List.of("excel, data entry", "entry level jobs, data science", "drawing, music"));
+
+        List<Bm25Index.Hit> hits = index.search("data entry", 5);
+
+        assertEquals(2, hits.size());
+        assertEquals("1", hits.get(0).id());
+        assertEquals("2", hits.get(1).id());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void returnsDisplayTextForIndexedRows() {
+        Bm25Index index = new Bm25Index(
+                List.of("7"),
+                List.of("tally, accounting"),
+                List.of("Student #7 (Asha) | Skills: Tally | Interests: Accounting"));
+
+        List<Bm25Index.Hit> hits = index.search("Tally", 3);
+
+        assertEquals(1, hits.size());
+        assertEquals("Student #7 (Asha) | Skills: Tally | Interests: Accounting", hits.get(0).text());
+        // Labels from the display text are not indexed.
+        assertTrue(index.search("Skills Interests", 3).isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTheBestKMatchingDocuments() {
+        Bm25Index index = new Bm25Index(
+                List.of("1", "2", "3", "4"),
+                List.of("java, sql", "java, java", "python, sql", "java, excel"));
+
+        List<Bm25Index.Hit> hits = index.search("java", 2);
+
+        assertEquals(2, hits.size());
+        assertEquals("2", hits.get(0).id());
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+        assertTrue(index.search("rust", 5).isEmpty());
+        assertTrue(index.search("  ", 5).isEmpty());
+        assertTrue(index.search(null, 5).isEmpty());
+        assertTrue(index.search("java", 0).isEmpty());
+        assertTrue(new Bm25Index(List.of(), List.of()).search("java", 5).isEmpty());
+    }
+
+    @Test
+    void countsRepeatedQueryTermsOnce() {
+        Bm25Index index = new Bm25Index(List.of("1", "2"), List.of("python, excel", "excel"));
+
+        float once = index.search("python", 1).get(0).score();
+        float repeated = index.search("python, python, python", 1).get(0).score();
+
+        assertEquals(once, repeated, 1e-6);
+    }
+}
@@ -0,0 +1,155 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(7);
+        List<float[]> vectors = randomVectors(random, 2000);
+        HnswIndex index = build(vectors);
+
+        int k = 10;
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<String> expected = new HashSet<>(bruteForce(vectors, query, k));
+            for (HnswIndex.SearchResult result : index.search(query, k, 64)) {
+                if (expected.contains(result.id())) {
+                    found++;
+                }
+            }
+        }
+        double recall = (double) found / (queries * k);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    void returnsResultsClosestFirstAndFindsExactMatch() {
+        List<float[]> vectors = randomVectors(new Random(11), 500);
+        HnswIndex index = build(vectors);
+
+        List<HnswIndex.SearchResult> results = index.search(vectors.get(123), 5, 32);
+
+        assertEquals("s123", results.get(0).id());
+        assertEquals(0.0, results.get(0).distance(), 1e-5);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).distance() <= results.get(i).distance());
+        }
+    }
+
+    @Test
+    void ignoresDuplicateIdsAndRejectsWrongDimensions() {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, "hashing");
+        float[] vector = randomVector(new Random(3));
+        index.add("a", vector);
+        index.add("a", randomVector(new Random(4)));
+
+        assertEquals(1, index.size());
+        assertThrows(IllegalArgumentException.class, () -> index.add("b", new float[DIMENSIONS + 1]));
+        assertTrue(index.search(new float[DIMENSIONS - 1], 3, 10).isEmpty());
+        assertTrue(new HnswIndex(DIMENSIONS, 8, 50, "hashing").search(vector, 3, 10).isEmpty());
+    }
+
+    @Test
+    void saveAndLoadRoundTripsTheGraph() throws IOException {
+        Random random = new Random(19);
+        List<float[]> vectors = randomVectors(random, 300);
+        HnswIndex index = build(vectors);
+        Path file = dir.resolve("index/students.hnsw");
+
+        index.save(file);
+        HnswIndex loaded = HnswIndex.load(file);
+
+        assertEquals(index.size(), loaded.size());
+        assertEquals("hashing", loaded.embedderName());
+        assertEquals(DIMENSIONS, loaded.dimensions());
+        assertTrue(loaded.contains("s42"));
+        assertTrue(Files.notExists(file.resolveSibling("students.hnsw.tmp")));
+        for (int q = 0; q < 10; q++) {
+            float[] query = randomVector(random);
+            assertEquals(index.search(query, 5, 32), loaded.search(query, 5, 32));
+        }
+
+        // A loaded index keeps growing like a fresh one.
+        float[] extra = randomVector(random);
+        loaded.add("extra", extra);
+        assertEquals("extra", loaded.search(extra, 1, 32).get(0).id());
+    }
+
+    @Test
+    void loadRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("not-an-index.bin");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThrows(IOException.class, () -> HnswIndex.load(file));
+    }
+
+    private static HnswIndex build(List<float[]> vectors) {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, "hashing");
+        for (int i = 0; i < vectors.size(); i++) {
+            index.add("s" + i, vectors.get(i));
+        }
+        return index;
+    }
+
+    private static List<String> bruteForce(List<float[]> vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -cosine(vectors.get(i), query)))
+                .limit(k)
+                .map(i -> "s" + i)
+                .toList();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    private static List<float[]> randomVectors(Random random, int count) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vectors.add(randomVector(random));
+        }
+        return vectors;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
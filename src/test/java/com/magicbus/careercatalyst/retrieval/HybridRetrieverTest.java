@@ -0,0 +1,73 @@
+package com.magicbus.careercatalyst.retrieval;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HybridRetrieverTest {
+
+    private static final int RRF_K = 60;
+
+    @Test
+    void queryKeepsTheLastSkillAndFirstInterestApart() {
+        String query = HybridRetriever.query("Typing, MS Excel", "Data entry, Retail");
+
+        assertEquals("Typing, MS Excel, Data entry, Retail", query);
+        List<String> terms = Bm25Index.tokenize(query);
+        assertTrue(terms.contains("ms excel"));
+        assertTrue(terms.contains("data entry"));
+        assertFalse(terms.contains("ms excel data entry"));
+    }
+
+    @Test
+    void documentsFoundByBothLegsRankFirst() {
+        List<Document> vector = List.of(student("1"), student("2"), student("3"));
+        List<Bm25Index.Hit> lexical = List.of(hit("3", 4.2f), hit("4", 3.1f));
+
+        List<Document> fused = HybridRetriever.fuse(lexical, vector, 2, RRF_K);
+
+        assertEquals(List.of("3", "1"), ids(fused));
+    }
+
+    @Test
+    void mergesDatabricksRowsByTheStudentNumberInTheirText() {
+        List<Document> vector = List.of(
+                new Document("Student #9 (Ravi) | Skills: Welding"),
+                new Document("A row without an id"));
+        List<Bm25Index.Hit> lexical = List.of(hit("9", 2.0f));
+
+        List<Document> fused = HybridRetriever.fuse(lexical, vector, 5, RRF_K);
+
+        assertEquals(2, fused.size());
+        // The vector leg's copy is kept, so the row appears once.
+        assertEquals("Student #9 (Ravi) | Skills: Welding", fused.get(0).getText());
+        assertEquals("A row without an id", fused.get(1).getText());
+    }
+
+    @Test
+    void lexicalOnlyResultsKeepTheirOrderAndScore() {
+        List<Document> fused = HybridRetriever.fuse(List.of(hit("5", 3.0f), hit("6", 1.5f)), List.of(), 5, RRF_K);
+
+        assertEquals(List.of("5", "6"), ids(fused));
+        assertEquals("Student #5", fused.get(0).getText());
+        assertEquals(3.0f, fused.get(0).getMetadata().get("bm25"));
+    }
+
+    private static Document student(String id) {
+        return new Document("Student #" + id, Map.of("student_id", id));
+    }
+
+    private static Bm25Index.Hit hit(String id, float score) {
+        return new Bm25Index.Hit(id, "Student #" + id, score);
+    }
+
+    private static List<String> ids(List<Document> documents) {
+        return documents.stream().map(d -> String.valueOf(d.getMetadata().get("student_id"))).toList();
+    }
+}